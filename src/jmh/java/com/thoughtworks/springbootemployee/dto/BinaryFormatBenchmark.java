@@ -0,0 +1,73 @@
+package com.thoughtworks.springbootemployee.dto;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BinaryFormatBenchmark {
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"1", "1000", "100000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private JavaType employeeResponsesType;
+    private List<EmployeeResponse> employeeResponses;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = new ObjectMapper(factory(format))
+                .setFilterProvider(new SimpleFilterProvider().setFailOnUnknownId(false));
+        employeeResponsesType = objectMapper.getTypeFactory().constructCollectionType(List.class, EmployeeResponse.class);
+        employeeResponses = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            employeeResponses.add(new EmployeeResponse(String.format("5f0c2b8a9d1e3a4b%08x", i), "Employee " + i,
+                    18 + i % 40, i % 2 == 0 ? "male" : "female", 1000 + i, (long) i % 5));
+        }
+        payload = objectMapper.writeValueAsBytes(employeeResponses);
+        // the encoded size is fixed per format and size, so it is reported once rather than per operation
+        System.out.println("Payload size for " + format + " x " + size + ": " + payload.length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] encodeEmployeeResponses() throws IOException {
+        return objectMapper.writeValueAsBytes(employeeResponses);
+    }
+
+    @Benchmark
+    public List<EmployeeResponse> decodeEmployeeResponses() throws IOException {
+        return objectMapper.readValue(payload, employeeResponsesType);
+    }
+
+    private static JsonFactory factory(String format) {
+        switch (format) {
+            case "cbor":
+                return new CBORFactory();
+            case "smile":
+                return new SmileFactory();
+            default:
+                return new JsonFactory();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.thoughtworks.springbootemployee.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+    @Param({"1", "1000", "100000"})
+    private int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .setFilterProvider(new SimpleFilterProvider().setFailOnUnknownId(false));
+
+    private List<EmployeeResponse> employeeResponses;
+
+    @Setup
+    public void setUp() {
+        employeeResponses = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            employeeResponses.add(new EmployeeResponse(String.format("5f0c2b8a9d1e3a4b%08x", i), "Employee " + i,
+                    18 + i % 40, i % 2 == 0 ? "male" : "female", 1000 + i));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeEmployeeResponses() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(employeeResponses);
+    }
+}
@@ -0,0 +1,93 @@
+package com.thoughtworks.springbootemployee.mapper;
+
+import com.thoughtworks.springbootemployee.dto.CompanyResponse;
+import com.thoughtworks.springbootemployee.dto.EmployeeResponse;
+import com.thoughtworks.springbootemployee.model.Company;
+import com.thoughtworks.springbootemployee.model.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.beans.BeanUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MapperBenchmark {
+    private static final int LIST_SIZE = 10_000;
+
+    private final EmployeeMapper employeeMapper = new EmployeeMapper();
+    private final CompanyMapper companyMapper = new CompanyMapper();
+
+    private Employee employee;
+    private Company company;
+    private List<Employee> employees;
+
+    @Setup
+    public void setUp() {
+        employee = employee(0);
+        company = new Company("ABC Company", 1000, Arrays.asList("5f0c2b8a9d1e3a4b5c6d7e01", "5f0c2b8a9d1e3a4b5c6d7e02"));
+        company.setId("5f0c2b8a9d1e3a4b5c6d7e00");
+        employees = new ArrayList<>(LIST_SIZE);
+        for (int i = 0; i < LIST_SIZE; i++) {
+            employees.add(employee(i));
+        }
+    }
+
+    @Benchmark
+    public EmployeeResponse employeeBeanUtils() {
+        EmployeeResponse employeeResponse = new EmployeeResponse();
+        BeanUtils.copyProperties(employee, employeeResponse);
+        return employeeResponse;
+    }
+
+    @Benchmark
+    public EmployeeResponse employeeMapper() {
+        return employeeMapper.toResponse(employee);
+    }
+
+    @Benchmark
+    public CompanyResponse companyBeanUtils() {
+        CompanyResponse companyResponse = new CompanyResponse();
+        BeanUtils.copyProperties(company, companyResponse);
+        return companyResponse;
+    }
+
+    @Benchmark
+    public CompanyResponse companyMapper() {
+        return companyMapper.toResponse(company);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public List<EmployeeResponse> employeeListBeanUtils() {
+        return employees.stream()
+                .map(employee -> {
+                    EmployeeResponse employeeResponse = new EmployeeResponse();
+                    BeanUtils.copyProperties(employee, employeeResponse);
+                    return employeeResponse;
+                })
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public List<EmployeeResponse> employeeListMapper() {
+        return employeeMapper.toResponses(employees);
+    }
+
+    private static Employee employee(int index) {
+        Employee employee = new Employee("Employee " + index, 18 + index % 40, 1000 + index, index % 2 == 0 ? "male" : "female");
+        employee.setId(String.format("5f0c2b8a9d1e3a4b%08x", index));
+        return employee;
+    }
+}
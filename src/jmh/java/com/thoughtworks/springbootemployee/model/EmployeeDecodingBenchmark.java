@@ -0,0 +1,62 @@
+package com.thoughtworks.springbootemployee.model;
+
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EmployeeDecodingBenchmark {
+    private final DocumentCodec documentCodec = new DocumentCodec();
+
+    private MappingMongoConverter converter;
+    private byte[] employeeBson;
+
+    @Setup
+    public void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(Collections.emptyList());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        Document employee = new Document("_id", new ObjectId())
+                .append("name", "Victor")
+                .append("age", 18)
+                .append("salary", 1000)
+                .append("gender", "male")
+                .append("_class", Employee.class.getName());
+        ByteBuffer buffer = new RawBsonDocument(employee, documentCodec).getByteBuffer().asNIO();
+        employeeBson = new byte[buffer.remaining()];
+        buffer.get(employeeBson);
+    }
+
+    @Benchmark
+    public Document decodeDocument() {
+        return new RawBsonDocument(employeeBson).decode(documentCodec);
+    }
+
+    @Benchmark
+    public Employee decodeEmployee() {
+        return converter.read(Employee.class, new RawBsonDocument(employeeBson).decode(documentCodec));
+    }
+}
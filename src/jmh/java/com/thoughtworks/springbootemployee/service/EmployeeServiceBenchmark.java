@@ -0,0 +1,151 @@
+package com.thoughtworks.springbootemployee.service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.thoughtworks.springbootemployee.concurrency.ChangeTracker;
+import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.repository.EmployeeRepository;
+import com.thoughtworks.springbootemployee.stats.EmployeeStatsStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Measures EmployeeService itself, without the Spring cache proxy and without MongoDB: the
+ * repository is an in-memory stub, so every number is service overhead on top of a query that
+ * costs next to nothing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EmployeeServiceBenchmark {
+    private static final int EMPLOYEE_COUNT = 1000;
+    private static final String EMPLOYEE_ID = String.format("5f0c2b8a9d1e3a4b%08x", 1);
+
+    private final EmployeeService employeeService = new EmployeeService();
+
+    private EmployeeRepository employeeRepository;
+    private MongoClient unusedClient;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        List<Employee> employees = new ArrayList<>(EMPLOYEE_COUNT);
+        for (int i = 0; i < EMPLOYEE_COUNT; i++) {
+            Employee employee = new Employee("Employee " + i, 18 + i % 40, 1000 + i, i % 2 == 0 ? "male" : "female");
+            employee.setId(String.format("5f0c2b8a9d1e3a4b%08x", i));
+            employee.setVersion(0L);
+            employees.add(employee);
+        }
+        employeeRepository = stubRepository(employees);
+        // the stats store only reads MongoDB in rebuild(), which the benchmarks never call
+        unusedClient = MongoClients.create();
+        employeeService.employeeRepository = employeeRepository;
+        employeeService.statsStore = new EmployeeStatsStore(new MongoTemplate(unusedClient, "benchmark"));
+        employeeService.changeTracker = new ChangeTracker();
+    }
+
+    @TearDown
+    public void tearDown() {
+        unusedClient.close();
+    }
+
+    /**
+     * Uncached lookup by id: findById plus the not-found mapping.
+     */
+    @Benchmark
+    public Employee get() {
+        return employeeService.get(EMPLOYEE_ID);
+    }
+
+    /**
+     * Unfiltered listing, a straight pass-through to findAll.
+     */
+    @Benchmark
+    public List<Employee> getAll() {
+        return employeeService.getAll();
+    }
+
+    /**
+     * Gender listing through the SingleFlight that coalesces concurrent identical lookups; compare
+     * with {@link #findAllByGender()} to isolate the coalescing overhead.
+     */
+    @Benchmark
+    public List<Employee> getAllByGender() {
+        return employeeService.getAllByGender("male");
+    }
+
+    /**
+     * Baseline for {@link #getAllByGender()}: the stubbed repository query without the service.
+     */
+    @Benchmark
+    public List<Employee> findAllByGender() {
+        return employeeRepository.findAllByGender("male");
+    }
+
+    /**
+     * Full-document update: load, copy fields, save, then the ChangeTracker and stats store
+     * bookkeeping. findById hands out a fresh copy, so no invocation sees an earlier one's writes.
+     */
+    @Benchmark
+    public Employee update() {
+        return employeeService.update(EMPLOYEE_ID, new Employee("Updated", 30, 5000, "female"));
+    }
+
+    private static EmployeeRepository stubRepository(List<Employee> employees) throws NoSuchMethodException {
+        Map<String, Employee> employeesById = new HashMap<>();
+        List<Employee> maleEmployees = new ArrayList<>();
+        for (Employee employee : employees) {
+            employeesById.put(employee.getId(), employee);
+            if ("male".equals(employee.getGender())) {
+                maleEmployees.add(employee);
+            }
+        }
+        Map<String, Function<Object[], Object>> answers = new HashMap<>();
+        answers.put(signature(EmployeeRepository.class.getMethod("findById", Object.class)),
+                args -> Optional.ofNullable(employeesById.get(args[0])).map(EmployeeServiceBenchmark::copy));
+        answers.put(signature(EmployeeRepository.class.getMethod("findAll")), args -> employees);
+        answers.put(signature(EmployeeRepository.class.getMethod("findAllByGender", String.class)),
+                args -> "male".equals(args[0]) ? maleEmployees : new ArrayList<>());
+        answers.put(signature(EmployeeRepository.class.getMethod("save", Object.class)), args -> {
+            Employee saved = (Employee) args[0];
+            saved.setVersion(saved.getVersion() + 1);
+            return saved;
+        });
+        return (EmployeeRepository) Proxy.newProxyInstance(EmployeeRepository.class.getClassLoader(),
+                new Class<?>[]{EmployeeRepository.class}, (proxy, method, args) -> {
+                    Function<Object[], Object> answer = answers.get(signature(method));
+                    if (answer == null) {
+                        throw new IllegalStateException("EmployeeRepository." + method.getName() + " is not stubbed");
+                    }
+                    return answer.apply(args);
+                });
+    }
+
+    private static String signature(Method method) {
+        return method.getName() + Arrays.toString(method.getParameterTypes());
+    }
+
+    private static Employee copy(Employee employee) {
+        Employee copy = new Employee(employee.getName(), employee.getAge(), employee.getSalary(), employee.getGender());
+        copy.setId(employee.getId());
+        copy.setVersion(employee.getVersion());
+        return copy;
+    }
+}
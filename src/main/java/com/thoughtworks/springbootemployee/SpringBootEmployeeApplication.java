@@ -2,8 +2,12 @@ package com.thoughtworks.springbootemployee;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.core.Ordered;
 
 @SpringBootApplication
+// outside AdaptivePoolLimiter, so cache hits are served without a permit
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
 public class SpringBootEmployeeApplication {
 
 	public static void main(String[] args) {
@@ -1,8 +1,18 @@
 package com.thoughtworks.springbootemployee.advice;
 
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.mongodb.MongoTimeoutException;
 import com.thoughtworks.springbootemployee.exception.CompanyNotFoundException;
+import com.thoughtworks.springbootemployee.exception.DatabaseBusyException;
 import com.thoughtworks.springbootemployee.exception.EmployeeNotFoundException;
+import com.thoughtworks.springbootemployee.exception.IngestQueueFullException;
+import com.thoughtworks.springbootemployee.exception.MalformedRecordException;
+import com.thoughtworks.springbootemployee.exception.PreconditionFailedException;
+import com.thoughtworks.springbootemployee.exception.VersionConflictException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -16,6 +26,45 @@ public class GlobalControllerAdvice {
         return new ErrorResponse(exception.getMessage(), HttpStatus.BAD_REQUEST.name());
     }
 
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler({RuntimeJsonMappingException.class, MalformedRecordException.class})
+    public ErrorResponse handleMalformedBatch(RuntimeException exception) {
+        return new ErrorResponse(exception.getMessage(), HttpStatus.BAD_REQUEST.name());
+    }
+
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler({VersionConflictException.class, OptimisticLockingFailureException.class})
+    public ErrorResponse handleVersionConflict(RuntimeException exception) {
+        return new ErrorResponse(new VersionConflictException().getMessage(), HttpStatus.CONFLICT.name());
+    }
+
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    @ExceptionHandler({PreconditionFailedException.class})
+    public ErrorResponse handlePreconditionFailed(PreconditionFailedException exception) {
+        return new ErrorResponse(exception.getMessage(), HttpStatus.PRECONDITION_FAILED.name());
+    }
+
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler({DatabaseBusyException.class, MongoTimeoutException.class})
+    public ErrorResponse handleDatabaseBusy(RuntimeException exception) {
+        return new ErrorResponse(new DatabaseBusyException().getMessage(), HttpStatus.SERVICE_UNAVAILABLE.name());
+    }
+
+    @ExceptionHandler({DataAccessResourceFailureException.class})
+    public ResponseEntity<ErrorResponse> handleDataAccessResourceFailure(DataAccessResourceFailureException exception) {
+        if (exception.getCause() instanceof MongoTimeoutException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(handleDatabaseBusy(exception));
+        }
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR.getReasonPhrase(), HttpStatus.INTERNAL_SERVER_ERROR.name()));
+    }
+
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    @ExceptionHandler({IngestQueueFullException.class})
+    public ErrorResponse handleIngestQueueFull(IngestQueueFullException exception) {
+        return new ErrorResponse(exception.getMessage(), HttpStatus.TOO_MANY_REQUESTS.name());
+    }
+
     @ResponseStatus(HttpStatus.NOT_FOUND)
     @ExceptionHandler({EmployeeNotFoundException.class})
     public ErrorResponse handleEmployeeNotFound(EmployeeNotFoundException exception) {
@@ -0,0 +1,85 @@
+package com.thoughtworks.springbootemployee.concurrency;
+
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class ChangeTracker {
+    private static final int MAX_TRACKED_DOCUMENTS = 100000;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final Map<Class<?>, TrackedCollection> collections = new ConcurrentHashMap<>();
+
+    public String collectionTag(Class<?> type) {
+        return "\"" + epoch + "-" + stamp(type) + "\"";
+    }
+
+    public long stamp(Class<?> type) {
+        return collection(type).stamp();
+    }
+
+    public String documentTag(Class<?> type, String id) {
+        Long version = collection(type).version(id);
+        return version == null ? null : VersionTag.of(version);
+    }
+
+    public String documentRead(Class<?> type, String id, Long version, long stamp) {
+        if (version == null) {
+            return null;
+        }
+        collection(type).read(id, version, stamp);
+        return VersionTag.of(version);
+    }
+
+    public void documentSaved(Class<?> type, String id, Long version) {
+        collection(type).saved(id, version);
+    }
+
+    public void documentRemoved(Class<?> type, String id) {
+        collection(type).saved(id, null);
+    }
+
+    public void collectionChanged(Class<?> type) {
+        collection(type).changed();
+    }
+
+    private TrackedCollection collection(Class<?> type) {
+        return collections.computeIfAbsent(type, key -> new TrackedCollection());
+    }
+
+    private static class TrackedCollection {
+        private long stamp;
+        private final Map<String, Long> versions = new HashMap<>();
+
+        synchronized long stamp() {
+            return stamp;
+        }
+
+        synchronized Long version(String id) {
+            return versions.get(id);
+        }
+
+        synchronized void read(String id, Long version, long readStamp) {
+            if (readStamp == stamp && versions.size() < MAX_TRACKED_DOCUMENTS) {
+                versions.put(id, version);
+            }
+        }
+
+        synchronized void saved(String id, Long version) {
+            stamp++;
+            if (version == null || versions.size() >= MAX_TRACKED_DOCUMENTS) {
+                versions.remove(id);
+            } else {
+                versions.put(id, version);
+            }
+        }
+
+        synchronized void changed() {
+            stamp++;
+            versions.clear();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.thoughtworks.springbootemployee.concurrency;
+
+import com.thoughtworks.springbootemployee.projection.FieldSelection;
+import com.thoughtworks.springbootemployee.streaming.BinaryFormatConfiguration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+public final class ConditionalResponse {
+    private static final List<MediaType> REPRESENTATIONS = Arrays.asList(
+            MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, BinaryFormatConfiguration.APPLICATION_SMILE);
+
+    private ConditionalResponse() {
+    }
+
+    public static boolean isNotModified(String etag, String ifNoneMatch) {
+        return matches(representationTag(etag), ifNoneMatch);
+    }
+
+    public static boolean isNotModified(String etag, ServerHttpRequest request) {
+        return matches(representationTag(etag, request), request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    public static <T> ResponseEntity<T> notModified(String etag) {
+        return notModifiedResponse(representationTag(etag));
+    }
+
+    public static <T> ResponseEntity<T> notModified(String etag, ServerHttpRequest request) {
+        return notModifiedResponse(representationTag(etag, request));
+    }
+
+    public static <T> ResponseEntity<T> of(String etag, String ifNoneMatch, Supplier<T> body) {
+        return conditional(representationTag(etag), ifNoneMatch, body);
+    }
+
+    public static <T> ResponseEntity<T> of(String etag, ServerHttpRequest request, Supplier<T> body) {
+        return conditional(representationTag(etag, request), request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH), body);
+    }
+
+    private static <T> ResponseEntity<T> conditional(String representationTag, String ifNoneMatch, Supplier<T> body) {
+        if (matches(representationTag, ifNoneMatch)) {
+            return notModifiedResponse(representationTag);
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT);
+        if (representationTag != null) {
+            response.eTag(representationTag);
+        }
+        return response.body(body.get());
+    }
+
+    private static <T> ResponseEntity<T> notModifiedResponse(String representationTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(representationTag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .build();
+    }
+
+    private static boolean matches(String representationTag, String ifNoneMatch) {
+        if (representationTag == null || ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String value = tag.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals(VersionTag.ANY) || value.equals(representationTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String representationTag(String etag) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (etag == null || !(attributes instanceof ServletRequestAttributes)) {
+            return etag;
+        }
+        HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
+        return representationTag(etag, request.getHeader(HttpHeaders.ACCEPT),
+                request.getParameter(FieldSelection.PARAMETER_NAME));
+    }
+
+    private static String representationTag(String etag, ServerHttpRequest request) {
+        return representationTag(etag, request.getHeaders().getFirst(HttpHeaders.ACCEPT),
+                request.getQueryParams().getFirst(FieldSelection.PARAMETER_NAME));
+    }
+
+    private static String representationTag(String etag, String accept, String fields) {
+        if (etag == null) {
+            return null;
+        }
+        MediaType mediaType = negotiate(accept);
+        FieldSelection fieldSelection = FieldSelection.parse(fields);
+        if (MediaType.APPLICATION_JSON.equals(mediaType) && fieldSelection.isAll()) {
+            return etag;
+        }
+        return VersionTag.variant(etag, mediaType + ";" + String.join(",", new TreeSet<>(fieldSelection.getFields())));
+    }
+
+    private static MediaType negotiate(String accept) {
+        if (accept == null || accept.trim().isEmpty()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> acceptedTypes;
+        try {
+            acceptedTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException exception) {
+            return MediaType.APPLICATION_JSON;
+        }
+        MediaType.sortBySpecificityAndQuality(acceptedTypes);
+        for (MediaType acceptedType : acceptedTypes) {
+            for (MediaType representation : REPRESENTATIONS) {
+                if (acceptedType.isCompatibleWith(representation)) {
+                    return representation;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+}
@@ -0,0 +1,52 @@
+package com.thoughtworks.springbootemployee.concurrency;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Reactive counterpart of {@link SingleFlight}: subscribers asking for the same key while a load
+ * is running share one subscription to the loader. A follower still waiting after {@code maxWait}
+ * subscribes to its own loader instead.
+ */
+public class ReactiveSingleFlight<K, V> {
+    private final Map<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+    private final Duration maxWait;
+
+    public ReactiveSingleFlight() {
+        this(SingleFlight.DEFAULT_MAX_WAIT);
+    }
+
+    public ReactiveSingleFlight(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    public Mono<V> execute(K key, Supplier<Mono<V>> loader) {
+        return Mono.defer(() -> {
+            AtomicBoolean leader = new AtomicBoolean();
+            Mono<V> call = inFlight.computeIfAbsent(key, newKey -> {
+                leader.set(true);
+                return share(newKey, loader);
+            });
+            return leader.get() ? call : call.timeout(maxWait, Mono.defer(loader));
+        });
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private Mono<V> share(K key, Supplier<Mono<V>> loader) {
+        AtomicReference<Mono<V>> self = new AtomicReference<>();
+        Mono<V> call = Mono.defer(loader)
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .cache();
+        self.set(call);
+        return call;
+    }
+}
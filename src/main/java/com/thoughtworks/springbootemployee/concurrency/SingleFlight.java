@@ -0,0 +1,63 @@
+package com.thoughtworks.springbootemployee.concurrency;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+public class SingleFlight<K, V> {
+    public static final Duration DEFAULT_MAX_WAIT = Duration.ofSeconds(2);
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long maxWaitNanos;
+
+    public SingleFlight() {
+        this(DEFAULT_MAX_WAIT);
+    }
+
+    public SingleFlight(Duration maxWait) {
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existingCall = inFlight.putIfAbsent(key, call);
+        if (existingCall == null) {
+            try {
+                V value = loader.get();
+                call.complete(value);
+                return value;
+            } catch (RuntimeException | Error exception) {
+                call.completeExceptionally(exception);
+                throw exception;
+            } finally {
+                inFlight.remove(key, call);
+            }
+        }
+        try {
+            return existingCall.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException exception) {
+            return loader.get();
+        } catch (ExecutionException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,50 @@
+package com.thoughtworks.springbootemployee.concurrency;
+
+import com.mongodb.client.result.UpdateResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+public class VersionBackfill {
+    private static final Logger LOGGER = LoggerFactory.getLogger(VersionBackfill.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final AtomicBoolean done = new AtomicBoolean();
+
+    public VersionBackfill(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!done.compareAndSet(false, true)) {
+            return;
+        }
+        for (MongoPersistentEntity<?> entity : mongoTemplate.getConverter().getMappingContext().getPersistentEntities()) {
+            MongoPersistentProperty versionProperty = entity.getVersionProperty();
+            if (versionProperty == null || !entity.isAnnotationPresent(Document.class)) {
+                continue;
+            }
+            UpdateResult result = mongoTemplate.updateMulti(
+                    new Query(Criteria.where(versionProperty.getName()).exists(false)),
+                    new Update().set(versionProperty.getName(), 0L),
+                    entity.getType());
+            if (result.getModifiedCount() > 0) {
+                LOGGER.info("Initialized {} to 0 on {} {} documents", versionProperty.getName(),
+                        result.getModifiedCount(), entity.getType().getSimpleName());
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.thoughtworks.springbootemployee.concurrency;
+
+import com.thoughtworks.springbootemployee.exception.PreconditionFailedException;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * The versions an If-Match header accepts. Weak and strong tags compare the same way, {@code *}
+ * accepts any existing document, and {@link #NONE} stands for a request without the header.
+ */
+public final class VersionMatch {
+    public static final VersionMatch NONE = new VersionMatch(false, false, Collections.emptySet());
+    private static final VersionMatch EXISTING = new VersionMatch(true, true, Collections.emptySet());
+
+    private final boolean conditional;
+    private final boolean any;
+    private final Set<Long> versions;
+
+    private VersionMatch(boolean conditional, boolean any, Set<Long> versions) {
+        this.conditional = conditional;
+        this.any = any;
+        this.versions = versions;
+    }
+
+    public static VersionMatch parse(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().isEmpty()) {
+            return NONE;
+        }
+        Set<Long> versions = new LinkedHashSet<>();
+        for (String tag : ifMatch.split(",")) {
+            if (tag.trim().equals(VersionTag.ANY)) {
+                return EXISTING;
+            }
+            Long version = VersionTag.parse(tag);
+            if (version != null) {
+                versions.add(version);
+            }
+        }
+        return new VersionMatch(true, false, Collections.unmodifiableSet(versions));
+    }
+
+    public boolean isConditional() {
+        return conditional;
+    }
+
+    public boolean matches(Long version) {
+        return !conditional || any || versions.contains(version);
+    }
+
+    public RuntimeException missing(Supplier<? extends RuntimeException> notFound) {
+        return conditional ? new PreconditionFailedException() : notFound.get();
+    }
+
+    public Query applyTo(Query query) {
+        if (conditional && !any) {
+            query.addCriteria(Criteria.where("version").in(versions));
+        }
+        return query;
+    }
+}
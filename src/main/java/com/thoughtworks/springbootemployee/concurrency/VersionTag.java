@@ -0,0 +1,42 @@
+package com.thoughtworks.springbootemployee.concurrency;
+
+public final class VersionTag {
+    public static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+    private static final char VARIANT_SEPARATOR = '-';
+
+    private VersionTag() {
+    }
+
+    public static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    public static String variant(String tag, String representation) {
+        return tag.substring(0, tag.length() - 1) + VARIANT_SEPARATOR
+                + Integer.toHexString(representation.hashCode()) + "\"";
+    }
+
+    /**
+     * Returns the version of a single, possibly weak or variant, entity tag, or {@code null} when
+     * the tag is not one this application issued.
+     */
+    public static Long parse(String tag) {
+        String value = tag.trim();
+        if (value.startsWith(WEAK_PREFIX)) {
+            value = value.substring(WEAK_PREFIX.length());
+        }
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        int variant = value.indexOf(VARIANT_SEPARATOR);
+        if (variant > 0) {
+            value = value.substring(0, variant);
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException exception) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.thoughtworks.springbootemployee.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.thoughtworks.springbootemployee.dto.CacheStatsResponse;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/caches")
+public class CacheController {
+    private final CacheManager cacheManager;
+
+    public CacheController(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @GetMapping
+    public List<CacheStatsResponse> getAll() {
+        return cacheManager.getCacheNames().stream()
+                .map(cacheManager::getCache)
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    private CacheStatsResponse toResponse(Cache cache) {
+        if (!(cache instanceof CaffeineCache)) {
+            return new CacheStatsResponse(cache.getName(), null, null, null, null, null);
+        }
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = ((CaffeineCache) cache).getNativeCache();
+        CacheStats stats = nativeCache.stats();
+        return new CacheStatsResponse(cache.getName(), nativeCache.estimatedSize(), stats.hitCount(),
+                stats.missCount(), stats.evictionCount(), stats.hitRate());
+    }
+}
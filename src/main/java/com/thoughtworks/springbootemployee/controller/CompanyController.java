@@ -1,39 +1,104 @@
 package com.thoughtworks.springbootemployee.controller;
 
+import com.thoughtworks.springbootemployee.concurrency.ChangeTracker;
+import com.thoughtworks.springbootemployee.concurrency.ConditionalResponse;
+import com.thoughtworks.springbootemployee.concurrency.VersionMatch;
+import com.thoughtworks.springbootemployee.dto.BatchResponse;
+import com.thoughtworks.springbootemployee.dto.CompanyBatchUpdateRequest;
+import com.thoughtworks.springbootemployee.dto.CompanyPatchRequest;
 import com.thoughtworks.springbootemployee.dto.CompanyRequest;
 import com.thoughtworks.springbootemployee.dto.CompanyResponse;
+import com.thoughtworks.springbootemployee.dto.EmployeeResponse;
+import com.thoughtworks.springbootemployee.dto.EmployeeStatsResponse;
 import com.thoughtworks.springbootemployee.mapper.CompanyMapper;
+import com.thoughtworks.springbootemployee.mapper.EmployeeMapper;
 import com.thoughtworks.springbootemployee.model.Company;
+import com.thoughtworks.springbootemployee.paging.KeysetPage;
+import com.thoughtworks.springbootemployee.projection.FieldSelection;
 import com.thoughtworks.springbootemployee.service.CompanyService;
+import com.thoughtworks.springbootemployee.service.EmployeeStatsAggregator;
+import com.thoughtworks.springbootemployee.streaming.BinaryFormatConfiguration;
+import com.thoughtworks.springbootemployee.streaming.CsvFormat;
+import com.thoughtworks.springbootemployee.streaming.RecordStreamReader;
+import com.thoughtworks.springbootemployee.streaming.RecordStreamWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.util.Pair;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/companies")
 public class CompanyController {
     @Autowired
     private CompanyService companyService;
 
     private final CompanyMapper companyMapper;
+    private final EmployeeMapper employeeMapper;
+    private final RecordStreamWriter recordStreamWriter;
+    private final RecordStreamReader recordStreamReader;
+    private final ChangeTracker changeTracker;
 
-    public CompanyController(CompanyMapper companyMapper) {
+    public CompanyController(CompanyMapper companyMapper, EmployeeMapper employeeMapper,
+                             RecordStreamWriter recordStreamWriter, RecordStreamReader recordStreamReader, ChangeTracker changeTracker) {
         this.companyMapper = companyMapper;
+        this.employeeMapper = employeeMapper;
+        this.recordStreamWriter = recordStreamWriter;
+        this.recordStreamReader = recordStreamReader;
+        this.changeTracker = changeTracker;
     }
 
     @GetMapping
-    public List<CompanyResponse> getAll() {
-        return companyService.getAll().stream()
-                .map(companyMapper::toResponse)
-                .collect(Collectors.toList());
+    public ResponseEntity<List<CompanyResponse>> getAll(@RequestParam(required = false) String fields,
+                                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        FieldSelection fieldSelection = FieldSelection.parse(fields, CompanyResponse.class);
+        return ConditionalResponse.of(changeTracker.collectionTag(Company.class), ifNoneMatch,
+                () -> companyMapper.toResponses(companyService.getAll(fieldSelection)));
+    }
+
+    @GetMapping(produces = RecordStreamWriter.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll(@RequestParam(required = false) String fields) {
+        FieldSelection fieldSelection = FieldSelection.parse(fields, CompanyResponse.class);
+        return recordStreamWriter.stream(() -> companyService.streamAll(fieldSelection), companyMapper::toResponse, fieldSelection);
+    }
+
+    @GetMapping(produces = BinaryFormatConfiguration.APPLICATION_CBOR_SEQ_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllAsCbor(@RequestParam(required = false) String fields) {
+        FieldSelection fieldSelection = FieldSelection.parse(fields, CompanyResponse.class);
+        return recordStreamWriter.stream(() -> companyService.streamAll(fieldSelection), companyMapper::toResponse, fieldSelection,
+                BinaryFormatConfiguration.APPLICATION_CBOR_SEQ);
+    }
+
+    @GetMapping(path = "/export", produces = {RecordStreamWriter.APPLICATION_NDJSON_VALUE, CsvFormat.TEXT_CSV_VALUE})
+    public ResponseEntity<StreamingResponseBody> export(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return recordStreamWriter.stream(companyService::streamAll, companyMapper::toResponse, CompanyResponse.class,
+                CsvFormat.isAccepted(accept) ? CsvFormat.TEXT_CSV : RecordStreamWriter.APPLICATION_NDJSON);
     }
 
     @GetMapping("/{companyId}")
-    public CompanyResponse getSpecificCompany(@PathVariable String companyId) {
-        return companyMapper.toResponse(companyService.get(companyId));
+    public ResponseEntity<CompanyResponse> getSpecificCompany(@PathVariable String companyId,
+                                                              @RequestParam(required = false) String fields,
+                                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        FieldSelection fieldSelection = FieldSelection.parse(fields, CompanyResponse.class);
+        String knownTag = changeTracker.documentTag(Company.class, companyId);
+        if (ConditionalResponse.isNotModified(knownTag, ifNoneMatch)) {
+            return ConditionalResponse.notModified(knownTag);
+        }
+        long stamp = changeTracker.stamp(Company.class);
+        Company company = companyService.get(companyId, fieldSelection);
+        return ConditionalResponse.of(changeTracker.documentRead(Company.class, companyId, company.getVersion(), stamp),
+                ifNoneMatch, () -> companyMapper.toResponse(company));
     }
 
     @GetMapping("/{companyId}/employees")
@@ -41,15 +106,42 @@ public class CompanyController {
         return companyService.getEmployeeList(companyId);
     }
 
+    @GetMapping(path = "/{companyId}/employees", params = {"expand=true"})
+    public List<EmployeeResponse> getSpecificCompanyEmployeeDetails(@PathVariable String companyId,
+                                                                    @RequestParam(required = false) String fields) {
+        FieldSelection fieldSelection = FieldSelection.parse(fields, EmployeeResponse.class);
+        return employeeMapper.toResponses(companyService.getEmployees(companyId, fieldSelection));
+    }
+
+    @GetMapping("/{companyId}/stats")
+    public List<EmployeeStatsResponse> getSpecificCompanyStats(@PathVariable String companyId,
+                                                               @RequestParam(required = false) String groupBy,
+                                                               @RequestParam(defaultValue = "" + EmployeeStatsAggregator.DEFAULT_BUCKETS) int buckets) {
+        return companyService.getEmployeeStats(companyId, groupBy, buckets);
+    }
+
     @GetMapping(params = {"page", "pageSize"})
-    public List<CompanyResponse> getAllByPaging(
+    public ResponseEntity<List<CompanyResponse>> getAllByPaging(
             @RequestParam(required = false) Integer page,
-            @RequestParam(required = false) Integer pageSize
+            @RequestParam(required = false) Integer pageSize,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        FieldSelection fieldSelection = FieldSelection.parse(fields, CompanyResponse.class);
+        return ConditionalResponse.of(changeTracker.collectionTag(Company.class), ifNoneMatch,
+                () -> companyMapper.toResponses(companyService.getAllByPage(page, pageSize, fieldSelection)));
+    }
+
+    @GetMapping(params = {"pageSize", "!page"})
+    public ResponseEntity<KeysetPage<CompanyResponse>> getAllByKeyset(
+            @RequestParam Integer pageSize,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
-        return companyService.getAllByPage(page, pageSize)
-                .getContent().stream()
-                .map(companyMapper::toResponse)
-                .collect(Collectors.toList());
+        FieldSelection fieldSelection = FieldSelection.parse(fields, CompanyResponse.class);
+        return ConditionalResponse.of(changeTracker.collectionTag(Company.class), ifNoneMatch,
+                () -> companyService.getAllAfter(after, pageSize, fieldSelection).map(companyMapper::toResponse));
     }
 
     @PostMapping
@@ -59,9 +151,42 @@ public class CompanyController {
         return companyMapper.toResponse(company);
     }
 
+    @PostMapping(path = "/import", consumes = {RecordStreamWriter.APPLICATION_NDJSON_VALUE, CsvFormat.TEXT_CSV_VALUE})
+    public BatchResponse importAll(InputStream requestBody,
+                                   @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType) throws IOException {
+        try (Stream<Company> companies = recordStreamReader.read(requestBody, Company.class, MediaType.parseMediaType(contentType))) {
+            return companyService.importAll(companies);
+        }
+    }
+
     @PutMapping("/{companyId}")
-    public CompanyResponse update(@PathVariable String companyId, @RequestBody Company companyUpdate) {
-        return companyMapper.toResponse(companyService.update(companyId, companyUpdate));
+    public CompanyResponse update(@PathVariable String companyId, @RequestBody Company companyUpdate,
+                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return companyMapper.toResponse(companyService.update(companyId, companyUpdate, VersionMatch.parse(ifMatch)));
+    }
+
+    @PatchMapping("/{companyId}")
+    public CompanyResponse patch(@PathVariable String companyId, @RequestBody CompanyPatchRequest companyPatch,
+                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return companyMapper.toResponse(companyService.patch(companyId, companyMapper.toUpdate(companyPatch),
+                VersionMatch.parse(ifMatch)));
+    }
+
+    @PutMapping("/{companyId}/employees/{employeeId}")
+    public CompanyResponse addEmployee(@PathVariable String companyId, @PathVariable String employeeId) {
+        return companyMapper.toResponse(companyService.addEmployee(companyId, employeeId));
+    }
+
+    @DeleteMapping("/{companyId}/employees/{employeeId}")
+    public CompanyResponse removeEmployee(@PathVariable String companyId, @PathVariable String employeeId) {
+        return companyMapper.toResponse(companyService.removeEmployee(companyId, employeeId));
+    }
+
+    @PatchMapping("/batch")
+    public BatchResponse updateAll(@RequestBody List<CompanyBatchUpdateRequest> companyUpdates) {
+        return companyService.updateAll(companyUpdates.stream()
+                .map(companyUpdate -> Pair.of(companyUpdate.getId(), companyMapper.toUpdate(companyUpdate)))
+                .collect(Collectors.toList()));
     }
 
     @DeleteMapping("/{companyId}")
@@ -69,4 +194,9 @@ public class CompanyController {
     public void delete(@PathVariable String companyId) {
         companyService.remove(companyId);
     }
+
+    @DeleteMapping("/batch")
+    public BatchResponse deleteAll(@RequestBody List<String> companyIds) {
+        return companyService.removeAll(companyIds);
+    }
 }
@@ -1,66 +1,216 @@
 package com.thoughtworks.springbootemployee.controller;
 
+import com.thoughtworks.springbootemployee.concurrency.ChangeTracker;
+import com.thoughtworks.springbootemployee.concurrency.ConditionalResponse;
+import com.thoughtworks.springbootemployee.concurrency.VersionMatch;
+import com.thoughtworks.springbootemployee.dto.BatchResponse;
+import com.thoughtworks.springbootemployee.dto.EmployeeBatchUpdateRequest;
+import com.thoughtworks.springbootemployee.dto.EmployeeFilterRequest;
+import com.thoughtworks.springbootemployee.dto.EmployeePatchRequest;
 import com.thoughtworks.springbootemployee.dto.EmployeeRequest;
 import com.thoughtworks.springbootemployee.dto.EmployeeResponse;
+import com.thoughtworks.springbootemployee.dto.EmployeeStatsResponse;
+import com.thoughtworks.springbootemployee.ingest.EmployeeWriteBehindQueue;
 import com.thoughtworks.springbootemployee.mapper.EmployeeMapper;
 import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.paging.KeysetPage;
+import com.thoughtworks.springbootemployee.projection.FieldSelection;
+import com.thoughtworks.springbootemployee.search.EmployeeNameSearch;
 import com.thoughtworks.springbootemployee.service.EmployeeService;
+import com.thoughtworks.springbootemployee.service.EmployeeStatsAggregator;
+import com.thoughtworks.springbootemployee.streaming.BinaryFormatConfiguration;
+import com.thoughtworks.springbootemployee.streaming.CsvFormat;
+import com.thoughtworks.springbootemployee.streaming.RecordStreamReader;
+import com.thoughtworks.springbootemployee.streaming.RecordStreamWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.util.Pair;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/employees")
 public class EmployeeController {
+    private static final String PREFER = "Prefer";
+    private static final String PREFERENCE_APPLIED = "Preference-Applied";
+    private static final String RESPOND_ASYNC = "respond-async";
+
     @Autowired
     private EmployeeService employeeService;
 
     private final EmployeeMapper employeeMapper;
-    public EmployeeController(EmployeeMapper employeeMapper){
+    private final RecordStreamWriter recordStreamWriter;
+    private final RecordStreamReader recordStreamReader;
+    private final ChangeTracker changeTracker;
+    private final EmployeeWriteBehindQueue writeBehindQueue;
+    public EmployeeController(EmployeeMapper employeeMapper, RecordStreamWriter recordStreamWriter,
+                              RecordStreamReader recordStreamReader, ChangeTracker changeTracker, EmployeeWriteBehindQueue writeBehindQueue){
         this.employeeMapper = employeeMapper;
+        this.recordStreamWriter = recordStreamWriter;
+        this.recordStreamReader = recordStreamReader;
+        this.changeTracker = changeTracker;
+        this.writeBehindQueue = writeBehindQueue;
     }
     @GetMapping
-    public List<EmployeeResponse> getAll() {
-        return employeeService.getAll().stream()
-                .map(employeeMapper::toResponse)
-                .collect(Collectors.toList());
+    public ResponseEntity<List<EmployeeResponse>> getAll(@RequestParam(required = false) String fields,
+                                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        FieldSelection fieldSelection = FieldSelection.parse(fields, EmployeeResponse.class);
+        return ConditionalResponse.of(changeTracker.collectionTag(Employee.class), ifNoneMatch,
+                () -> employeeMapper.toResponses(employeeService.getAll(fieldSelection)));
+    }
+
+    @GetMapping(produces = RecordStreamWriter.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll(@RequestParam(required = false) String fields) {
+        FieldSelection fieldSelection = FieldSelection.parse(fields, EmployeeResponse.class);
+        return recordStreamWriter.stream(() -> employeeService.streamAll(fieldSelection), employeeMapper::toResponse, fieldSelection);
+    }
+
+    @GetMapping(produces = BinaryFormatConfiguration.APPLICATION_CBOR_SEQ_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllAsCbor(@RequestParam(required = false) String fields) {
+        FieldSelection fieldSelection = FieldSelection.parse(fields, EmployeeResponse.class);
+        return recordStreamWriter.stream(() -> employeeService.streamAll(fieldSelection), employeeMapper::toResponse, fieldSelection,
+                BinaryFormatConfiguration.APPLICATION_CBOR_SEQ);
+    }
+
+    @GetMapping(path = "/export", produces = {RecordStreamWriter.APPLICATION_NDJSON_VALUE, CsvFormat.TEXT_CSV_VALUE})
+    public ResponseEntity<StreamingResponseBody> export(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return recordStreamWriter.stream(employeeService::streamAll, employeeMapper::toResponse, EmployeeResponse.class,
+                CsvFormat.isAccepted(accept) ? CsvFormat.TEXT_CSV : RecordStreamWriter.APPLICATION_NDJSON);
     }
 
     @GetMapping(params = {"page", "pageSize"})
-    public List<EmployeeResponse> getAllByPaging(
+    public ResponseEntity<List<EmployeeResponse>> getAllByPaging(
             @RequestParam(required = false) Integer page,
-            @RequestParam(required = false) Integer pageSize
+            @RequestParam(required = false) Integer pageSize,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
-        return employeeService.getAllByPage(page, pageSize)
-                .getContent().stream()
-                .map(employeeMapper::toResponse)
-                .collect(Collectors.toList());
+        FieldSelection fieldSelection = FieldSelection.parse(fields, EmployeeResponse.class);
+        return ConditionalResponse.of(changeTracker.collectionTag(Employee.class), ifNoneMatch,
+                () -> employeeMapper.toResponses(employeeService.getAllByPage(page, pageSize, fieldSelection)));
+    }
+
+    @GetMapping(params = {"pageSize", "!page"})
+    public ResponseEntity<KeysetPage<EmployeeResponse>> getAllByKeyset(
+            @RequestParam Integer pageSize,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        FieldSelection fieldSelection = FieldSelection.parse(fields, EmployeeResponse.class);
+        return ConditionalResponse.of(changeTracker.collectionTag(Employee.class), ifNoneMatch,
+                () -> employeeService.getAllAfter(after, pageSize, fieldSelection).map(employeeMapper::toResponse));
     }
 
     @GetMapping(params = {"gender"})
-    public List<EmployeeResponse> getAllByGender(@RequestParam(required = false) String gender) {
-        return employeeService.getAllByGender(gender).stream().map(employeeMapper::toResponse).collect(Collectors.toList());
+    public ResponseEntity<List<EmployeeResponse>> getAllByGender(@RequestParam(required = false) String gender,
+                                                                 @RequestParam(required = false) String fields,
+                                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        FieldSelection fieldSelection = FieldSelection.parse(fields, EmployeeResponse.class);
+        return ConditionalResponse.of(changeTracker.collectionTag(Employee.class), ifNoneMatch,
+                () -> employeeMapper.toResponses(employeeService.getAllByGender(gender, fieldSelection)));
+    }
+
+    @GetMapping("/filter")
+    public ResponseEntity<KeysetPage<EmployeeResponse>> filter(EmployeeFilterRequest filter,
+                                                               @RequestParam(required = false) String fields,
+                                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        FieldSelection fieldSelection = FieldSelection.parse(fields, EmployeeResponse.class);
+        return ConditionalResponse.of(changeTracker.collectionTag(Employee.class), ifNoneMatch,
+                () -> employeeService.filter(filter, fieldSelection).map(employeeMapper::toResponse));
+    }
+
+    @GetMapping("/search")
+    public List<EmployeeResponse> search(@RequestParam String q,
+                                         @RequestParam(defaultValue = "" + EmployeeNameSearch.DEFAULT_LIMIT) int limit,
+                                         @RequestParam(required = false) String fields) {
+        FieldSelection fieldSelection = FieldSelection.parse(fields, EmployeeResponse.class);
+        return employeeMapper.toResponses(employeeService.search(q, limit, fieldSelection));
+    }
+
+    @GetMapping("/stats")
+    public List<EmployeeStatsResponse> getStats(@RequestParam(required = false) String groupBy,
+                                                @RequestParam(defaultValue = "" + EmployeeStatsAggregator.DEFAULT_BUCKETS) int buckets) {
+        return employeeService.getStats(groupBy, buckets);
     }
 
     @GetMapping("/{employeeId}")
-    public EmployeeResponse getSpecificEmployee(@PathVariable String employeeId) {
-        return employeeMapper.toResponse(employeeService.get(employeeId));
+    public ResponseEntity<EmployeeResponse> getSpecificEmployee(@PathVariable String employeeId,
+                                                                @RequestParam(required = false) String fields,
+                                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        FieldSelection fieldSelection = FieldSelection.parse(fields, EmployeeResponse.class);
+        String knownTag = changeTracker.documentTag(Employee.class, employeeId);
+        if (ConditionalResponse.isNotModified(knownTag, ifNoneMatch)) {
+            return ConditionalResponse.notModified(knownTag);
+        }
+        long stamp = changeTracker.stamp(Employee.class);
+        Employee employee = employeeService.get(employeeId, fieldSelection);
+        return ConditionalResponse.of(changeTracker.documentRead(Employee.class, employeeId, employee.getVersion(), stamp),
+                ifNoneMatch, () -> employeeMapper.toResponse(employee));
     }
 
 
     @PostMapping
-    @ResponseStatus(HttpStatus.CREATED)
-    public EmployeeResponse create(@RequestBody EmployeeRequest employeeUpdate) {
+    public ResponseEntity<EmployeeResponse> create(@RequestBody EmployeeRequest employeeUpdate,
+                                                   @RequestHeader(value = PREFER, required = false) String prefer) {
+        if (prefer != null && prefer.contains(RESPOND_ASYNC)) {
+            Employee employee = writeBehindQueue.submit(employeeMapper.toEntity(employeeUpdate));
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header(PREFERENCE_APPLIED, RESPOND_ASYNC)
+                    .body(employeeMapper.toResponse(employee));
+        }
         Employee employee = employeeService.add(employeeMapper.toEntity(employeeUpdate));
-        return employeeMapper.toResponse(employee);
+        return ResponseEntity.status(HttpStatus.CREATED).body(employeeMapper.toResponse(employee));
+    }
+
+    @PostMapping(path = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, RecordStreamWriter.APPLICATION_NDJSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, BinaryFormatConfiguration.APPLICATION_CBOR_SEQ_VALUE,
+            BinaryFormatConfiguration.APPLICATION_SMILE_VALUE})
+    public BatchResponse createAll(InputStream requestBody,
+                                   @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType) throws IOException {
+        try (Stream<EmployeeRequest> employeeRequests = recordStreamReader.read(requestBody, EmployeeRequest.class,
+                MediaType.parseMediaType(contentType))) {
+            return employeeService.addAll(employeeRequests.map(employeeMapper::toEntity));
+        }
+    }
+
+    @PostMapping(path = "/import", consumes = {RecordStreamWriter.APPLICATION_NDJSON_VALUE, CsvFormat.TEXT_CSV_VALUE})
+    public BatchResponse importAll(InputStream requestBody,
+                                   @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType) throws IOException {
+        try (Stream<Employee> employees = recordStreamReader.read(requestBody, Employee.class, MediaType.parseMediaType(contentType))) {
+            return employeeService.importAll(employees);
+        }
     }
 
     @PutMapping("/{employeeId}")
-    public EmployeeResponse update(@PathVariable String employeeId, @RequestBody Employee employeeUpdate) {
-        return employeeMapper.toResponse(employeeService.update(employeeId, employeeUpdate));
+    public EmployeeResponse update(@PathVariable String employeeId, @RequestBody Employee employeeUpdate,
+                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return employeeMapper.toResponse(employeeService.update(employeeId, employeeUpdate, VersionMatch.parse(ifMatch)));
+    }
+
+    @PatchMapping("/{employeeId}")
+    public EmployeeResponse patch(@PathVariable String employeeId, @RequestBody EmployeePatchRequest employeePatch,
+                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return employeeMapper.toResponse(employeeService.patch(employeeId, employeeMapper.toUpdate(employeePatch),
+                VersionMatch.parse(ifMatch)));
+    }
+
+    @PatchMapping("/batch")
+    public BatchResponse updateAll(@RequestBody List<EmployeeBatchUpdateRequest> employeeUpdates) {
+        return employeeService.updateAll(employeeUpdates.stream()
+                .map(employeeUpdate -> Pair.of(employeeUpdate.getId(), employeeMapper.toUpdate(employeeUpdate)))
+                .collect(Collectors.toList()));
     }
 
     @DeleteMapping("/{employeeId}")
@@ -68,4 +218,9 @@ public class EmployeeController {
     public void delete(@PathVariable String employeeId) {
         employeeService.remove(employeeId);
     }
+
+    @DeleteMapping("/batch")
+    public BatchResponse deleteAll(@RequestBody List<String> employeeIds) {
+        return employeeService.removeAll(employeeIds);
+    }
 }
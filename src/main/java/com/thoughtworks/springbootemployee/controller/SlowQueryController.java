@@ -0,0 +1,35 @@
+package com.thoughtworks.springbootemployee.controller;
+
+import com.thoughtworks.springbootemployee.dto.SlowQueryResponse;
+import com.thoughtworks.springbootemployee.slowquery.SlowQueryLog;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/slow-queries")
+public class SlowQueryController {
+    private final SlowQueryLog slowQueryLog;
+
+    public SlowQueryController(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @GetMapping
+    public List<SlowQueryResponse> getAll(@RequestParam(required = false) String collection,
+                                          @RequestParam(defaultValue = "50") int limit) {
+        return slowQueryLog.getSlowQueries(collection, limit);
+    }
+
+    @DeleteMapping
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void clear() {
+        slowQueryLog.clear();
+    }
+}
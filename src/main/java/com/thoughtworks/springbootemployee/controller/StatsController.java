@@ -0,0 +1,44 @@
+package com.thoughtworks.springbootemployee.controller;
+
+import com.thoughtworks.springbootemployee.dto.MaterializedStatsResponse;
+import com.thoughtworks.springbootemployee.exception.CompanyNotFoundException;
+import com.thoughtworks.springbootemployee.stats.EmployeeStatsStore;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/stats")
+public class StatsController {
+    private final EmployeeStatsStore statsStore;
+
+    public StatsController(EmployeeStatsStore statsStore) {
+        this.statsStore = statsStore;
+    }
+
+    @GetMapping("/genders")
+    public List<MaterializedStatsResponse> getGenderStats() {
+        return statsStore.getGenderStats();
+    }
+
+    @GetMapping("/companies/{companyId}")
+    public MaterializedStatsResponse getCompanyStats(@PathVariable String companyId) {
+        MaterializedStatsResponse stats = statsStore.getCompanyStats(companyId);
+        if (stats == null) {
+            throw new CompanyNotFoundException();
+        }
+        return stats;
+    }
+
+    @PostMapping("/rebuild")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void rebuild() {
+        statsStore.rebuild();
+    }
+}
@@ -0,0 +1,196 @@
+package com.thoughtworks.springbootemployee.controller.reactive;
+
+import com.thoughtworks.springbootemployee.concurrency.ChangeTracker;
+import com.thoughtworks.springbootemployee.concurrency.ConditionalResponse;
+import com.thoughtworks.springbootemployee.concurrency.VersionMatch;
+import com.thoughtworks.springbootemployee.dto.BatchResponse;
+import com.thoughtworks.springbootemployee.dto.CompanyBatchUpdateRequest;
+import com.thoughtworks.springbootemployee.dto.CompanyPatchRequest;
+import com.thoughtworks.springbootemployee.dto.CompanyRequest;
+import com.thoughtworks.springbootemployee.dto.CompanyResponse;
+import com.thoughtworks.springbootemployee.dto.EmployeeResponse;
+import com.thoughtworks.springbootemployee.dto.EmployeeStatsResponse;
+import com.thoughtworks.springbootemployee.mapper.CompanyMapper;
+import com.thoughtworks.springbootemployee.mapper.EmployeeMapper;
+import com.thoughtworks.springbootemployee.model.Company;
+import com.thoughtworks.springbootemployee.paging.KeysetPage;
+import com.thoughtworks.springbootemployee.projection.FieldSelection;
+import com.thoughtworks.springbootemployee.service.EmployeeStatsAggregator;
+import com.thoughtworks.springbootemployee.service.reactive.ReactiveCompanyService;
+import com.thoughtworks.springbootemployee.streaming.CsvFormat;
+import com.thoughtworks.springbootemployee.streaming.RecordStreamReader;
+import com.thoughtworks.springbootemployee.streaming.RecordStreamWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.data.util.Pair;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("/companies")
+public class ReactiveCompanyController {
+    @Autowired
+    private ReactiveCompanyService companyService;
+
+    private final CompanyMapper companyMapper;
+    private final EmployeeMapper employeeMapper;
+    private final RecordStreamWriter recordStreamWriter;
+    private final RecordStreamReader recordStreamReader;
+    private final ChangeTracker changeTracker;
+
+    public ReactiveCompanyController(CompanyMapper companyMapper, EmployeeMapper employeeMapper,
+                                     RecordStreamWriter recordStreamWriter, RecordStreamReader recordStreamReader,
+                                     ChangeTracker changeTracker) {
+        this.companyMapper = companyMapper;
+        this.employeeMapper = employeeMapper;
+        this.recordStreamWriter = recordStreamWriter;
+        this.recordStreamReader = recordStreamReader;
+        this.changeTracker = changeTracker;
+    }
+
+    @GetMapping
+    public ResponseEntity<Flux<CompanyResponse>> getAll(@RequestParam(required = false) String fields,
+                                                        ServerHttpRequest request) {
+        FieldSelection fieldSelection = FieldSelection.parse(fields, CompanyResponse.class);
+        return ConditionalResponse.of(changeTracker.collectionTag(Company.class), request,
+                () -> companyService.getAll(fieldSelection).map(companyMapper::toResponse));
+    }
+
+    @GetMapping(produces = RecordStreamWriter.APPLICATION_NDJSON_VALUE)
+    public Flux<CompanyResponse> streamAll(@RequestParam(required = false) String fields) {
+        FieldSelection fieldSelection = FieldSelection.parse(fields, CompanyResponse.class);
+        return companyService.streamAll(fieldSelection).map(companyMapper::toResponse);
+    }
+
+    @GetMapping(path = "/export", produces = {RecordStreamWriter.APPLICATION_NDJSON_VALUE, CsvFormat.TEXT_CSV_VALUE})
+    public ResponseEntity<Flux<byte[]>> export(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return recordStreamWriter.stream(companyService.streamAll(), companyMapper::toResponse, CompanyResponse.class,
+                CsvFormat.isAccepted(accept) ? CsvFormat.TEXT_CSV : RecordStreamWriter.APPLICATION_NDJSON);
+    }
+
+    @GetMapping("/{companyId}")
+    public Mono<ResponseEntity<CompanyResponse>> getSpecificCompany(@PathVariable String companyId,
+                                                                    @RequestParam(required = false) String fields,
+                                                                    ServerHttpRequest request) {
+        FieldSelection fieldSelection = FieldSelection.parse(fields, CompanyResponse.class);
+        String knownTag = changeTracker.documentTag(Company.class, companyId);
+        if (ConditionalResponse.isNotModified(knownTag, request)) {
+            return Mono.just(ConditionalResponse.notModified(knownTag, request));
+        }
+        long stamp = changeTracker.stamp(Company.class);
+        return companyService.get(companyId, fieldSelection)
+                .map(company -> ConditionalResponse.of(
+                        changeTracker.documentRead(Company.class, companyId, company.getVersion(), stamp),
+                        request, () -> companyMapper.toResponse(company)));
+    }
+
+    @GetMapping("/{companyId}/employees")
+    public Mono<List<String>> getSpecificCompanyEmployees(@PathVariable String companyId) {
+        return companyService.getEmployeeList(companyId);
+    }
+
+    @GetMapping(path = "/{companyId}/employees", params = {"expand=true"})
+    public Flux<EmployeeResponse> getSpecificCompanyEmployeeDetails(@PathVariable String companyId,
+                                                                    @RequestParam(required = false) String fields) {
+        FieldSelection fieldSelection = FieldSelection.parse(fields, EmployeeResponse.class);
+        return companyService.getEmployees(companyId, fieldSelection).map(employeeMapper::toResponse);
+    }
+
+    @GetMapping("/{companyId}/stats")
+    public Mono<List<EmployeeStatsResponse>> getSpecificCompanyStats(@PathVariable String companyId,
+                                                                     @RequestParam(required = false) String groupBy,
+                                                                     @RequestParam(defaultValue = "" + EmployeeStatsAggregator.DEFAULT_BUCKETS) int buckets) {
+        return companyService.getEmployeeStats(companyId, groupBy, buckets);
+    }
+
+    @GetMapping(params = {"page", "pageSize"})
+    public ResponseEntity<Flux<CompanyResponse>> getAllByPaging(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer pageSize,
+            @RequestParam(required = false) String fields,
+            ServerHttpRequest request
+    ) {
+        FieldSelection fieldSelection = FieldSelection.parse(fields, CompanyResponse.class);
+        return ConditionalResponse.of(changeTracker.collectionTag(Company.class), request,
+                () -> companyService.getAllByPage(page, pageSize, fieldSelection).map(companyMapper::toResponse));
+    }
+
+    @GetMapping(params = {"pageSize", "!page"})
+    public ResponseEntity<Mono<KeysetPage<CompanyResponse>>> getAllByKeyset(
+            @RequestParam Integer pageSize,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields,
+            ServerHttpRequest request
+    ) {
+        FieldSelection fieldSelection = FieldSelection.parse(fields, CompanyResponse.class);
+        return ConditionalResponse.of(changeTracker.collectionTag(Company.class), request,
+                () -> companyService.getAllAfter(after, pageSize, fieldSelection)
+                        .map(companies -> companies.map(companyMapper::toResponse)));
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<CompanyResponse> create(@RequestBody CompanyRequest companyUpdate) {
+        return companyService.add(companyMapper.toEntity(companyUpdate)).map(companyMapper::toResponse);
+    }
+
+    @PostMapping(path = "/import", consumes = {RecordStreamWriter.APPLICATION_NDJSON_VALUE, CsvFormat.TEXT_CSV_VALUE})
+    public Mono<BatchResponse> importAll(@RequestBody Flux<DataBuffer> requestBody,
+                                         @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType) {
+        return companyService.importAll(recordStreamReader.read(requestBody, Company.class,
+                MediaType.parseMediaType(contentType)));
+    }
+
+    @PutMapping("/{companyId}")
+    public Mono<CompanyResponse> update(@PathVariable String companyId, @RequestBody Company companyUpdate,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return companyService.update(companyId, companyUpdate, VersionMatch.parse(ifMatch))
+                .map(companyMapper::toResponse);
+    }
+
+    @PatchMapping("/{companyId}")
+    public Mono<CompanyResponse> patch(@PathVariable String companyId, @RequestBody CompanyPatchRequest companyPatch,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return companyService.patch(companyId, companyMapper.toUpdate(companyPatch), VersionMatch.parse(ifMatch))
+                .map(companyMapper::toResponse);
+    }
+
+    @PutMapping("/{companyId}/employees/{employeeId}")
+    public Mono<CompanyResponse> addEmployee(@PathVariable String companyId, @PathVariable String employeeId) {
+        return companyService.addEmployee(companyId, employeeId).map(companyMapper::toResponse);
+    }
+
+    @DeleteMapping("/{companyId}/employees/{employeeId}")
+    public Mono<CompanyResponse> removeEmployee(@PathVariable String companyId, @PathVariable String employeeId) {
+        return companyService.removeEmployee(companyId, employeeId).map(companyMapper::toResponse);
+    }
+
+    @PatchMapping("/batch")
+    public Mono<BatchResponse> updateAll(@RequestBody List<CompanyBatchUpdateRequest> companyUpdates) {
+        return companyService.updateAll(companyUpdates.stream()
+                .map(companyUpdate -> Pair.of(companyUpdate.getId(), companyMapper.toUpdate(companyUpdate)))
+                .collect(Collectors.toList()));
+    }
+
+    @DeleteMapping("/{companyId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> delete(@PathVariable String companyId) {
+        return companyService.remove(companyId);
+    }
+
+    @DeleteMapping("/batch")
+    public Mono<BatchResponse> deleteAll(@RequestBody List<String> companyIds) {
+        return companyService.removeAll(companyIds);
+    }
+}
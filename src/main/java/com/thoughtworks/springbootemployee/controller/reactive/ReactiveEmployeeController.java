@@ -0,0 +1,222 @@
+package com.thoughtworks.springbootemployee.controller.reactive;
+
+import com.thoughtworks.springbootemployee.concurrency.ChangeTracker;
+import com.thoughtworks.springbootemployee.concurrency.ConditionalResponse;
+import com.thoughtworks.springbootemployee.concurrency.VersionMatch;
+import com.thoughtworks.springbootemployee.dto.BatchResponse;
+import com.thoughtworks.springbootemployee.dto.EmployeeBatchUpdateRequest;
+import com.thoughtworks.springbootemployee.dto.EmployeeFilterRequest;
+import com.thoughtworks.springbootemployee.dto.EmployeePatchRequest;
+import com.thoughtworks.springbootemployee.dto.EmployeeRequest;
+import com.thoughtworks.springbootemployee.dto.EmployeeResponse;
+import com.thoughtworks.springbootemployee.dto.EmployeeStatsResponse;
+import com.thoughtworks.springbootemployee.ingest.EmployeeWriteBehindQueue;
+import com.thoughtworks.springbootemployee.mapper.EmployeeMapper;
+import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.paging.KeysetPage;
+import com.thoughtworks.springbootemployee.projection.FieldSelection;
+import com.thoughtworks.springbootemployee.search.EmployeeNameSearch;
+import com.thoughtworks.springbootemployee.service.EmployeeStatsAggregator;
+import com.thoughtworks.springbootemployee.service.reactive.ReactiveEmployeeService;
+import com.thoughtworks.springbootemployee.streaming.BinaryFormatConfiguration;
+import com.thoughtworks.springbootemployee.streaming.CsvFormat;
+import com.thoughtworks.springbootemployee.streaming.RecordStreamReader;
+import com.thoughtworks.springbootemployee.streaming.RecordStreamWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.data.util.Pair;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("/employees")
+public class ReactiveEmployeeController {
+    private static final String PREFER = "Prefer";
+    private static final String PREFERENCE_APPLIED = "Preference-Applied";
+    private static final String RESPOND_ASYNC = "respond-async";
+
+    @Autowired
+    private ReactiveEmployeeService employeeService;
+
+    private final EmployeeMapper employeeMapper;
+    private final RecordStreamWriter recordStreamWriter;
+    private final RecordStreamReader recordStreamReader;
+    private final ChangeTracker changeTracker;
+    private final EmployeeWriteBehindQueue writeBehindQueue;
+
+    public ReactiveEmployeeController(EmployeeMapper employeeMapper, RecordStreamWriter recordStreamWriter,
+                                      RecordStreamReader recordStreamReader, ChangeTracker changeTracker,
+                                      EmployeeWriteBehindQueue writeBehindQueue) {
+        this.employeeMapper = employeeMapper;
+        this.recordStreamWriter = recordStreamWriter;
+        this.recordStreamReader = recordStreamReader;
+        this.changeTracker = changeTracker;
+        this.writeBehindQueue = writeBehindQueue;
+    }
+
+    @GetMapping
+    public ResponseEntity<Flux<EmployeeResponse>> getAll(@RequestParam(required = false) String fields,
+                                                         ServerHttpRequest request) {
+        FieldSelection fieldSelection = FieldSelection.parse(fields, EmployeeResponse.class);
+        return ConditionalResponse.of(changeTracker.collectionTag(Employee.class), request,
+                () -> employeeService.getAll(fieldSelection).map(employeeMapper::toResponse));
+    }
+
+    @GetMapping(produces = RecordStreamWriter.APPLICATION_NDJSON_VALUE)
+    public Flux<EmployeeResponse> streamAll(@RequestParam(required = false) String fields) {
+        FieldSelection fieldSelection = FieldSelection.parse(fields, EmployeeResponse.class);
+        return employeeService.streamAll(fieldSelection).map(employeeMapper::toResponse);
+    }
+
+    @GetMapping(path = "/export", produces = {RecordStreamWriter.APPLICATION_NDJSON_VALUE, CsvFormat.TEXT_CSV_VALUE})
+    public ResponseEntity<Flux<byte[]>> export(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return recordStreamWriter.stream(employeeService.streamAll(), employeeMapper::toResponse, EmployeeResponse.class,
+                CsvFormat.isAccepted(accept) ? CsvFormat.TEXT_CSV : RecordStreamWriter.APPLICATION_NDJSON);
+    }
+
+    @GetMapping(params = {"page", "pageSize"})
+    public ResponseEntity<Flux<EmployeeResponse>> getAllByPaging(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer pageSize,
+            @RequestParam(required = false) String fields,
+            ServerHttpRequest request
+    ) {
+        FieldSelection fieldSelection = FieldSelection.parse(fields, EmployeeResponse.class);
+        return ConditionalResponse.of(changeTracker.collectionTag(Employee.class), request,
+                () -> employeeService.getAllByPage(page, pageSize, fieldSelection).map(employeeMapper::toResponse));
+    }
+
+    @GetMapping(params = {"pageSize", "!page"})
+    public ResponseEntity<Mono<KeysetPage<EmployeeResponse>>> getAllByKeyset(
+            @RequestParam Integer pageSize,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields,
+            ServerHttpRequest request
+    ) {
+        FieldSelection fieldSelection = FieldSelection.parse(fields, EmployeeResponse.class);
+        return ConditionalResponse.of(changeTracker.collectionTag(Employee.class), request,
+                () -> employeeService.getAllAfter(after, pageSize, fieldSelection)
+                        .map(employees -> employees.map(employeeMapper::toResponse)));
+    }
+
+    @GetMapping(params = {"gender"})
+    public ResponseEntity<Flux<EmployeeResponse>> getAllByGender(@RequestParam(required = false) String gender,
+                                                                 @RequestParam(required = false) String fields,
+                                                                 ServerHttpRequest request) {
+        FieldSelection fieldSelection = FieldSelection.parse(fields, EmployeeResponse.class);
+        return ConditionalResponse.of(changeTracker.collectionTag(Employee.class), request,
+                () -> employeeService.getAllByGender(gender, fieldSelection).map(employeeMapper::toResponse));
+    }
+
+    @GetMapping("/filter")
+    public ResponseEntity<Mono<KeysetPage<EmployeeResponse>>> filter(EmployeeFilterRequest filter,
+                                                                     @RequestParam(required = false) String fields,
+                                                                     ServerHttpRequest request) {
+        FieldSelection fieldSelection = FieldSelection.parse(fields, EmployeeResponse.class);
+        return ConditionalResponse.of(changeTracker.collectionTag(Employee.class), request,
+                () -> employeeService.filter(filter, fieldSelection)
+                        .map(employees -> employees.map(employeeMapper::toResponse)));
+    }
+
+    @GetMapping("/search")
+    public Mono<List<EmployeeResponse>> search(@RequestParam String q,
+                                               @RequestParam(defaultValue = "" + EmployeeNameSearch.DEFAULT_LIMIT) int limit,
+                                               @RequestParam(required = false) String fields) {
+        FieldSelection fieldSelection = FieldSelection.parse(fields, EmployeeResponse.class);
+        return employeeService.search(q, limit, fieldSelection).map(employeeMapper::toResponses);
+    }
+
+    @GetMapping("/stats")
+    public Mono<List<EmployeeStatsResponse>> getStats(@RequestParam(required = false) String groupBy,
+                                                      @RequestParam(defaultValue = "" + EmployeeStatsAggregator.DEFAULT_BUCKETS) int buckets) {
+        return employeeService.getStats(groupBy, buckets);
+    }
+
+    @GetMapping("/{employeeId}")
+    public Mono<ResponseEntity<EmployeeResponse>> getSpecificEmployee(@PathVariable String employeeId,
+                                                                      @RequestParam(required = false) String fields,
+                                                                      ServerHttpRequest request) {
+        FieldSelection fieldSelection = FieldSelection.parse(fields, EmployeeResponse.class);
+        String knownTag = changeTracker.documentTag(Employee.class, employeeId);
+        if (ConditionalResponse.isNotModified(knownTag, request)) {
+            return Mono.just(ConditionalResponse.notModified(knownTag, request));
+        }
+        long stamp = changeTracker.stamp(Employee.class);
+        return employeeService.get(employeeId, fieldSelection)
+                .map(employee -> ConditionalResponse.of(
+                        changeTracker.documentRead(Employee.class, employeeId, employee.getVersion(), stamp),
+                        request, () -> employeeMapper.toResponse(employee)));
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<EmployeeResponse>> create(@RequestBody EmployeeRequest employeeUpdate,
+                                                         @RequestHeader(value = PREFER, required = false) String prefer) {
+        if (prefer != null && prefer.contains(RESPOND_ASYNC)) {
+            Employee employee = writeBehindQueue.submit(employeeMapper.toEntity(employeeUpdate));
+            return Mono.just(ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header(PREFERENCE_APPLIED, RESPOND_ASYNC)
+                    .body(employeeMapper.toResponse(employee)));
+        }
+        return employeeService.add(employeeMapper.toEntity(employeeUpdate))
+                .map(employee -> ResponseEntity.status(HttpStatus.CREATED).body(employeeMapper.toResponse(employee)));
+    }
+
+    @PostMapping(path = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, RecordStreamWriter.APPLICATION_NDJSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, BinaryFormatConfiguration.APPLICATION_CBOR_SEQ_VALUE,
+            BinaryFormatConfiguration.APPLICATION_SMILE_VALUE})
+    public Mono<BatchResponse> createAll(@RequestBody Flux<DataBuffer> requestBody,
+                                         @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType) {
+        return employeeService.addAll(recordStreamReader.read(requestBody, EmployeeRequest.class,
+                MediaType.parseMediaType(contentType)).map(record -> record.map(employeeMapper::toEntity)));
+    }
+
+    @PostMapping(path = "/import", consumes = {RecordStreamWriter.APPLICATION_NDJSON_VALUE, CsvFormat.TEXT_CSV_VALUE})
+    public Mono<BatchResponse> importAll(@RequestBody Flux<DataBuffer> requestBody,
+                                         @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType) {
+        return employeeService.importAll(recordStreamReader.read(requestBody, Employee.class,
+                MediaType.parseMediaType(contentType)));
+    }
+
+    @PutMapping("/{employeeId}")
+    public Mono<EmployeeResponse> update(@PathVariable String employeeId, @RequestBody Employee employeeUpdate,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return employeeService.update(employeeId, employeeUpdate, VersionMatch.parse(ifMatch))
+                .map(employeeMapper::toResponse);
+    }
+
+    @PatchMapping("/{employeeId}")
+    public Mono<EmployeeResponse> patch(@PathVariable String employeeId, @RequestBody EmployeePatchRequest employeePatch,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return employeeService.patch(employeeId, employeeMapper.toUpdate(employeePatch), VersionMatch.parse(ifMatch))
+                .map(employeeMapper::toResponse);
+    }
+
+    @PatchMapping("/batch")
+    public Mono<BatchResponse> updateAll(@RequestBody List<EmployeeBatchUpdateRequest> employeeUpdates) {
+        return employeeService.updateAll(employeeUpdates.stream()
+                .map(employeeUpdate -> Pair.of(employeeUpdate.getId(), employeeMapper.toUpdate(employeeUpdate)))
+                .collect(Collectors.toList()));
+    }
+
+    @DeleteMapping("/{employeeId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> delete(@PathVariable String employeeId) {
+        return employeeService.remove(employeeId);
+    }
+
+    @DeleteMapping("/batch")
+    public Mono<BatchResponse> deleteAll(@RequestBody List<String> employeeIds) {
+        return employeeService.removeAll(employeeIds);
+    }
+}
@@ -0,0 +1,41 @@
+package com.thoughtworks.springbootemployee.dto;
+
+public class BatchItemResponse {
+    private Integer index;
+    private String id;
+    private String error;
+
+    public BatchItemResponse() {
+
+    }
+
+    public BatchItemResponse(Integer index, String id, String error) {
+        this.index = index;
+        this.id = id;
+        this.error = error;
+    }
+
+    public Integer getIndex() {
+        return index;
+    }
+
+    public void setIndex(Integer index) {
+        this.index = index;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,55 @@
+package com.thoughtworks.springbootemployee.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class BatchResponse {
+    private int succeeded;
+    private int failed;
+    private final List<BatchItemResponse> items = new ArrayList<>();
+    private final boolean recordSuccesses;
+
+    public BatchResponse() {
+        this(true);
+    }
+
+    private BatchResponse(boolean recordSuccesses) {
+        this.recordSuccesses = recordSuccesses;
+    }
+
+    public static BatchResponse failuresOnly() {
+        return new BatchResponse(false);
+    }
+
+    public void addSuccess(int index, String id) {
+        if (recordSuccesses) {
+            items.add(new BatchItemResponse(index, id, null));
+        }
+        succeeded++;
+    }
+
+    public void addFailure(int index, String id, String error) {
+        items.add(new BatchItemResponse(index, id, error));
+        failed++;
+    }
+
+    public List<String> succeededIds() {
+        return items.stream()
+                .filter(item -> item.getError() == null)
+                .map(BatchItemResponse::getId)
+                .collect(Collectors.toList());
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<BatchItemResponse> getItems() {
+        return items;
+    }
+}
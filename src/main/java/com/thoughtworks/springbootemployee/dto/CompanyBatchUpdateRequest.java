@@ -0,0 +1,24 @@
+package com.thoughtworks.springbootemployee.dto;
+
+import java.util.List;
+
+public class CompanyBatchUpdateRequest extends CompanyRequest {
+    private String id;
+
+    public CompanyBatchUpdateRequest() {
+
+    }
+
+    public CompanyBatchUpdateRequest(String id, String name, Integer employeeNumber, List<String> employees) {
+        super(name, employeeNumber, employees);
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+}
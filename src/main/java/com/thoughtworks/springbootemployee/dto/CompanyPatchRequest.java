@@ -0,0 +1,25 @@
+package com.thoughtworks.springbootemployee.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class CompanyPatchRequest extends CompanyRequest {
+    private Map<String, Integer> increment;
+
+    public CompanyPatchRequest() {
+
+    }
+
+    public CompanyPatchRequest(String name, Integer employeeNumber, List<String> employees, Map<String, Integer> increment) {
+        super(name, employeeNumber, employees);
+        this.increment = increment;
+    }
+
+    public Map<String, Integer> getIncrement() {
+        return increment;
+    }
+
+    public void setIncrement(Map<String, Integer> increment) {
+        this.increment = increment;
+    }
+}
@@ -1,12 +1,17 @@
 package com.thoughtworks.springbootemployee.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.thoughtworks.springbootemployee.projection.FieldSelection;
+
 import java.util.List;
 
+@JsonFilter(FieldSelection.FILTER_ID)
 public class CompanyResponse {
     private String id;
     private String name;
     private Integer employeeNumber;
     private List<String> employees;
+    private Long version;
 
     public CompanyResponse() {
 
@@ -19,6 +24,11 @@ public class CompanyResponse {
         this.employees = employees;
     }
 
+    public CompanyResponse(String id, String name, Integer employeeNumber, List<String> employees, Long version) {
+        this(id, name, employeeNumber, employees);
+        this.version = version;
+    }
+
     public String getId() {
         return id;
     }
@@ -50,4 +60,12 @@ public class CompanyResponse {
     public void setEmployees(List<String> employees) {
         this.employees = employees;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,22 @@
+package com.thoughtworks.springbootemployee.dto;
+
+public class EmployeeBatchUpdateRequest extends EmployeeRequest {
+    private String id;
+
+    public EmployeeBatchUpdateRequest() {
+
+    }
+
+    public EmployeeBatchUpdateRequest(String id, String name, Integer age, String gender, Integer salary) {
+        super(name, age, gender, salary);
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+}
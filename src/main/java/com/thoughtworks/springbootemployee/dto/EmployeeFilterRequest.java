@@ -0,0 +1,92 @@
+package com.thoughtworks.springbootemployee.dto;
+
+public class EmployeeFilterRequest {
+    private String gender;
+    private Integer minAge;
+    private Integer maxAge;
+    private Integer minSalary;
+    private Integer maxSalary;
+    private String sort;
+    private Integer pageSize;
+    private String after;
+
+    public EmployeeFilterRequest() {
+
+    }
+
+    public EmployeeFilterRequest(String gender, Integer minAge, Integer maxAge, Integer minSalary, Integer maxSalary,
+                                 String sort, Integer pageSize, String after) {
+        this.gender = gender;
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+        this.minSalary = minSalary;
+        this.maxSalary = maxSalary;
+        this.sort = sort;
+        this.pageSize = pageSize;
+        this.after = after;
+    }
+
+    public String getGender() {
+        return gender;
+    }
+
+    public void setGender(String gender) {
+        this.gender = gender;
+    }
+
+    public Integer getMinAge() {
+        return minAge;
+    }
+
+    public void setMinAge(Integer minAge) {
+        this.minAge = minAge;
+    }
+
+    public Integer getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(Integer maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    public Integer getMinSalary() {
+        return minSalary;
+    }
+
+    public void setMinSalary(Integer minSalary) {
+        this.minSalary = minSalary;
+    }
+
+    public Integer getMaxSalary() {
+        return maxSalary;
+    }
+
+    public void setMaxSalary(Integer maxSalary) {
+        this.maxSalary = maxSalary;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+
+    public Integer getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(Integer pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public String getAfter() {
+        return after;
+    }
+
+    public void setAfter(String after) {
+        this.after = after;
+    }
+}
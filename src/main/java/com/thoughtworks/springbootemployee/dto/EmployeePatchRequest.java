@@ -0,0 +1,24 @@
+package com.thoughtworks.springbootemployee.dto;
+
+import java.util.Map;
+
+public class EmployeePatchRequest extends EmployeeRequest {
+    private Map<String, Integer> increment;
+
+    public EmployeePatchRequest() {
+
+    }
+
+    public EmployeePatchRequest(String name, Integer age, String gender, Integer salary, Map<String, Integer> increment) {
+        super(name, age, gender, salary);
+        this.increment = increment;
+    }
+
+    public Map<String, Integer> getIncrement() {
+        return increment;
+    }
+
+    public void setIncrement(Map<String, Integer> increment) {
+        this.increment = increment;
+    }
+}
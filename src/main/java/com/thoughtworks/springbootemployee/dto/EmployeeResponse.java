@@ -1,11 +1,16 @@
 package com.thoughtworks.springbootemployee.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.thoughtworks.springbootemployee.projection.FieldSelection;
+
+@JsonFilter(FieldSelection.FILTER_ID)
 public class EmployeeResponse {
     private String id;
     private String name;
     private Integer age;
     private String gender;
     private Integer salary;
+    private Long version;
 
     public EmployeeResponse(String id, String name, Integer age, String gender, Integer salary) {
         this.id = id;
@@ -15,6 +20,11 @@ public class EmployeeResponse {
         this.salary = salary;
     }
 
+    public EmployeeResponse(String id, String name, Integer age, String gender, Integer salary, Long version) {
+        this(id, name, age, gender, salary);
+        this.version = version;
+    }
+
     public EmployeeResponse() {
 
     }
@@ -58,4 +68,12 @@ public class EmployeeResponse {
     public void setSalary(Integer salary) {
         this.salary = salary;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,51 @@
+package com.thoughtworks.springbootemployee.dto;
+
+public class EmployeeStatsResponse {
+    private String group;
+    private Long count;
+    private FieldStatsResponse salary;
+    private FieldStatsResponse age;
+
+    public EmployeeStatsResponse() {
+
+    }
+
+    public EmployeeStatsResponse(String group, Long count, FieldStatsResponse salary, FieldStatsResponse age) {
+        this.group = group;
+        this.count = count;
+        this.salary = salary;
+        this.age = age;
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    public void setGroup(String group) {
+        this.group = group;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+
+    public void setCount(Long count) {
+        this.count = count;
+    }
+
+    public FieldStatsResponse getSalary() {
+        return salary;
+    }
+
+    public void setSalary(FieldStatsResponse salary) {
+        this.salary = salary;
+    }
+
+    public FieldStatsResponse getAge() {
+        return age;
+    }
+
+    public void setAge(FieldStatsResponse age) {
+        this.age = age;
+    }
+}
@@ -0,0 +1,63 @@
+package com.thoughtworks.springbootemployee.dto;
+
+import java.util.List;
+
+public class FieldStatsResponse {
+    private Long sum;
+    private Double average;
+    private Integer min;
+    private Integer max;
+    private List<StatsBucketResponse> buckets;
+
+    public FieldStatsResponse() {
+
+    }
+
+    public FieldStatsResponse(Long sum, Double average, Integer min, Integer max, List<StatsBucketResponse> buckets) {
+        this.sum = sum;
+        this.average = average;
+        this.min = min;
+        this.max = max;
+        this.buckets = buckets;
+    }
+
+    public Long getSum() {
+        return sum;
+    }
+
+    public void setSum(Long sum) {
+        this.sum = sum;
+    }
+
+    public Double getAverage() {
+        return average;
+    }
+
+    public void setAverage(Double average) {
+        this.average = average;
+    }
+
+    public Integer getMin() {
+        return min;
+    }
+
+    public void setMin(Integer min) {
+        this.min = min;
+    }
+
+    public Integer getMax() {
+        return max;
+    }
+
+    public void setMax(Integer max) {
+        this.max = max;
+    }
+
+    public List<StatsBucketResponse> getBuckets() {
+        return buckets;
+    }
+
+    public void setBuckets(List<StatsBucketResponse> buckets) {
+        this.buckets = buckets;
+    }
+}
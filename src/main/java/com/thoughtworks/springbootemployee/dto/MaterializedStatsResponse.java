@@ -0,0 +1,63 @@
+package com.thoughtworks.springbootemployee.dto;
+
+import java.util.Map;
+
+public class MaterializedStatsResponse {
+    private String group;
+    private Long count;
+    private Long salarySum;
+    private Double salaryAverage;
+    private Map<String, Long> ageHistogram;
+
+    public MaterializedStatsResponse() {
+
+    }
+
+    public MaterializedStatsResponse(String group, Long count, Long salarySum, Double salaryAverage, Map<String, Long> ageHistogram) {
+        this.group = group;
+        this.count = count;
+        this.salarySum = salarySum;
+        this.salaryAverage = salaryAverage;
+        this.ageHistogram = ageHistogram;
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    public void setGroup(String group) {
+        this.group = group;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+
+    public void setCount(Long count) {
+        this.count = count;
+    }
+
+    public Long getSalarySum() {
+        return salarySum;
+    }
+
+    public void setSalarySum(Long salarySum) {
+        this.salarySum = salarySum;
+    }
+
+    public Double getSalaryAverage() {
+        return salaryAverage;
+    }
+
+    public void setSalaryAverage(Double salaryAverage) {
+        this.salaryAverage = salaryAverage;
+    }
+
+    public Map<String, Long> getAgeHistogram() {
+        return ageHistogram;
+    }
+
+    public void setAgeHistogram(Map<String, Long> ageHistogram) {
+        this.ageHistogram = ageHistogram;
+    }
+}
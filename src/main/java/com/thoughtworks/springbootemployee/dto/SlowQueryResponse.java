@@ -0,0 +1,176 @@
+package com.thoughtworks.springbootemployee.dto;
+
+import java.time.Instant;
+
+public class SlowQueryResponse {
+    private Instant loggedAt;
+    private String database;
+    private String collection;
+    private String command;
+    private Long durationMillis;
+    private String filter;
+    private String sort;
+    private String projection;
+    private String pipeline;
+    private Boolean explained;
+    private Long docsExamined;
+    private Long keysExamined;
+    private Long returned;
+    private String winningStage;
+    private String indexName;
+    private String explainError;
+
+    public SlowQueryResponse() {
+
+    }
+
+    public SlowQueryResponse(Instant loggedAt, String database, String collection, String command, Long durationMillis,
+                             String filter, String sort, String projection, String pipeline, Boolean explained,
+                             Long docsExamined, Long keysExamined, Long returned, String winningStage, String indexName,
+                             String explainError) {
+        this.loggedAt = loggedAt;
+        this.database = database;
+        this.collection = collection;
+        this.command = command;
+        this.durationMillis = durationMillis;
+        this.filter = filter;
+        this.sort = sort;
+        this.projection = projection;
+        this.pipeline = pipeline;
+        this.explained = explained;
+        this.docsExamined = docsExamined;
+        this.keysExamined = keysExamined;
+        this.returned = returned;
+        this.winningStage = winningStage;
+        this.indexName = indexName;
+        this.explainError = explainError;
+    }
+
+    public Instant getLoggedAt() {
+        return loggedAt;
+    }
+
+    public void setLoggedAt(Instant loggedAt) {
+        this.loggedAt = loggedAt;
+    }
+
+    public String getDatabase() {
+        return database;
+    }
+
+    public void setDatabase(String database) {
+        this.database = database;
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public void setCollection(String collection) {
+        this.collection = collection;
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    public void setCommand(String command) {
+        this.command = command;
+    }
+
+    public Long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(Long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    public String getFilter() {
+        return filter;
+    }
+
+    public void setFilter(String filter) {
+        this.filter = filter;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+
+    public String getProjection() {
+        return projection;
+    }
+
+    public void setProjection(String projection) {
+        this.projection = projection;
+    }
+
+    public String getPipeline() {
+        return pipeline;
+    }
+
+    public void setPipeline(String pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    public Boolean getExplained() {
+        return explained;
+    }
+
+    public void setExplained(Boolean explained) {
+        this.explained = explained;
+    }
+
+    public Long getDocsExamined() {
+        return docsExamined;
+    }
+
+    public void setDocsExamined(Long docsExamined) {
+        this.docsExamined = docsExamined;
+    }
+
+    public Long getKeysExamined() {
+        return keysExamined;
+    }
+
+    public void setKeysExamined(Long keysExamined) {
+        this.keysExamined = keysExamined;
+    }
+
+    public Long getReturned() {
+        return returned;
+    }
+
+    public void setReturned(Long returned) {
+        this.returned = returned;
+    }
+
+    public String getWinningStage() {
+        return winningStage;
+    }
+
+    public void setWinningStage(String winningStage) {
+        this.winningStage = winningStage;
+    }
+
+    public String getIndexName() {
+        return indexName;
+    }
+
+    public void setIndexName(String indexName) {
+        this.indexName = indexName;
+    }
+
+    public String getExplainError() {
+        return explainError;
+    }
+
+    public void setExplainError(String explainError) {
+        this.explainError = explainError;
+    }
+}
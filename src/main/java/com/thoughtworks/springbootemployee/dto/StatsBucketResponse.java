@@ -0,0 +1,41 @@
+package com.thoughtworks.springbootemployee.dto;
+
+public class StatsBucketResponse {
+    private Integer min;
+    private Integer max;
+    private Long count;
+
+    public StatsBucketResponse() {
+
+    }
+
+    public StatsBucketResponse(Integer min, Integer max, Long count) {
+        this.min = min;
+        this.max = max;
+        this.count = count;
+    }
+
+    public Integer getMin() {
+        return min;
+    }
+
+    public void setMin(Integer min) {
+        this.min = min;
+    }
+
+    public Integer getMax() {
+        return max;
+    }
+
+    public void setMax(Integer max) {
+        this.max = max;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+
+    public void setCount(Long count) {
+        this.count = count;
+    }
+}
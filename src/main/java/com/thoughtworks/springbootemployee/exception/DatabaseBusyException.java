@@ -0,0 +1,7 @@
+package com.thoughtworks.springbootemployee.exception;
+
+public class DatabaseBusyException extends RuntimeException {
+    public DatabaseBusyException() {
+        super("Database Busy");
+    }
+}
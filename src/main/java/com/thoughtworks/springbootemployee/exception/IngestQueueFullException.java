@@ -0,0 +1,7 @@
+package com.thoughtworks.springbootemployee.exception;
+
+public class IngestQueueFullException extends RuntimeException {
+    public IngestQueueFullException() {
+        super("Ingest Queue Full");
+    }
+}
@@ -0,0 +1,14 @@
+package com.thoughtworks.springbootemployee.exception;
+
+public class MalformedRecordException extends RuntimeException {
+    private final boolean recoverable;
+
+    public MalformedRecordException(boolean recoverable, Throwable cause) {
+        super("Malformed Record", cause);
+        this.recoverable = recoverable;
+    }
+
+    public boolean isRecoverable() {
+        return recoverable;
+    }
+}
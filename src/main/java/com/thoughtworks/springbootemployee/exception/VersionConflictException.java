@@ -0,0 +1,7 @@
+package com.thoughtworks.springbootemployee.exception;
+
+public class VersionConflictException extends RuntimeException {
+    public VersionConflictException() {
+        super("Version Conflict");
+    }
+}
@@ -0,0 +1,22 @@
+package com.thoughtworks.springbootemployee.index;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Compound index created with a collation. {@code @CompoundIndex} cannot carry a collation in this Spring Data
+ * version, so {@link IndexInitializer} creates these alongside the indexes it resolves from the mapping.
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CollatedIndex {
+    String name();
+
+    String def();
+
+    String collation();
+}
@@ -0,0 +1,135 @@
+package com.thoughtworks.springbootemployee.index;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.index.CompoundIndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+public class IndexInitializer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(IndexInitializer.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+    private final IndexVerification verification;
+    private final AtomicBoolean initialized = new AtomicBoolean();
+
+    public IndexInitializer(MongoTemplate mongoTemplate, MongoMappingContext mappingContext,
+                            @Value("${app.index.verification:WARN}") IndexVerification verification) {
+        this.mongoTemplate = mongoTemplate;
+        this.mappingContext = mappingContext;
+        this.verification = verification;
+    }
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        if (!initialized.compareAndSet(false, true)) {
+            return;
+        }
+        Repositories repositories = new Repositories(event.getApplicationContext());
+        for (Class<?> domainType : repositories) {
+            ensureIndexes(domainType);
+        }
+        if (verification != IndexVerification.OFF) {
+            verifyQueryMethods(repositories);
+        }
+    }
+
+    private void ensureIndexes(Class<?> domainType) {
+        IndexOperations indexOperations = mongoTemplate.indexOps(domainType);
+        for (IndexDefinition indexDefinition : new MongoPersistentEntityIndexResolver(mappingContext).resolveIndexFor(domainType)) {
+            indexOperations.ensureIndex(indexDefinition);
+        }
+        CollatedIndex collatedIndex = AnnotatedElementUtils.findMergedAnnotation(domainType, CollatedIndex.class);
+        if (collatedIndex != null) {
+            indexOperations.ensureIndex(new CompoundIndexDefinition(Document.parse(collatedIndex.def()))
+                    .named(collatedIndex.name())
+                    .collation(Collation.from(Document.parse(collatedIndex.collation())))
+                    .background());
+        }
+    }
+
+    private void verifyQueryMethods(Repositories repositories) {
+        List<String> collectionScans = new ArrayList<>();
+        for (Class<?> domainType : repositories) {
+            RepositoryInformation repositoryInformation = repositories.getRepositoryInformationFor(domainType).orElse(null);
+            if (repositoryInformation == null) {
+                continue;
+            }
+            for (Method method : repositoryInformation.getQueryMethods()) {
+                if (AnnotatedElementUtils.hasAnnotation(method, org.springframework.data.mongodb.repository.Query.class)) {
+                    continue;
+                }
+                PartTree partTree = new PartTree(method.getName(), domainType);
+                Query query = toSampleQuery(partTree);
+                if (query != null && isCollectionScan(domainType, query)) {
+                    collectionScans.add(repositoryInformation.getRepositoryInterface().getSimpleName() + "." + method.getName());
+                }
+            }
+        }
+        if (collectionScans.isEmpty()) {
+            return;
+        }
+        String message = "Repository query methods run as COLLSCAN: " + collectionScans;
+        if (verification == IndexVerification.FAIL) {
+            throw new IllegalStateException(message);
+        }
+        LOGGER.warn(message);
+    }
+
+    private Query toSampleQuery(PartTree partTree) {
+        List<Criteria> orCriteria = new ArrayList<>();
+        for (PartTree.OrPart orPart : partTree) {
+            List<Criteria> andCriteria = new ArrayList<>();
+            for (Part part : orPart) {
+                andCriteria.add(Criteria.where(part.getProperty().toDotPath()).exists(true));
+            }
+            if (!andCriteria.isEmpty()) {
+                orCriteria.add(new Criteria().andOperator(andCriteria.toArray(new Criteria[0])));
+            }
+        }
+        if (orCriteria.isEmpty()) {
+            return null;
+        }
+        Criteria criteria = orCriteria.size() == 1
+                ? orCriteria.get(0)
+                : new Criteria().orOperator(orCriteria.toArray(new Criteria[0]));
+        return new Query(criteria).with(partTree.getSort());
+    }
+
+    private boolean isCollectionScan(Class<?> domainType, Query query) {
+        MongoPersistentEntity<?> entity = mappingContext.getPersistentEntity(domainType);
+        QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        Document find = new Document("find", mongoTemplate.getCollectionName(domainType))
+                .append("filter", queryMapper.getMappedObject(query.getQueryObject(), entity))
+                .append("sort", queryMapper.getMappedSort(query.getSortObject(), entity));
+        Document explain = mongoTemplate.getDb().runCommand(new Document("explain", find).append("verbosity", "queryPlanner"));
+        Document queryPlanner = explain.get("queryPlanner", Document.class);
+        return queryPlanner != null
+                && QueryPlans.findStage(queryPlanner.get("winningPlan", Document.class), "COLLSCAN") != null;
+    }
+}
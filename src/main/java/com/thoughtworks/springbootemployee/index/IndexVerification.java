@@ -0,0 +1,5 @@
+package com.thoughtworks.springbootemployee.index;
+
+public enum IndexVerification {
+    OFF, WARN, FAIL
+}
@@ -0,0 +1,34 @@
+package com.thoughtworks.springbootemployee.index;
+
+import org.bson.Document;
+
+import java.util.List;
+
+public final class QueryPlans {
+    private QueryPlans() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Document findStage(Document plan, String stage) {
+        if (plan == null) {
+            return null;
+        }
+        if (stage.equals(plan.getString("stage"))) {
+            return plan;
+        }
+        Document found = findStage(plan.get("inputStage", Document.class), stage);
+        if (found != null) {
+            return found;
+        }
+        List<Document> inputStages = (List<Document>) plan.get("inputStages");
+        if (inputStages != null) {
+            for (Document inputStage : inputStages) {
+                found = findStage(inputStage, stage);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+}
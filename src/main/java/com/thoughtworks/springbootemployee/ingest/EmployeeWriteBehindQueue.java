@@ -0,0 +1,175 @@
+package com.thoughtworks.springbootemployee.ingest;
+
+import com.thoughtworks.springbootemployee.concurrency.ChangeTracker;
+import com.thoughtworks.springbootemployee.dto.BatchItemResponse;
+import com.thoughtworks.springbootemployee.dto.BatchResponse;
+import com.thoughtworks.springbootemployee.exception.IngestQueueFullException;
+import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.service.BulkWriter;
+import com.thoughtworks.springbootemployee.stats.EmployeeStatsStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class EmployeeWriteBehindQueue implements InitializingBean, DisposableBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmployeeWriteBehindQueue.class);
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10000;
+
+    private final BulkWriter bulkWriter;
+    private final ChangeTracker changeTracker;
+    private final EmployeeStatsStore statsStore;
+    private final BlockingQueue<Employee> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizeSummary;
+    private final Counter rejectedCounter;
+    private final Counter failedCounter;
+    private volatile boolean running;
+    private Thread writer;
+
+    public EmployeeWriteBehindQueue(BulkWriter bulkWriter, ChangeTracker changeTracker, EmployeeStatsStore statsStore,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.ingest.capacity:10000}") int capacity,
+                                    @Value("${app.ingest.batch-size:500}") int batchSize,
+                                    @Value("${app.ingest.flush-interval:50ms}") Duration flushInterval) {
+        if (capacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Ingest capacity and batch size must be positive");
+        }
+        this.bulkWriter = bulkWriter;
+        this.changeTracker = changeTracker;
+        this.statsStore = statsStore;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.flushTimer = Timer.builder("ingest.flush").register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("ingest.batch.size").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("ingest.rejected").register(meterRegistry);
+        this.failedCounter = Counter.builder("ingest.failed").register(meterRegistry);
+        Gauge.builder("ingest.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        running = true;
+        writer = new Thread(this::run, "employee-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(SHUTDOWN_TIMEOUT_MILLIS);
+            if (writer.isAlive()) {
+                LOGGER.warn("Write-behind writer did not stop within {} ms, {} queued employees may not be written",
+                        SHUTDOWN_TIMEOUT_MILLIS, queue.size());
+                return;
+            }
+        }
+        List<Employee> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += batchSize) {
+            flush(remaining.subList(from, Math.min(from + batchSize, remaining.size())));
+        }
+    }
+
+    public Employee submit(Employee employee) {
+        employee.setId(new ObjectId().toHexString());
+        employee.setVersion(0L);
+        if (!running || !queue.offer(employee)) {
+            reject();
+        }
+        // destroy() may have drained the queue between the check and the offer
+        if (!running && queue.remove(employee)) {
+            reject();
+        }
+        return employee;
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    private void reject() {
+        rejectedCounter.increment();
+        throw new IngestQueueFullException();
+    }
+
+    private void run() {
+        while (running || !queue.isEmpty()) {
+            List<Employee> batch = new ArrayList<>(batchSize);
+            try {
+                fill(batch);
+            } catch (InterruptedException exception) {
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+            }
+        }
+    }
+
+    private void fill(List<Employee> batch) throws InterruptedException {
+        Employee first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remainingNanos = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remainingNanos <= 0) {
+                return;
+            }
+            Employee next = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<Employee> batch) {
+        batchSizeSummary.record(batch.size());
+        long start = System.nanoTime();
+        try {
+            BatchResponse response = bulkWriter.insertWithIds(Employee.class, batch, Employee::getId);
+            List<Employee> inserted = new ArrayList<>(response.getSucceeded());
+            for (BatchItemResponse item : response.getItems()) {
+                if (item.getError() == null) {
+                    inserted.add(batch.get(item.getIndex()));
+                } else {
+                    LOGGER.warn("Dropped queued employee {}: {}", item.getId(), item.getError());
+                }
+            }
+            failedCounter.increment(response.getFailed());
+            inserted.forEach(employee -> changeTracker.documentSaved(Employee.class, employee.getId(), employee.getVersion()));
+            statsStore.employeesSaved(inserted);
+        } catch (RuntimeException exception) {
+            failedCounter.increment(batch.size());
+            LOGGER.error("Failed to flush {} queued employees", batch.size(), exception);
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -1,26 +1,75 @@
 package com.thoughtworks.springbootemployee.mapper;
 
+import com.thoughtworks.springbootemployee.dto.CompanyPatchRequest;
 import com.thoughtworks.springbootemployee.dto.CompanyRequest;
 import com.thoughtworks.springbootemployee.dto.CompanyResponse;
 import com.thoughtworks.springbootemployee.model.Company;
-import org.springframework.beans.BeanUtils;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 @Component
 public class CompanyMapper {
+    private static final Set<String> INCREMENTABLE_FIELDS = new HashSet<>(Arrays.asList("employeeNumber"));
+
     public Company toEntity(CompanyRequest companyRequest) {
         Company company = new Company();
 
-        BeanUtils.copyProperties(companyRequest, company);
+        company.setName(companyRequest.getName());
+        company.setEmployeeNumber(companyRequest.getEmployeeNumber());
+        company.setEmployees(companyRequest.getEmployees());
 
         return company;
     }
 
     public CompanyResponse toResponse(Company company) {
-        CompanyResponse companyResponse = new CompanyResponse();
+        return new CompanyResponse(company.getId(), company.getName(), company.getEmployeeNumber(),
+                company.getEmployees(), company.getVersion());
+    }
 
-        BeanUtils.copyProperties(company, companyResponse);
+    public List<CompanyResponse> toResponses(List<Company> companies) {
+        List<CompanyResponse> companyResponses = new ArrayList<>(companies.size());
+        for (Company company : companies) {
+            companyResponses.add(toResponse(company));
+        }
+        return companyResponses;
+    }
+
+    public Update toUpdate(CompanyRequest companyRequest) {
+        Update update = new Update();
+        if (companyRequest.getName() != null) {
+            update.set("name", companyRequest.getName());
+        }
+        if (companyRequest.getEmployeeNumber() != null) {
+            update.set("employeeNumber", companyRequest.getEmployeeNumber());
+        }
+        if (companyRequest.getEmployees() != null) {
+            update.set("employees", companyRequest.getEmployees());
+        }
+        return update;
+    }
 
-        return companyResponse;
+    public Update toUpdate(CompanyPatchRequest patchRequest) {
+        Update update = toUpdate((CompanyRequest) patchRequest);
+        if (patchRequest.getIncrement() != null) {
+            patchRequest.getIncrement().forEach((field, delta) -> {
+                if (!INCREMENTABLE_FIELDS.contains(field)) {
+                    throw new IllegalArgumentException("Unknown increment field: " + field);
+                }
+                if (update.modifies(field)) {
+                    throw new IllegalArgumentException("Field cannot be both set and incremented: " + field);
+                }
+                if (delta == null) {
+                    throw new IllegalArgumentException("Missing increment for field: " + field);
+                }
+                update.inc(field, delta);
+            });
+        }
+        return update;
     }
 }
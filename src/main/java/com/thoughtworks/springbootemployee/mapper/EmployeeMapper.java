@@ -1,26 +1,79 @@
 package com.thoughtworks.springbootemployee.mapper;
 
+import com.thoughtworks.springbootemployee.dto.EmployeePatchRequest;
 import com.thoughtworks.springbootemployee.dto.EmployeeRequest;
 import com.thoughtworks.springbootemployee.dto.EmployeeResponse;
 import com.thoughtworks.springbootemployee.model.Employee;
-import org.springframework.beans.BeanUtils;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 @Component
 public class EmployeeMapper {
+    private static final Set<String> INCREMENTABLE_FIELDS = new HashSet<>(Arrays.asList("age", "salary"));
+
     public Employee toEntity(EmployeeRequest employeeRequest) {
         Employee employee = new Employee();
 
-        BeanUtils.copyProperties(employeeRequest, employee);
+        employee.setName(employeeRequest.getName());
+        employee.setAge(employeeRequest.getAge());
+        employee.setGender(employeeRequest.getGender());
+        employee.setSalary(employeeRequest.getSalary());
 
         return employee;
     }
 
     public EmployeeResponse toResponse(Employee employee) {
-        EmployeeResponse employeeResponse = new EmployeeResponse();
+        return new EmployeeResponse(employee.getId(), employee.getName(), employee.getAge(),
+                employee.getGender(), employee.getSalary(), employee.getVersion());
+    }
 
-        BeanUtils.copyProperties(employee, employeeResponse);
+    public List<EmployeeResponse> toResponses(List<Employee> employees) {
+        List<EmployeeResponse> employeeResponses = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            employeeResponses.add(toResponse(employee));
+        }
+        return employeeResponses;
+    }
+
+    public Update toUpdate(EmployeeRequest employeeRequest) {
+        Update update = new Update();
+        if (employeeRequest.getName() != null) {
+            update.set("name", employeeRequest.getName());
+        }
+        if (employeeRequest.getAge() != null) {
+            update.set("age", employeeRequest.getAge());
+        }
+        if (employeeRequest.getGender() != null) {
+            update.set("gender", employeeRequest.getGender());
+        }
+        if (employeeRequest.getSalary() != null) {
+            update.set("salary", employeeRequest.getSalary());
+        }
+        return update;
+    }
 
-        return employeeResponse;
+    public Update toUpdate(EmployeePatchRequest patchRequest) {
+        Update update = toUpdate((EmployeeRequest) patchRequest);
+        if (patchRequest.getIncrement() != null) {
+            patchRequest.getIncrement().forEach((field, delta) -> {
+                if (!INCREMENTABLE_FIELDS.contains(field)) {
+                    throw new IllegalArgumentException("Unknown increment field: " + field);
+                }
+                if (update.modifies(field)) {
+                    throw new IllegalArgumentException("Field cannot be both set and incremented: " + field);
+                }
+                if (delta == null) {
+                    throw new IllegalArgumentException("Missing increment for field: " + field);
+                }
+                update.inc(field, delta);
+            });
+        }
+        return update;
     }
 }
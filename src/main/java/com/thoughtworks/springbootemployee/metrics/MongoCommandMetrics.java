@@ -0,0 +1,71 @@
+package com.thoughtworks.springbootemployee.metrics;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+
+import java.util.concurrent.TimeUnit;
+
+public class MongoCommandMetrics implements CommandListener {
+    private final MeterRegistry meterRegistry;
+
+    public MongoCommandMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        record(event.getCommandName(), "success", event.getElapsedTime(TimeUnit.NANOSECONDS));
+        BsonDocument response = event.getResponse();
+        if (response == null) {
+            return;
+        }
+        DistributionSummary.builder("mongodb.driver.commands.documents")
+                .tag("command", event.getCommandName())
+                .register(meterRegistry)
+                .record(documentCount(response));
+        if (response instanceof RawBsonDocument) {
+            DistributionSummary.builder("mongodb.driver.commands.reply.size")
+                    .baseUnit("bytes")
+                    .tag("command", event.getCommandName())
+                    .register(meterRegistry)
+                    .record(((RawBsonDocument) response).getByteBuffer().remaining());
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        record(event.getCommandName(), "failure", event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    private void record(String commandName, String status, long elapsedNanos) {
+        Timer.builder("mongodb.driver.commands")
+                .tag("command", commandName)
+                .tag("status", status)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static int documentCount(BsonDocument response) {
+        BsonValue cursor = response.get("cursor");
+        if (cursor != null && cursor.isDocument()) {
+            BsonValue batch = cursor.asDocument().containsKey("firstBatch")
+                    ? cursor.asDocument().get("firstBatch")
+                    : cursor.asDocument().get("nextBatch");
+            return batch != null && batch.isArray() ? batch.asArray().size() : 0;
+        }
+        BsonValue affected = response.get("n");
+        return affected != null && affected.isNumber() ? affected.asNumber().intValue() : 0;
+    }
+}
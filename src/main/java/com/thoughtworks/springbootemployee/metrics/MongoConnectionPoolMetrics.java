@@ -0,0 +1,175 @@
+package com.thoughtworks.springbootemployee.metrics;
+
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionClosedEvent;
+import com.mongodb.event.ConnectionCreatedEvent;
+import com.mongodb.event.ConnectionPoolClearedEvent;
+import com.mongodb.event.ConnectionPoolClosedEvent;
+import com.mongodb.event.ConnectionPoolCreatedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool gauges plus a checkout wait timer. Checkout events carry no operation id, so a wait is
+ * timed only when it completes on the thread that started it, which is always the case for the
+ * synchronous driver. The reactive driver completes checkouts on other threads; those waits show
+ * up in the wait queue and saturation gauges but not in {@code mongodb.driver.pool.checkout}.
+ */
+public class MongoConnectionPoolMetrics implements ConnectionPoolListener {
+    private final MeterRegistry meterRegistry;
+    private final Map<ServerId, PoolState> pools = new ConcurrentHashMap<>();
+    private final ThreadLocal<Map<ServerId, CheckOutStart>> checkOutStarts = ThreadLocal.withInitial(HashMap::new);
+
+    public MongoConnectionPoolMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void connectionPoolCreated(ConnectionPoolCreatedEvent event) {
+        PoolState pool = new PoolState(event.getSettings().getMaxSize());
+        Tags tags = tags(event.getServerId());
+        pool.meters.add(Gauge.builder("mongodb.driver.pool.size", pool.size, AtomicInteger::get)
+                .tags(tags).register(meterRegistry));
+        pool.meters.add(Gauge.builder("mongodb.driver.pool.checkedout", pool.checkedOut, AtomicInteger::get)
+                .tags(tags).register(meterRegistry));
+        pool.meters.add(Gauge.builder("mongodb.driver.pool.waitqueuesize", pool.waitQueueSize, AtomicInteger::get)
+                .tags(tags).register(meterRegistry));
+        pool.meters.add(Gauge.builder("mongodb.driver.pool.max", pool, state -> state.maxSize)
+                .tags(tags).register(meterRegistry));
+        pool.meters.add(Gauge.builder("mongodb.driver.pool.saturation", pool, PoolState::saturation)
+                .tags(tags).register(meterRegistry));
+        pools.put(event.getServerId(), pool);
+    }
+
+    @Override
+    public void connectionPoolClosed(ConnectionPoolClosedEvent event) {
+        PoolState pool = pools.remove(event.getServerId());
+        if (pool != null) {
+            pool.meters.forEach(meterRegistry::remove);
+        }
+    }
+
+    @Override
+    public void connectionPoolCleared(ConnectionPoolClearedEvent event) {
+        PoolState pool = pools.get(event.getServerId());
+        if (pool != null) {
+            pool.generation.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void connectionCreated(ConnectionCreatedEvent event) {
+        PoolState pool = pools.get(event.getConnectionId().getServerId());
+        if (pool != null) {
+            pool.size.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void connectionClosed(ConnectionClosedEvent event) {
+        PoolState pool = pools.get(event.getConnectionId().getServerId());
+        if (pool != null) {
+            pool.size.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void connectionCheckOutStarted(ConnectionCheckOutStartedEvent event) {
+        PoolState pool = pools.get(event.getServerId());
+        if (pool != null) {
+            checkOutStarts.get().put(event.getServerId(), new CheckOutStart(pool, pool.generation.get(), System.nanoTime()));
+            pool.waitQueueSize.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        ServerId serverId = event.getConnectionId().getServerId();
+        recordCheckOutWait(serverId, "success");
+        PoolState pool = pools.get(serverId);
+        if (pool != null) {
+            pool.waitQueueSize.decrementAndGet();
+            pool.checkedOut.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        recordCheckOutWait(event.getServerId(), event.getReason().name().toLowerCase());
+        PoolState pool = pools.get(event.getServerId());
+        if (pool != null) {
+            pool.waitQueueSize.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+        PoolState pool = pools.get(event.getConnectionId().getServerId());
+        if (pool != null) {
+            pool.checkedOut.decrementAndGet();
+        }
+    }
+
+    private void recordCheckOutWait(ServerId serverId, String outcome) {
+        CheckOutStart start = checkOutStarts.get().remove(serverId);
+        if (start == null || start.pool != pools.get(serverId) || start.generation != start.pool.generation.get()) {
+            return;
+        }
+        long waitNanos = System.nanoTime() - start.startedAt;
+        Timer.builder("mongodb.driver.pool.checkout")
+                .tags(tags(serverId))
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Tags tags(ServerId serverId) {
+        return Tags.of("cluster.id", serverId.getClusterId().getValue(),
+                "server.address", serverId.getAddress().toString());
+    }
+
+    private static class PoolState {
+        private final int maxSize;
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicInteger checkedOut = new AtomicInteger();
+        private final AtomicInteger waitQueueSize = new AtomicInteger();
+        private final AtomicInteger generation = new AtomicInteger();
+        private final List<Meter> meters = new ArrayList<>();
+
+        PoolState(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        double saturation() {
+            return maxSize == 0 ? 0 : (double) checkedOut.get() / maxSize;
+        }
+    }
+
+    private static class CheckOutStart {
+        private final PoolState pool;
+        private final int generation;
+        private final long startedAt;
+
+        CheckOutStart(PoolState pool, int generation, long startedAt) {
+            this.pool = pool;
+            this.generation = generation;
+            this.startedAt = startedAt;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.thoughtworks.springbootemployee.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MongoMetricsConfiguration {
+    @Bean
+    public MongoCommandMetrics mongoCommandMetrics(MeterRegistry meterRegistry) {
+        return new MongoCommandMetrics(meterRegistry);
+    }
+
+    @Bean
+    public MongoConnectionPoolMetrics mongoConnectionPoolMetrics(MeterRegistry meterRegistry) {
+        return new MongoConnectionPoolMetrics(meterRegistry);
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoMetricsCustomizer(MongoCommandMetrics commandMetrics,
+                                                                       MongoConnectionPoolMetrics connectionPoolMetrics) {
+        return builder -> builder.addCommandListener(commandMetrics)
+                .applyToConnectionPoolSettings(pool -> pool.addConnectionPoolListener(connectionPoolMetrics));
+    }
+}
@@ -1,5 +1,7 @@
 package com.thoughtworks.springbootemployee.model;
 
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.FieldType;
 import org.springframework.data.mongodb.core.mapping.MongoId;
@@ -13,8 +15,12 @@ public class Company {
     private String name;
     private Integer employeeNumber;
 
+    @Indexed(background = true)
     private List<String> employees;
 
+    @Version
+    private Long version;
+
     public Company() {
 
     }
@@ -41,11 +47,11 @@ public class Company {
         this.name = name;
     }
 
-    public int getEmployeeNumber() {
+    public Integer getEmployeeNumber() {
         return employeeNumber;
     }
 
-    public void setEmployeeNumber(int employeeNumber) {
+    public void setEmployeeNumber(Integer employeeNumber) {
         this.employeeNumber = employeeNumber;
     }
 
@@ -56,4 +62,12 @@ public class Company {
     public void setEmployees(List<String> employees) {
         this.employees = employees;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -1,18 +1,34 @@
 package com.thoughtworks.springbootemployee.model;
 
+import com.thoughtworks.springbootemployee.index.CollatedIndex;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.FieldType;
 import org.springframework.data.mongodb.core.mapping.MongoId;
 
-@Document
+@Document(language = "none")
+@CompoundIndexes({
+        @CompoundIndex(name = "gender_salary_id", def = "{'gender': 1, 'salary': 1, '_id': 1}", background = true),
+        @CompoundIndex(name = "gender_age_id", def = "{'gender': 1, 'age': 1, '_id': 1}", background = true),
+        @CompoundIndex(name = "salary_id", def = "{'salary': 1, '_id': 1}", background = true),
+        @CompoundIndex(name = "age_id", def = "{'age': 1, '_id': 1}", background = true)
+})
+@CollatedIndex(name = "name_ci", def = "{'name': 1}", collation = "{'locale': 'en', 'strength': 2}")
 public class Employee {
     @MongoId(FieldType.OBJECT_ID)
     private String id;
+    @TextIndexed
     private String name;
     private Integer age;
     private Integer salary;
     private String gender;
 
+    @Version
+    private Long version;
+
     public Employee() {
 
     }
@@ -33,19 +49,19 @@ public class Employee {
         this.name = name;
     }
 
-    public int getAge() {
+    public Integer getAge() {
         return age;
     }
 
-    public void setAge(int age) {
+    public void setAge(Integer age) {
         this.age = age;
     }
 
-    public int getSalary() {
+    public Integer getSalary() {
         return salary;
     }
 
-    public void setSalary(int salary) {
+    public void setSalary(Integer salary) {
         this.salary = salary;
     }
 
@@ -63,4 +79,12 @@ public class Employee {
         this.salary = salary;
         this.gender = gender;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
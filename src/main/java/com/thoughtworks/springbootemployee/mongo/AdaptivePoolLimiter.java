@@ -0,0 +1,162 @@
+package com.thoughtworks.springbootemployee.mongo;
+
+import com.thoughtworks.springbootemployee.exception.DatabaseBusyException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Caps concurrent service calls below the driver pool size. Every {@code interval} the limit is
+ * lowered when the average {@code mongodb.driver.pool.checkout} wait or the highest
+ * {@code mongodb.driver.pool.saturation} goes over its target, and raised when callers used the
+ * whole limit. Runs inside the cache interceptor, so cache hits never take a permit.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "app.mongodb.pool.adaptive", name = "enabled", havingValue = "true")
+public class AdaptivePoolLimiter implements InitializingBean, DisposableBean {
+    private final MeterRegistry meterRegistry;
+    private final MongoDriverProperties.Adaptive adaptive;
+    private final long maxWaitNanos;
+    private final long targetWaitNanos;
+    private final ResizableSemaphore permits;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final ThreadLocal<Boolean> holdingPermit = ThreadLocal.withInitial(() -> Boolean.FALSE);
+    private ScheduledExecutorService scheduler;
+    private volatile int limit;
+    private long lastCheckOutCount;
+    private double lastCheckOutNanos;
+
+    public AdaptivePoolLimiter(MongoDriverProperties properties, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.adaptive = properties.getPool().getAdaptive();
+        if (adaptive.getMinSize() < 1 || adaptive.getMinSize() > adaptive.getMaxSize()) {
+            throw new IllegalArgumentException("Adaptive pool min size must be between 1 and max size");
+        }
+        this.maxWaitNanos = properties.getPool().getMaxWait() == null ? -1 : properties.getPool().getMaxWait().toNanos();
+        this.targetWaitNanos = adaptive.getTargetWait().toNanos();
+        this.limit = adaptive.getMinSize();
+        this.permits = new ResizableSemaphore(limit);
+        Gauge.builder("mongodb.driver.pool.adaptive.limit", this, AdaptivePoolLimiter::getLimit).register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "adaptive-pool-limiter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = adaptive.getInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::sample, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Around("execution(public * com.thoughtworks.springbootemployee.service.EmployeeService.*(..))"
+            + " || execution(public * com.thoughtworks.springbootemployee.service.CompanyService.*(..))")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (holdingPermit.get()) {
+            return joinPoint.proceed();
+        }
+        if (!tryAcquire(maxWaitNanos)) {
+            throw new DatabaseBusyException();
+        }
+        holdingPermit.set(Boolean.TRUE);
+        Object result = null;
+        try {
+            result = joinPoint.proceed();
+            // a returned stream still holds its cursor, so the permit goes back when it is closed
+            return result instanceof Stream ? ((Stream<?>) result).onClose(this::release) : result;
+        } finally {
+            holdingPermit.remove();
+            if (!(result instanceof Stream)) {
+                release();
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public boolean tryAcquire(long timeoutNanos) throws InterruptedException {
+        if (timeoutNanos < 0) {
+            permits.acquire();
+        } else if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+            return false;
+        }
+        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        return true;
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+        permits.release();
+    }
+
+    public synchronized void adjust(long averageCheckOutWaitNanos, double saturation) {
+        if (averageCheckOutWaitNanos > targetWaitNanos || saturation > adaptive.getTargetSaturation()) {
+            int shrunk = Math.max(adaptive.getMinSize(), limit - Math.max(1, limit / 4));
+            permits.reducePermits(limit - shrunk);
+            limit = shrunk;
+        } else if (peakInFlight.get() >= limit) {
+            int grown = Math.min(adaptive.getMaxSize(), limit + adaptive.getStep());
+            permits.release(grown - limit);
+            limit = grown;
+        }
+        peakInFlight.set(inFlight.get());
+    }
+
+    public void sample() {
+        long checkOutCount = 0;
+        double checkOutNanos = 0;
+        for (Timer checkOut : meterRegistry.find("mongodb.driver.pool.checkout").timers()) {
+            checkOutCount += checkOut.count();
+            checkOutNanos += checkOut.totalTime(TimeUnit.NANOSECONDS);
+        }
+        double saturation = meterRegistry.find("mongodb.driver.pool.saturation").gauges().stream()
+                .mapToDouble(Gauge::value)
+                .max()
+                .orElse(0);
+        long checkOuts = checkOutCount - lastCheckOutCount;
+        long averageCheckOutWaitNanos = checkOuts > 0 ? (long) ((checkOutNanos - lastCheckOutNanos) / checkOuts) : 0;
+        lastCheckOutCount = checkOutCount;
+        lastCheckOutNanos = checkOutNanos;
+        adjust(averageCheckOutWaitNanos, saturation);
+    }
+
+    private static class ResizableSemaphore extends Semaphore {
+        ResizableSemaphore(int permits) {
+            super(permits, true);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+}
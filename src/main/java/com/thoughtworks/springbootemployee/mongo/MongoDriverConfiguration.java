@@ -0,0 +1,83 @@
+package com.thoughtworks.springbootemployee.mongo;
+
+import com.mongodb.MongoCompressor;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableConfigurationProperties(MongoDriverProperties.class)
+public class MongoDriverConfiguration {
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoDriverCustomizer(MongoDriverProperties properties) {
+        MongoDriverProperties.Pool pool = properties.getPool();
+        List<MongoCompressor> compressors = compressors(properties.getCompressors());
+        return builder -> {
+            builder.applyToConnectionPoolSettings(settings -> {
+                if (pool.getMinSize() != null) {
+                    settings.minSize(pool.getMinSize());
+                }
+                if (pool.getMaxSize() != null) {
+                    settings.maxSize(pool.getMaxSize());
+                }
+                if (pool.getMaxWait() != null) {
+                    settings.maxWaitTime(pool.getMaxWait().toMillis(), TimeUnit.MILLISECONDS);
+                }
+                if (pool.getMaxConnectionIdleTime() != null) {
+                    settings.maxConnectionIdleTime(pool.getMaxConnectionIdleTime().toMillis(), TimeUnit.MILLISECONDS);
+                }
+                if (pool.getMaxConnectionLifeTime() != null) {
+                    settings.maxConnectionLifeTime(pool.getMaxConnectionLifeTime().toMillis(), TimeUnit.MILLISECONDS);
+                }
+                if (pool.getMaintenanceFrequency() != null) {
+                    settings.maintenanceFrequency(pool.getMaintenanceFrequency().toMillis(), TimeUnit.MILLISECONDS);
+                }
+            });
+            if (properties.getServerSelectionTimeout() != null) {
+                builder.applyToClusterSettings(cluster -> cluster.serverSelectionTimeout(
+                        properties.getServerSelectionTimeout().toMillis(), TimeUnit.MILLISECONDS));
+            }
+            builder.applyToSocketSettings(socket -> {
+                if (properties.getConnectTimeout() != null) {
+                    socket.connectTimeout(toIntMillis(properties.getConnectTimeout()), TimeUnit.MILLISECONDS);
+                }
+                if (properties.getSocketTimeout() != null) {
+                    socket.readTimeout(toIntMillis(properties.getSocketTimeout()), TimeUnit.MILLISECONDS);
+                }
+            });
+            if (!compressors.isEmpty()) {
+                builder.compressorList(compressors);
+            }
+        };
+    }
+
+    private static List<MongoCompressor> compressors(List<String> names) {
+        List<MongoCompressor> compressors = new ArrayList<>();
+        for (String name : names) {
+            switch (name.trim().toLowerCase()) {
+                case "zstd":
+                    compressors.add(MongoCompressor.createZstdCompressor());
+                    break;
+                case "snappy":
+                    compressors.add(MongoCompressor.createSnappyCompressor());
+                    break;
+                case "zlib":
+                    compressors.add(MongoCompressor.createZlibCompressor());
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown compressor: " + name);
+            }
+        }
+        return compressors;
+    }
+
+    private static int toIntMillis(Duration duration) {
+        return (int) Math.min(Integer.MAX_VALUE, duration.toMillis());
+    }
+}
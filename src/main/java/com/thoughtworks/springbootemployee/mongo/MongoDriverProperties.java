@@ -0,0 +1,180 @@
+package com.thoughtworks.springbootemployee.mongo;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "app.mongodb")
+public class MongoDriverProperties {
+    private final Pool pool = new Pool();
+    private List<String> compressors = new ArrayList<>();
+    private Duration serverSelectionTimeout;
+    private Duration connectTimeout;
+    private Duration socketTimeout;
+
+    public Pool getPool() {
+        return pool;
+    }
+
+    public List<String> getCompressors() {
+        return compressors;
+    }
+
+    public void setCompressors(List<String> compressors) {
+        this.compressors = compressors;
+    }
+
+    public Duration getServerSelectionTimeout() {
+        return serverSelectionTimeout;
+    }
+
+    public void setServerSelectionTimeout(Duration serverSelectionTimeout) {
+        this.serverSelectionTimeout = serverSelectionTimeout;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getSocketTimeout() {
+        return socketTimeout;
+    }
+
+    public void setSocketTimeout(Duration socketTimeout) {
+        this.socketTimeout = socketTimeout;
+    }
+
+    public static class Pool {
+        private final Adaptive adaptive = new Adaptive();
+        private Integer minSize;
+        private Integer maxSize;
+        private Duration maxWait;
+        private Duration maxConnectionIdleTime;
+        private Duration maxConnectionLifeTime;
+        private Duration maintenanceFrequency;
+
+        public Adaptive getAdaptive() {
+            return adaptive;
+        }
+
+        public Integer getMinSize() {
+            return minSize;
+        }
+
+        public void setMinSize(Integer minSize) {
+            this.minSize = minSize;
+        }
+
+        public Integer getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(Integer maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+
+        public Duration getMaxConnectionIdleTime() {
+            return maxConnectionIdleTime;
+        }
+
+        public void setMaxConnectionIdleTime(Duration maxConnectionIdleTime) {
+            this.maxConnectionIdleTime = maxConnectionIdleTime;
+        }
+
+        public Duration getMaxConnectionLifeTime() {
+            return maxConnectionLifeTime;
+        }
+
+        public void setMaxConnectionLifeTime(Duration maxConnectionLifeTime) {
+            this.maxConnectionLifeTime = maxConnectionLifeTime;
+        }
+
+        public Duration getMaintenanceFrequency() {
+            return maintenanceFrequency;
+        }
+
+        public void setMaintenanceFrequency(Duration maintenanceFrequency) {
+            this.maintenanceFrequency = maintenanceFrequency;
+        }
+    }
+
+    public static class Adaptive {
+        private boolean enabled;
+        private int minSize = 10;
+        private int maxSize = 100;
+        private int step = 4;
+        private Duration targetWait = Duration.ofMillis(10);
+        private double targetSaturation = 0.9;
+        private Duration interval = Duration.ofSeconds(5);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMinSize() {
+            return minSize;
+        }
+
+        public void setMinSize(int minSize) {
+            this.minSize = minSize;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public int getStep() {
+            return step;
+        }
+
+        public void setStep(int step) {
+            this.step = step;
+        }
+
+        public Duration getTargetWait() {
+            return targetWait;
+        }
+
+        public void setTargetWait(Duration targetWait) {
+            this.targetWait = targetWait;
+        }
+
+        public double getTargetSaturation() {
+            return targetSaturation;
+        }
+
+        public void setTargetSaturation(double targetSaturation) {
+            this.targetSaturation = targetSaturation;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+    }
+}
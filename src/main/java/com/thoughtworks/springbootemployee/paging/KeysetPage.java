@@ -0,0 +1,96 @@
+package com.thoughtworks.springbootemployee.paging;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+public class KeysetPage<T> {
+    public static final int DEFAULT_MAX_PAGE_SIZE = 1000;
+
+    private final List<T> content;
+    private final String next;
+
+    public KeysetPage(List<T> content, String next) {
+        this.content = content;
+        this.next = next;
+    }
+
+    public static Query query(String after, int pageSize, int maxPageSize) {
+        checkPageSize(pageSize, maxPageSize);
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "id")).limit(pageSize + 1);
+        if (after != null) {
+            query.addCriteria(Criteria.where("id").gt(PageToken.decode(after)));
+        }
+        return query;
+    }
+
+    public static Query query(Criteria filter, String sortKey, Sort.Direction direction, String after, int pageSize,
+                              int maxPageSize) {
+        checkPageSize(pageSize, maxPageSize);
+        Query query = new Query().with(Sort.by(direction, sortKey, "id")).limit(pageSize + 1);
+        if (after == null) {
+            return query.addCriteria(filter);
+        }
+        return query.addCriteria(new Criteria().andOperator(filter, after(sortKey, direction, PageToken.decodePosition(after))));
+    }
+
+    private static void checkPageSize(int pageSize, int maxPageSize) {
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + maxPageSize);
+        }
+    }
+
+    private static Criteria after(String sortKey, Sort.Direction direction, PageToken.Position position) {
+        Integer key = position.getKey();
+        if (direction.isAscending()) {
+            return key == null
+                    ? new Criteria().orOperator(Criteria.where(sortKey).is(null).and("id").gt(position.getId()),
+                    Criteria.where(sortKey).ne(null))
+                    : new Criteria().orOperator(Criteria.where(sortKey).gt(key),
+                    Criteria.where(sortKey).is(key).and("id").gt(position.getId()));
+        }
+        return key == null
+                ? Criteria.where(sortKey).is(null).and("id").lt(position.getId())
+                : new Criteria().orOperator(Criteria.where(sortKey).lt(key),
+                Criteria.where(sortKey).is(key).and("id").lt(position.getId()),
+                Criteria.where(sortKey).is(null));
+    }
+
+    public static <T> KeysetPage<T> of(List<T> fetched, int pageSize, Function<T, String> idExtractor,
+                                       Function<T, Integer> keyExtractor) {
+        if (fetched.size() <= pageSize) {
+            return new KeysetPage<>(fetched, null);
+        }
+        List<T> content = fetched.subList(0, pageSize);
+        T last = content.get(pageSize - 1);
+        return new KeysetPage<>(content, PageToken.encode(keyExtractor.apply(last), idExtractor.apply(last)));
+    }
+
+    public static <T> KeysetPage<T> of(List<T> fetched, int pageSize, Function<T, String> idExtractor) {
+        if (fetched.size() <= pageSize) {
+            return new KeysetPage<>(fetched, null);
+        }
+        List<T> content = fetched.subList(0, pageSize);
+        return new KeysetPage<>(content, PageToken.encode(idExtractor.apply(content.get(pageSize - 1))));
+    }
+
+    public <R> KeysetPage<R> map(Function<T, R> mapper) {
+        List<R> mappedContent = new ArrayList<>(content.size());
+        for (T item : content) {
+            mappedContent.add(mapper.apply(item));
+        }
+        return new KeysetPage<>(mappedContent, next);
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public String getNext() {
+        return next;
+    }
+}
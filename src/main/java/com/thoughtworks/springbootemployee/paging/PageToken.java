@@ -0,0 +1,70 @@
+package com.thoughtworks.springbootemployee.paging;
+
+import org.bson.types.ObjectId;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+public final class PageToken {
+    private static final int ID_LENGTH = 12;
+    private static final int POSITION_LENGTH = 1 + Integer.BYTES + ID_LENGTH;
+
+    private PageToken() {
+
+    }
+
+    public static String encode(String id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(new ObjectId(id).toByteArray());
+    }
+
+    public static ObjectId decode(String token) {
+        return new ObjectId(decodeBytes(token, ID_LENGTH));
+    }
+
+    public static String encode(Integer key, String id) {
+        ByteBuffer buffer = ByteBuffer.allocate(POSITION_LENGTH)
+                .put((byte) (key == null ? 0 : 1))
+                .putInt(key == null ? 0 : key)
+                .put(new ObjectId(id).toByteArray());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    public static Position decodePosition(String token) {
+        ByteBuffer buffer = ByteBuffer.wrap(decodeBytes(token, POSITION_LENGTH));
+        byte hasKey = buffer.get();
+        int key = buffer.getInt();
+        byte[] id = new byte[ID_LENGTH];
+        buffer.get(id);
+        return new Position(hasKey == 0 ? null : key, new ObjectId(id));
+    }
+
+    private static byte[] decodeBytes(String token, int length) {
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(token);
+            if (bytes.length != length) {
+                throw new IllegalArgumentException("Invalid page token");
+            }
+            return bytes;
+        } catch (IllegalArgumentException exception) {
+            throw new IllegalArgumentException("Invalid page token");
+        }
+    }
+
+    public static final class Position {
+        private final Integer key;
+        private final ObjectId id;
+
+        private Position(Integer key, ObjectId id) {
+            this.key = key;
+            this.id = id;
+        }
+
+        public Integer getKey() {
+            return key;
+        }
+
+        public ObjectId getId() {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.thoughtworks.springbootemployee.projection;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.beans.PropertyDescriptor;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+public final class FieldSelection {
+    public static final String FILTER_ID = "fieldSelection";
+    public static final String PARAMETER_NAME = "fields";
+    public static final FieldSelection ALL = new FieldSelection(Collections.emptySet());
+
+    private final Set<String> fields;
+
+    private FieldSelection(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    public static FieldSelection parse(String fields) {
+        if (fields == null || fields.trim().isEmpty()) {
+            return ALL;
+        }
+        Set<String> selectedFields = new LinkedHashSet<>();
+        selectedFields.add("id");
+        for (String field : fields.split(",")) {
+            if (!field.trim().isEmpty()) {
+                selectedFields.add(field.trim());
+            }
+        }
+        return new FieldSelection(Collections.unmodifiableSet(selectedFields));
+    }
+
+    public static FieldSelection parse(String fields, Class<?> responseType) {
+        FieldSelection fieldSelection = parse(fields);
+        Set<String> knownFields = new HashSet<>();
+        for (PropertyDescriptor propertyDescriptor : BeanUtils.getPropertyDescriptors(responseType)) {
+            knownFields.add(propertyDescriptor.getName());
+        }
+        for (String field : fieldSelection.fields) {
+            if (!knownFields.contains(field) || "class".equals(field)) {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
+        }
+        return fieldSelection;
+    }
+
+    public boolean isAll() {
+        return fields.isEmpty();
+    }
+
+    public Set<String> getFields() {
+        return fields;
+    }
+
+    public Query applyTo(Query query) {
+        for (String field : fields) {
+            query.fields().include(field);
+        }
+        return query;
+    }
+
+    public FilterProvider toFilterProvider() {
+        return new SimpleFilterProvider().addFilter(FILTER_ID, isAll()
+                ? SimpleBeanPropertyFilter.serializeAll()
+                : SimpleBeanPropertyFilter.filterOutAllExcept(fields));
+    }
+}
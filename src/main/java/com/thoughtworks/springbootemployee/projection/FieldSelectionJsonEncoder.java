@@ -0,0 +1,46 @@
+package com.thoughtworks.springbootemployee.projection;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.util.MimeType;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class FieldSelectionJsonEncoder extends Jackson2JsonEncoder {
+    private static final String FIELD_SELECTION_HINT = FieldSelection.class.getName();
+
+    public FieldSelectionJsonEncoder(ObjectMapper objectMapper, MimeType... mimeTypes) {
+        super(objectMapper, mimeTypes);
+    }
+
+    @Override
+    public Map<String, Object> getEncodeHints(ResolvableType actualType, ResolvableType elementType,
+                                              MediaType mediaType, ServerHttpRequest request,
+                                              ServerHttpResponse response) {
+        Map<String, Object> hints = super.getEncodeHints(actualType, elementType, mediaType, request, response);
+        FieldSelection fieldSelection = FieldSelection.parse(request.getQueryParams().getFirst(FieldSelection.PARAMETER_NAME));
+        if (fieldSelection.isAll()) {
+            return hints;
+        }
+        Map<String, Object> selectedHints = new HashMap<>(hints);
+        selectedHints.put(FIELD_SELECTION_HINT, fieldSelection);
+        return selectedHints;
+    }
+
+    @Override
+    protected ObjectWriter customizeWriter(ObjectWriter writer, MimeType mimeType, ResolvableType elementType,
+                                           Map<String, Object> hints) {
+        ObjectWriter customized = super.customizeWriter(writer, mimeType, elementType, hints);
+        Object fieldSelection = hints == null ? null : hints.get(FIELD_SELECTION_HINT);
+        if (!(fieldSelection instanceof FieldSelection)) {
+            return customized;
+        }
+        return customized.with(((FieldSelection) fieldSelection).toFilterProvider());
+    }
+}
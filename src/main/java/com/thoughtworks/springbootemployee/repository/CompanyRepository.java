@@ -1,9 +1,16 @@
 package com.thoughtworks.springbootemployee.repository;
 
 import com.thoughtworks.springbootemployee.model.Company;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.stream.Stream;
+
 @Repository
 public interface CompanyRepository extends MongoRepository<Company, String> {
+    @Query("{}")
+    @Meta(cursorBatchSize = 500)
+    Stream<Company> streamAll();
 }
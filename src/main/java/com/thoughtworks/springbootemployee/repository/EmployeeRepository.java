@@ -1,12 +1,19 @@
 package com.thoughtworks.springbootemployee.repository;
 
 import com.thoughtworks.springbootemployee.model.Employee;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface EmployeeRepository extends MongoRepository<Employee, String> {
     List<Employee> findAllByGender(String gender);
+
+    @Query("{}")
+    @Meta(cursorBatchSize = 500)
+    Stream<Employee> streamAll();
 }
@@ -0,0 +1,75 @@
+package com.thoughtworks.springbootemployee.search;
+
+import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.projection.FieldSelection;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class EmployeeNameSearch {
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+    private static final Collation NAME_COLLATION = Collation.of("en").strength(Collation.ComparisonLevel.secondary());
+    private static final String PREFIX_UPPER_BOUND = "\uffff";
+
+    private final MongoTemplate mongoTemplate;
+
+    public EmployeeNameSearch(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public List<Employee> search(String text, int limit, FieldSelection fields) {
+        String prefix = prefix(text, limit);
+        Map<String, Employee> matches = new LinkedHashMap<>();
+        mongoTemplate.find(prefixQuery(prefix, limit, fields), Employee.class)
+                .forEach(employee -> matches.put(employee.getId(), employee));
+        if (matches.size() < limit) {
+            addTokenMatches(matches, mongoTemplate.find(tokenQuery(prefix, limit, fields), Employee.class), limit);
+        }
+        return new ArrayList<>(matches.values());
+    }
+
+    static String prefix(String text, int limit) {
+        if (text == null || text.trim().isEmpty()) {
+            throw new IllegalArgumentException("Search text must not be blank");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Search limit must be between 1 and " + MAX_LIMIT);
+        }
+        return text.trim();
+    }
+
+    static Query prefixQuery(String prefix, int limit, FieldSelection fields) {
+        return fields.applyTo(new Query(Criteria.where("name").gte(prefix).lt(prefix + PREFIX_UPPER_BOUND)))
+                .collation(NAME_COLLATION)
+                .with(Sort.by("name"))
+                .limit(limit);
+    }
+
+    static Query tokenQuery(String prefix, int limit, FieldSelection fields) {
+        return fields.applyTo(TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(prefix))
+                .sortByScore()
+                .limit(limit));
+    }
+
+    static Map<String, Employee> addTokenMatches(Map<String, Employee> matches, Iterable<Employee> tokenMatches, int limit) {
+        for (Employee employee : tokenMatches) {
+            if (matches.size() == limit) {
+                break;
+            }
+            matches.putIfAbsent(employee.getId(), employee);
+        }
+        return matches;
+    }
+}
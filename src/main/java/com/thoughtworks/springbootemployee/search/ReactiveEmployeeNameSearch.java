@@ -0,0 +1,43 @@
+package com.thoughtworks.springbootemployee.search;
+
+import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.projection.FieldSelection;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+@Component
+@Profile("reactive")
+public class ReactiveEmployeeNameSearch {
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public ReactiveEmployeeNameSearch(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public Mono<List<Employee>> search(String text, int limit, FieldSelection fields) {
+        return Mono.defer(() -> {
+            String prefix = EmployeeNameSearch.prefix(text, limit);
+            return mongoTemplate.find(EmployeeNameSearch.prefixQuery(prefix, limit, fields), Employee.class)
+                    .collectMap(Employee::getId, Function.identity(), LinkedHashMap::new)
+                    .flatMap(matches -> matches.size() < limit
+                            ? addTokenMatches(matches, prefix, limit, fields)
+                            : Mono.just(matches))
+                    .map(matches -> new ArrayList<>(matches.values()));
+        });
+    }
+
+    private Mono<Map<String, Employee>> addTokenMatches(Map<String, Employee> matches, String prefix, int limit,
+                                                        FieldSelection fields) {
+        return mongoTemplate.find(EmployeeNameSearch.tokenQuery(prefix, limit, fields), Employee.class)
+                .collectList()
+                .map(tokenMatches -> EmployeeNameSearch.addTokenMatches(matches, tokenMatches, limit));
+    }
+}
@@ -0,0 +1,40 @@
+package com.thoughtworks.springbootemployee.service;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+final class BulkOutcome {
+    final BulkWriteResult result;
+    final Map<Integer, String> errors;
+
+    private BulkOutcome(BulkWriteResult result, Map<Integer, String> errors) {
+        this.result = result;
+        this.errors = errors;
+    }
+
+    static BulkOutcome succeeded(BulkWriteResult result) {
+        return new BulkOutcome(result, Collections.emptyMap());
+    }
+
+    static BulkOutcome failed(MongoBulkWriteException exception) {
+        Map<Integer, String> errors = new HashMap<>();
+        for (BulkWriteError error : exception.getWriteErrors()) {
+            errors.put(error.getIndex(), error.getMessage());
+        }
+        return new BulkOutcome(exception.getWriteResult(), errors);
+    }
+
+    static MongoBulkWriteException findBulkWriteException(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoBulkWriteException) {
+                return (MongoBulkWriteException) cause;
+            }
+        }
+        return null;
+    }
+}
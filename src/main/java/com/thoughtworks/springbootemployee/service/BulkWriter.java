@@ -0,0 +1,214 @@
+package com.thoughtworks.springbootemployee.service;
+
+import com.mongodb.MongoBulkWriteException;
+import com.thoughtworks.springbootemployee.dto.BatchResponse;
+import com.thoughtworks.springbootemployee.exception.MalformedRecordException;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Component
+public class BulkWriter {
+    private final MongoTemplate mongoTemplate;
+    private final int chunkSize;
+
+    public BulkWriter(MongoTemplate mongoTemplate, @Value("${app.batch.chunk-size:1000}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Batch chunk size must be positive");
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    public <T> BatchResponse insert(Class<T> type, Stream<T> documents, BiConsumer<T, String> idAssigner,
+                                    Consumer<List<T>> inserted) {
+        return insert(type, documents.iterator(), BulkWrites.assignIds(idAssigner), inserted, new BatchResponse());
+    }
+
+    public <T> BatchResponse insertWithIds(Class<T> type, List<T> documents, Function<T, String> idGetter) {
+        return insert(type, documents.iterator(), idGetter, inserted -> {
+        }, new BatchResponse());
+    }
+
+    public <T> BatchResponse importAll(Class<T> type, Stream<T> documents, BiConsumer<T, String> idAssigner,
+                                       Function<T, String> idGetter, Consumer<List<T>> inserted) {
+        return insert(type, documents.iterator(), BulkWrites.keepValidIds(idAssigner, idGetter), inserted,
+                BatchResponse.failuresOnly());
+    }
+
+    private <T> BatchResponse insert(Class<T> type, Iterator<T> iterator, Function<T, String> identify,
+                                     Consumer<List<T>> inserted, BatchResponse response) {
+        List<T> chunk = new ArrayList<>(chunkSize);
+        List<String> ids = new ArrayList<>(chunkSize);
+        List<Integer> indexes = new ArrayList<>(chunkSize);
+        List<Integer> malformedIndexes = new ArrayList<>();
+        MongoPersistentEntity<?> entity = persistentEntity(type);
+        for (int index = 0; ; index++) {
+            T document;
+            try {
+                if (!iterator.hasNext()) {
+                    break;
+                }
+                document = iterator.next();
+            } catch (MalformedRecordException exception) {
+                malformedIndexes.add(index);
+                if (exception.isRecoverable()) {
+                    continue;
+                }
+                break;
+            }
+            String id = identify.apply(document);
+            BulkWrites.initializeVersion(entity, document);
+            chunk.add(document);
+            ids.add(id);
+            indexes.add(index);
+            if (chunk.size() == chunkSize) {
+                insertChunk(type, chunk, ids, indexes, malformedIndexes, inserted, response);
+                chunk.clear();
+                ids.clear();
+                indexes.clear();
+                malformedIndexes.clear();
+            }
+        }
+        if (!chunk.isEmpty() || !malformedIndexes.isEmpty()) {
+            insertChunk(type, chunk, ids, indexes, malformedIndexes, inserted, response);
+        }
+        return response;
+    }
+
+    public BatchResponse update(Class<?> type, List<Pair<String, Update>> updates) {
+        BatchResponse response = new BatchResponse();
+        for (int offset = 0; offset < updates.size(); offset += chunkSize) {
+            updateChunk(type, updates.subList(offset, Math.min(offset + chunkSize, updates.size())), offset, response);
+        }
+        return response;
+    }
+
+    public BatchResponse delete(Class<?> type, List<String> ids) {
+        BatchResponse response = new BatchResponse();
+        for (int offset = 0; offset < ids.size(); offset += chunkSize) {
+            deleteChunk(type, ids.subList(offset, Math.min(offset + chunkSize, ids.size())), offset, response);
+        }
+        return response;
+    }
+
+    private MongoPersistentEntity<?> persistentEntity(Class<?> type) {
+        return mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(type);
+    }
+
+    private <T> void insertChunk(Class<T> type, List<T> chunk, List<String> ids, List<Integer> indexes,
+                                 List<Integer> malformedIndexes, Consumer<List<T>> inserted,
+                                 BatchResponse response) {
+        Map<Integer, String> errors = chunk.isEmpty()
+                ? Collections.emptyMap()
+                : execute(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type).insert(chunk)).errors;
+        List<T> insertedDocuments = BulkWrites.reportInserted(chunk, ids, indexes, malformedIndexes, errors, response);
+        if (!insertedDocuments.isEmpty()) {
+            inserted.accept(insertedDocuments);
+        }
+    }
+
+    private void updateChunk(Class<?> type, List<Pair<String, Update>> chunk, int offset, BatchResponse response) {
+        String[] errors = new String[chunk.size()];
+        List<Integer> sentIndexes = new ArrayList<>(chunk.size());
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+        MongoPersistentEntity<?> entity = persistentEntity(type);
+        for (int i = 0; i < chunk.size(); i++) {
+            String id = chunk.get(i).getFirst();
+            errors[i] = BulkWrites.validate(id, chunk.get(i).getSecond());
+            if (errors[i] == null) {
+                operations.updateOne(byId(id), BulkWrites.versioned(entity, chunk.get(i).getSecond()));
+                sentIndexes.add(i);
+            }
+        }
+        if (!sentIndexes.isEmpty()) {
+            BulkOutcome outcome = execute(operations);
+            Set<ObjectId> sentIds = new HashSet<>();
+            for (int model = 0; model < sentIndexes.size(); model++) {
+                int index = sentIndexes.get(model);
+                errors[index] = outcome.errors.get(model);
+                sentIds.add(new ObjectId(chunk.get(index).getFirst()));
+            }
+            if (outcome.result.getMatchedCount() < sentIndexes.size() - outcome.errors.size()) {
+                Set<ObjectId> existingIds = findExistingIds(type, sentIds);
+                for (int index : sentIndexes) {
+                    if (errors[index] == null && !existingIds.contains(new ObjectId(chunk.get(index).getFirst()))) {
+                        errors[index] = BulkWrites.NOT_FOUND;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < chunk.size(); i++) {
+            BulkWrites.report(response, offset + i, chunk.get(i).getFirst(), errors[i]);
+        }
+    }
+
+    private void deleteChunk(Class<?> type, List<String> chunk, int offset, BatchResponse response) {
+        String[] errors = new String[chunk.size()];
+        Set<ObjectId> requestedIds = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (BulkWrites.isValidId(chunk.get(i))) {
+                requestedIds.add(new ObjectId(chunk.get(i)));
+            } else {
+                errors[i] = BulkWrites.INVALID_ID;
+            }
+        }
+        if (!requestedIds.isEmpty()) {
+            Set<ObjectId> existingIds = findExistingIds(type, requestedIds);
+            String deleteError = null;
+            if (!existingIds.isEmpty()) {
+                BulkOutcome outcome = execute(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type)
+                        .remove(Query.query(Criteria.where("id").in(existingIds))));
+                deleteError = outcome.errors.get(0);
+            }
+            for (int i = 0; i < chunk.size(); i++) {
+                if (errors[i] == null) {
+                    errors[i] = existingIds.contains(new ObjectId(chunk.get(i))) ? deleteError : BulkWrites.NOT_FOUND;
+                }
+            }
+        }
+        for (int i = 0; i < chunk.size(); i++) {
+            BulkWrites.report(response, offset + i, chunk.get(i), errors[i]);
+        }
+    }
+
+    private Set<ObjectId> findExistingIds(Class<?> type, Set<ObjectId> ids) {
+        return new HashSet<>(mongoTemplate.findDistinct(Query.query(Criteria.where("id").in(ids)), "id", type, ObjectId.class));
+    }
+
+    private static Query byId(String id) {
+        return Query.query(Criteria.where("id").is(new ObjectId(id)));
+    }
+
+    private BulkOutcome execute(BulkOperations operations) {
+        try {
+            return BulkOutcome.succeeded(operations.execute());
+        } catch (DataAccessException exception) {
+            MongoBulkWriteException bulkWriteException = BulkOutcome.findBulkWriteException(exception);
+            if (bulkWriteException == null) {
+                throw exception;
+            }
+            return BulkOutcome.failed(bulkWriteException);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.thoughtworks.springbootemployee.service;
+
+import com.thoughtworks.springbootemployee.dto.BatchResponse;
+import org.bson.types.ObjectId;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Per-record rules BulkWriter and ReactiveBulkWriter both apply: id assignment, the initial
+ * version, update validation and how each record is reported in the batch response.
+ */
+final class BulkWrites {
+    static final String INVALID_ID = "Invalid id";
+    static final String NOT_FOUND = "Not Found";
+    private static final String NO_FIELDS = "No fields to update";
+    private static final String MALFORMED_RECORD = "Malformed Record";
+
+    private BulkWrites() {
+    }
+
+    static <T> Function<T, String> assignIds(BiConsumer<T, String> idAssigner) {
+        return document -> {
+            String id = new ObjectId().toHexString();
+            idAssigner.accept(document, id);
+            return id;
+        };
+    }
+
+    static <T> Function<T, String> keepValidIds(BiConsumer<T, String> idAssigner, Function<T, String> idGetter) {
+        return document -> {
+            String id = idGetter.apply(document);
+            if (!isValidId(id)) {
+                id = new ObjectId().toHexString();
+                idAssigner.accept(document, id);
+            }
+            return id;
+        };
+    }
+
+    static <T> void initializeVersion(MongoPersistentEntity<?> entity, T document) {
+        MongoPersistentProperty versionProperty = entity.getVersionProperty();
+        if (versionProperty != null) {
+            PersistentPropertyAccessor<T> accessor = entity.getPropertyAccessor(document);
+            if (accessor.getProperty(versionProperty) == null) {
+                accessor.setProperty(versionProperty, 0L);
+            }
+        }
+    }
+
+    static String validate(String id, Update update) {
+        if (!isValidId(id)) {
+            return INVALID_ID;
+        }
+        return update.getUpdateObject().isEmpty() ? NO_FIELDS : null;
+    }
+
+    static Update versioned(MongoPersistentEntity<?> entity, Update update) {
+        MongoPersistentProperty versionProperty = entity.getVersionProperty();
+        if (versionProperty != null && !update.modifies(versionProperty.getName())) {
+            return Updates.withIncrement(update, versionProperty.getName());
+        }
+        return update;
+    }
+
+    static <T> List<T> reportInserted(List<T> chunk, List<String> ids, List<Integer> indexes,
+                                      List<Integer> malformedIndexes, Map<Integer, String> errors,
+                                      BatchResponse response) {
+        int malformed = 0;
+        List<T> insertedDocuments = new ArrayList<>(chunk.size());
+        for (int i = 0; i < ids.size(); i++) {
+            while (malformed < malformedIndexes.size() && malformedIndexes.get(malformed) < indexes.get(i)) {
+                response.addFailure(malformedIndexes.get(malformed++), null, MALFORMED_RECORD);
+            }
+            String error = errors.get(i);
+            if (error == null) {
+                insertedDocuments.add(chunk.get(i));
+            }
+            report(response, indexes.get(i), error == null ? ids.get(i) : null, error);
+        }
+        while (malformed < malformedIndexes.size()) {
+            response.addFailure(malformedIndexes.get(malformed++), null, MALFORMED_RECORD);
+        }
+        return insertedDocuments;
+    }
+
+    static boolean isValidId(String id) {
+        return id != null && ObjectId.isValid(id);
+    }
+
+    static void report(BatchResponse response, int index, String id, String error) {
+        if (error == null) {
+            response.addSuccess(index, id);
+        } else {
+            response.addFailure(index, id, error);
+        }
+    }
+}
@@ -1,49 +1,272 @@
 package com.thoughtworks.springbootemployee.service;
 
+import com.thoughtworks.springbootemployee.concurrency.ChangeTracker;
+import com.thoughtworks.springbootemployee.concurrency.SingleFlight;
+import com.thoughtworks.springbootemployee.concurrency.VersionMatch;
+import com.thoughtworks.springbootemployee.dto.BatchResponse;
+import com.thoughtworks.springbootemployee.dto.EmployeeStatsResponse;
 import com.thoughtworks.springbootemployee.exception.CompanyNotFoundException;
+import com.thoughtworks.springbootemployee.exception.PreconditionFailedException;
 import com.thoughtworks.springbootemployee.model.Company;
+import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.paging.KeysetPage;
+import com.thoughtworks.springbootemployee.projection.FieldSelection;
 import com.thoughtworks.springbootemployee.repository.CompanyRepository;
+import com.thoughtworks.springbootemployee.repository.EmployeeRepository;
+import com.thoughtworks.springbootemployee.stats.EmployeeStatsStore;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+import org.springframework.data.util.StreamUtils;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@CacheConfig(cacheNames = "companies")
 public class CompanyService {
     @Autowired
     CompanyRepository companyRepository;
+    @Autowired
+    EmployeeRepository employeeRepository;
+    @Autowired
+    MongoTemplate mongoTemplate;
+    @Autowired
+    BulkWriter bulkWriter;
+    @Autowired
+    EmployeeStatsAggregator statsAggregator;
+    @Autowired
+    EmployeeStatsStore statsStore;
+    @Autowired
+    ChangeTracker changeTracker;
+    @Value("${app.paging.max-page-size:1000}")
+    int maxPageSize = KeysetPage.DEFAULT_MAX_PAGE_SIZE;
+
+    private final SingleFlight<List<Object>, Company> companyLookups = new SingleFlight<>();
+    private final SingleFlight<List<Object>, List<Employee>> employeeLookups = new SingleFlight<>();
 
     public Company add(Company requestCompany) {
-        return this.companyRepository.save(requestCompany);
+        Company company = this.companyRepository.save(requestCompany);
+        changeTracker.documentSaved(Company.class, company.getId(), company.getVersion());
+        statsStore.companySaved(company);
+        return company;
+    }
+
+    public BatchResponse importAll(Stream<Company> companies) {
+        BatchResponse response = bulkWriter.importAll(Company.class, companies, Company::setId, Company::getId,
+                statsStore::companiesSaved);
+        changeTracker.collectionChanged(Company.class);
+        return response;
     }
 
     public List<Company> getAll() {
         return companyRepository.findAll();
     }
 
+    public List<Company> getAll(FieldSelection fields) {
+        if (fields.isAll()) {
+            return getAll();
+        }
+        return mongoTemplate.find(fields.applyTo(new Query()), Company.class);
+    }
+
+    public Stream<Company> streamAll() {
+        return companyRepository.streamAll();
+    }
+
+    public Stream<Company> streamAll(FieldSelection fields) {
+        if (fields.isAll()) {
+            return streamAll();
+        }
+        return StreamUtils.createStreamFromIterator(
+                mongoTemplate.stream(fields.applyTo(new Query().cursorBatchSize(500)), Company.class));
+    }
+
+    @Cacheable(key = "#companyId", sync = true)
     public Company get(String companyId) {
         return companyRepository.findById(companyId).orElseThrow(CompanyNotFoundException::new);
     }
 
+    @Cacheable(key = "#companyId", sync = true, condition = "#fields.all")
+    public Company get(String companyId, FieldSelection fields) {
+        if (fields.isAll()) {
+            return get(companyId);
+        }
+        return companyLookups.execute(lookupKey(companyId, fields), () -> {
+            Query query = fields.applyTo(new Query(Criteria.where("id").is(companyId)));
+            query.fields().include("version");
+            Company company = mongoTemplate.findOne(query, Company.class);
+            if (company == null) {
+                throw new CompanyNotFoundException();
+            }
+            return company;
+        });
+    }
+
     public List<String> getEmployeeList(String companyId) {
         return companyRepository.findById(companyId).orElseThrow(CompanyNotFoundException::new).getEmployees();
     }
 
+    public List<Employee> getEmployees(String companyId) {
+        return getEmployees(companyId, FieldSelection.ALL);
+    }
+
+    public List<Employee> getEmployees(String companyId, FieldSelection fields) {
+        List<Object> key = Arrays.asList(companyId, fields.getFields(),
+                changeTracker.stamp(Company.class), changeTracker.stamp(Employee.class));
+        return employeeLookups.execute(key, () -> findEmployees(companyId, fields));
+    }
+
+    private List<Object> lookupKey(String companyId, FieldSelection fields) {
+        return Arrays.asList(companyId, fields.getFields(), changeTracker.stamp(Company.class));
+    }
+
+    private List<Employee> findEmployees(String companyId, FieldSelection fields) {
+        List<String> employeeIds = getEmployeeList(companyId);
+        if (employeeIds == null || employeeIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Iterable<Employee> employees = fields.isAll()
+                ? employeeRepository.findAllById(employeeIds)
+                : mongoTemplate.find(fields.applyTo(new Query(Criteria.where("id").in(employeeIds))), Employee.class);
+        Map<String, Employee> employeesById = new HashMap<>();
+        employees.forEach(employee -> employeesById.put(employee.getId(), employee));
+        return employeeIds.stream()
+                .map(employeesById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    public List<EmployeeStatsResponse> getEmployeeStats(String companyId, String groupBy, int buckets) {
+        List<String> employeeIds = getEmployeeList(companyId);
+        if (employeeIds == null || employeeIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return statsAggregator.aggregate(Criteria.where("id").in(employeeIds), groupBy, buckets);
+    }
+
     public Page<Company> getAllByPage(int page, int pageSize) {
         return companyRepository.findAll(PageRequest.of(page - 1, pageSize));
     }
 
+    public List<Company> getAllByPage(int page, int pageSize, FieldSelection fields) {
+        if (fields.isAll()) {
+            return getAllByPage(page, pageSize).getContent();
+        }
+        return mongoTemplate.find(fields.applyTo(new Query().with(PageRequest.of(page - 1, pageSize))), Company.class);
+    }
+
+    public KeysetPage<Company> getAllAfter(String after, int pageSize) {
+        return getAllAfter(after, pageSize, FieldSelection.ALL);
+    }
+
+    public KeysetPage<Company> getAllAfter(String after, int pageSize, FieldSelection fields) {
+        Query query = fields.applyTo(KeysetPage.query(after, pageSize, maxPageSize));
+        return KeysetPage.of(mongoTemplate.find(query, Company.class), pageSize, Company::getId);
+    }
+
+    @CacheEvict(key = "#companyId")
     public Company update(String companyId, Company updateCompany) {
-        if (companyRepository.existsById(companyId)) {
-            updateCompany.setId(companyId);
-            return companyRepository.save(updateCompany);
+        return doUpdate(companyId, updateCompany, VersionMatch.NONE);
+    }
+
+    @CacheEvict(key = "#companyId")
+    public Company update(String companyId, Company updateCompany, VersionMatch ifMatch) {
+        return doUpdate(companyId, updateCompany, ifMatch);
+    }
+
+    @CacheEvict(key = "#companyId")
+    public Company patch(String companyId, Update update) {
+        return doPatch(companyId, update, VersionMatch.NONE);
+    }
+
+    @CacheEvict(key = "#companyId")
+    public Company patch(String companyId, Update update, VersionMatch ifMatch) {
+        return doPatch(companyId, update, ifMatch);
+    }
+
+    @CacheEvict(key = "#companyId")
+    public Company addEmployee(String companyId, String employeeId) {
+        return doPatch(companyId, new Update().addToSet("employees", employeeId), VersionMatch.NONE);
+    }
+
+    @CacheEvict(key = "#companyId")
+    public Company removeEmployee(String companyId, String employeeId) {
+        return doPatch(companyId, new Update().pull("employees", employeeId), VersionMatch.NONE);
+    }
+
+    @CacheEvict(allEntries = true)
+    public BatchResponse updateAll(List<Pair<String, Update>> companyUpdates) {
+        BatchResponse response = bulkWriter.update(Company.class, companyUpdates);
+        changeTracker.collectionChanged(Company.class);
+        statsStore.companiesSaved(findMembers(response.succeededIds()));
+        return response;
+    }
+
+    private List<Company> findMembers(List<String> companyIds) {
+        if (companyIds.isEmpty()) {
+            return Collections.emptyList();
         }
-        throw new CompanyNotFoundException();
+        Query query = new Query(Criteria.where("id").in(companyIds));
+        query.fields().include("employees");
+        return mongoTemplate.find(query, Company.class);
     }
 
+    private Company doUpdate(String companyId, Company updateCompany, VersionMatch ifMatch) {
+        Company foundCompany = companyRepository.findById(companyId).orElseThrow(() -> ifMatch.missing(CompanyNotFoundException::new));
+        if (!ifMatch.matches(foundCompany.getVersion())) {
+            throw new PreconditionFailedException();
+        }
+        updateCompany.setId(companyId);
+        updateCompany.setVersion(foundCompany.getVersion());
+        Company company = companyRepository.save(updateCompany);
+        changeTracker.documentSaved(Company.class, companyId, company.getVersion());
+        statsStore.companySaved(company);
+        return company;
+    }
+
+    private Company doPatch(String companyId, Update update, VersionMatch ifMatch) {
+        Query query = ifMatch.applyTo(new Query(Criteria.where("id").is(companyId)));
+        Company company = mongoTemplate.findAndModify(query, Updates.versioned(update),
+                FindAndModifyOptions.options().returnNew(true), Company.class);
+        if (company == null) {
+            throw ifMatch.missing(CompanyNotFoundException::new);
+        }
+        changeTracker.documentSaved(Company.class, companyId, company.getVersion());
+        statsStore.companySaved(company);
+        return company;
+    }
+
+    @CacheEvict(key = "#companyId")
     public void remove(String companyId) {
         companyRepository.deleteById(companyId);
+        changeTracker.documentRemoved(Company.class, companyId);
+        statsStore.companyRemoved(companyId);
+    }
+
+    @CacheEvict(allEntries = true)
+    public BatchResponse removeAll(List<String> companyIds) {
+        BatchResponse response = bulkWriter.delete(Company.class, companyIds);
+        changeTracker.collectionChanged(Company.class);
+        statsStore.companiesRemoved(response.succeededIds());
+        return response;
     }
 }
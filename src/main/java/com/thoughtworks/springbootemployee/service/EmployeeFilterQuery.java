@@ -0,0 +1,80 @@
+package com.thoughtworks.springbootemployee.service;
+
+import com.thoughtworks.springbootemployee.dto.EmployeeFilterRequest;
+import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.paging.KeysetPage;
+import com.thoughtworks.springbootemployee.projection.FieldSelection;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+public final class EmployeeFilterQuery {
+    private static final Set<String> SORT_KEYS = new HashSet<>(Arrays.asList("age", "salary"));
+
+    private final Query query;
+    private final int pageSize;
+    private final Function<Employee, Integer> keyExtractor;
+
+    private EmployeeFilterQuery(Query query, int pageSize, Function<Employee, Integer> keyExtractor) {
+        this.query = query;
+        this.pageSize = pageSize;
+        this.keyExtractor = keyExtractor;
+    }
+
+    public static EmployeeFilterQuery of(EmployeeFilterRequest filter, FieldSelection fields, int maxPageSize) {
+        int pageSize = filter.getPageSize() == null ? EmployeeService.DEFAULT_FILTER_PAGE_SIZE : filter.getPageSize();
+        Criteria criteria = new Criteria();
+        if (filter.getGender() != null) {
+            criteria = criteria.and("gender").is(filter.getGender());
+        }
+        criteria = range(criteria, "age", filter.getMinAge(), filter.getMaxAge());
+        criteria = range(criteria, "salary", filter.getMinSalary(), filter.getMaxSalary());
+        if (filter.getSort() == null) {
+            Query query = fields.applyTo(KeysetPage.query(filter.getAfter(), pageSize, maxPageSize).addCriteria(criteria));
+            return new EmployeeFilterQuery(query, pageSize, null);
+        }
+        String[] sort = filter.getSort().split(",");
+        String sortKey = sort[0].trim();
+        if (sort.length > 2 || !SORT_KEYS.contains(sortKey)) {
+            throw new IllegalArgumentException("Unsupported sort: " + filter.getSort());
+        }
+        Sort.Direction direction = sort.length == 2 ? Sort.Direction.fromString(sort[1].trim()) : Sort.Direction.ASC;
+        Query query = fields.applyTo(KeysetPage.query(criteria, sortKey, direction, filter.getAfter(), pageSize,
+                maxPageSize));
+        if (!fields.isAll()) {
+            query.fields().include(sortKey);
+        }
+        return new EmployeeFilterQuery(query, pageSize, "age".equals(sortKey) ? Employee::getAge : Employee::getSalary);
+    }
+
+    public Query getQuery() {
+        return query;
+    }
+
+    public KeysetPage<Employee> page(List<Employee> employees) {
+        if (keyExtractor == null) {
+            return KeysetPage.of(employees, pageSize, Employee::getId);
+        }
+        return KeysetPage.of(employees, pageSize, Employee::getId, keyExtractor);
+    }
+
+    private static Criteria range(Criteria criteria, String key, Integer min, Integer max) {
+        if (min == null && max == null) {
+            return criteria;
+        }
+        Criteria range = criteria.and(key);
+        if (min != null) {
+            range = range.gte(min);
+        }
+        if (max != null) {
+            range = range.lte(max);
+        }
+        return range;
+    }
+}
@@ -1,50 +1,262 @@
 package com.thoughtworks.springbootemployee.service;
 
+import com.thoughtworks.springbootemployee.concurrency.ChangeTracker;
+import com.thoughtworks.springbootemployee.concurrency.SingleFlight;
+import com.thoughtworks.springbootemployee.concurrency.VersionMatch;
+import com.thoughtworks.springbootemployee.dto.BatchResponse;
+import com.thoughtworks.springbootemployee.dto.EmployeeFilterRequest;
+import com.thoughtworks.springbootemployee.dto.EmployeeStatsResponse;
 import com.thoughtworks.springbootemployee.exception.EmployeeNotFoundException;
+import com.thoughtworks.springbootemployee.exception.PreconditionFailedException;
 import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.paging.KeysetPage;
+import com.thoughtworks.springbootemployee.projection.FieldSelection;
 import com.thoughtworks.springbootemployee.repository.EmployeeRepository;
+import com.thoughtworks.springbootemployee.search.EmployeeNameSearch;
+import com.thoughtworks.springbootemployee.stats.EmployeeStatsStore;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+import org.springframework.data.util.StreamUtils;
 import org.springframework.stereotype.Service;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
+@CacheConfig(cacheNames = "employees")
 public class EmployeeService {
+    public static final int DEFAULT_FILTER_PAGE_SIZE = 20;
+
     @Autowired
     EmployeeRepository employeeRepository;
+    @Autowired
+    MongoTemplate mongoTemplate;
+    @Autowired
+    BulkWriter bulkWriter;
+    @Autowired
+    EmployeeStatsAggregator statsAggregator;
+    @Autowired
+    EmployeeStatsStore statsStore;
+    @Autowired
+    ChangeTracker changeTracker;
+    @Autowired
+    EmployeeNameSearch nameSearch;
+    @Value("${app.paging.max-page-size:1000}")
+    int maxPageSize = KeysetPage.DEFAULT_MAX_PAGE_SIZE;
+
+    private final SingleFlight<List<Object>, Employee> employeeLookups = new SingleFlight<>();
+    private final SingleFlight<List<Object>, List<Employee>> genderLookups = new SingleFlight<>();
 
     public Employee add(Employee requestEmployee) {
-        return employeeRepository.save(requestEmployee);
+        Employee employee = employeeRepository.save(requestEmployee);
+        statsStore.employeeSaved(employee);
+        changeTracker.documentSaved(Employee.class, employee.getId(), employee.getVersion());
+        return employee;
+    }
+
+    public BatchResponse addAll(Stream<Employee> requestEmployees) {
+        BatchResponse response = bulkWriter.insert(Employee.class, requestEmployees, Employee::setId,
+                statsStore::employeesSaved);
+        changeTracker.collectionChanged(Employee.class);
+        return response;
+    }
+
+    public BatchResponse importAll(Stream<Employee> employees) {
+        BatchResponse response = bulkWriter.importAll(Employee.class, employees, Employee::setId, Employee::getId,
+                statsStore::employeesSaved);
+        changeTracker.collectionChanged(Employee.class);
+        return response;
     }
 
     public List<Employee> getAll() {
         return employeeRepository.findAll();
     }
 
+    public List<Employee> getAll(FieldSelection fields) {
+        if (fields.isAll()) {
+            return getAll();
+        }
+        return mongoTemplate.find(fields.applyTo(new Query()), Employee.class);
+    }
+
+    public Stream<Employee> streamAll() {
+        return employeeRepository.streamAll();
+    }
+
+    public Stream<Employee> streamAll(FieldSelection fields) {
+        if (fields.isAll()) {
+            return streamAll();
+        }
+        return StreamUtils.createStreamFromIterator(
+                mongoTemplate.stream(fields.applyTo(new Query().cursorBatchSize(500)), Employee.class));
+    }
+
+    @Cacheable(key = "#employeeId", sync = true)
     public Employee get(String employeeId) {
-        return employeeRepository.findById(employeeId).orElseThrow(EmployeeNotFoundException::new);
+        return find(employeeId);
+    }
+
+    @Cacheable(key = "#employeeId", sync = true, condition = "#fields.all")
+    public Employee get(String employeeId, FieldSelection fields) {
+        if (fields.isAll()) {
+            return get(employeeId);
+        }
+        return employeeLookups.execute(lookupKey(employeeId, fields), () -> {
+            Query query = fields.applyTo(new Query(Criteria.where("id").is(employeeId)));
+            query.fields().include("version");
+            Employee employee = mongoTemplate.findOne(query, Employee.class);
+            if (employee == null) {
+                throw new EmployeeNotFoundException();
+            }
+            return employee;
+        });
     }
 
+    @CacheEvict(key = "#employeeId")
     public Employee update(String employeeId, Employee updateEmployee) {
-        Employee foundEmployee = this.get(employeeId);
-        foundEmployee.setAge(updateEmployee.getAge());
-        foundEmployee.setGender(updateEmployee.getGender());
-        foundEmployee.setName(updateEmployee.getName());
-        foundEmployee.setSalary(updateEmployee.getSalary());
-        return employeeRepository.save(foundEmployee);
+        return doUpdate(employeeId, updateEmployee, VersionMatch.NONE);
+    }
+
+    @CacheEvict(key = "#employeeId")
+    public Employee update(String employeeId, Employee updateEmployee, VersionMatch ifMatch) {
+        return doUpdate(employeeId, updateEmployee, ifMatch);
+    }
+
+    @CacheEvict(key = "#employeeId")
+    public Employee patch(String employeeId, Update update) {
+        return doPatch(employeeId, update, VersionMatch.NONE);
+    }
+
+    @CacheEvict(key = "#employeeId")
+    public Employee patch(String employeeId, Update update, VersionMatch ifMatch) {
+        return doPatch(employeeId, update, ifMatch);
+    }
+
+    @CacheEvict(allEntries = true)
+    public BatchResponse updateAll(List<Pair<String, Update>> employeeUpdates) {
+        BatchResponse response = bulkWriter.update(Employee.class, employeeUpdates);
+        changeTracker.collectionChanged(Employee.class);
+        statsStore.employeesSaved(findFigures(response.succeededIds()));
+        return response;
     }
 
+    @CacheEvict(key = "#employeeId")
     public void remove(String employeeId) {
-        employeeRepository.deleteById(employeeId);
+        Employee employee = mongoTemplate.findAndRemove(new Query(Criteria.where("id").is(employeeId)), Employee.class);
+        changeTracker.documentRemoved(Employee.class, employeeId);
+        if (employee != null) {
+            statsStore.employeeRemoved(employeeId);
+        }
+    }
+
+    @CacheEvict(allEntries = true)
+    public BatchResponse removeAll(List<String> employeeIds) {
+        BatchResponse response = bulkWriter.delete(Employee.class, employeeIds);
+        changeTracker.collectionChanged(Employee.class);
+        statsStore.employeesRemoved(response.succeededIds());
+        return response;
     }
 
     public List<Employee> getAllByGender(String gender) {
-        return employeeRepository.findAllByGender(gender);
+        return genderLookups.execute(lookupKey(gender, FieldSelection.ALL),
+                () -> employeeRepository.findAllByGender(gender));
+    }
+
+    public List<Employee> getAllByGender(String gender, FieldSelection fields) {
+        if (fields.isAll()) {
+            return getAllByGender(gender);
+        }
+        return genderLookups.execute(lookupKey(gender, fields),
+                () -> mongoTemplate.find(fields.applyTo(new Query(Criteria.where("gender").is(gender))), Employee.class));
+    }
+
+    public List<Employee> search(String text, int limit, FieldSelection fields) {
+        return nameSearch.search(text, limit, fields);
     }
 
     public Page<Employee> getAllByPage(int page, int pageSize) {
         return employeeRepository.findAll(PageRequest.of(page - 1, pageSize));
     }
+
+    public List<Employee> getAllByPage(int page, int pageSize, FieldSelection fields) {
+        if (fields.isAll()) {
+            return getAllByPage(page, pageSize).getContent();
+        }
+        return mongoTemplate.find(fields.applyTo(new Query().with(PageRequest.of(page - 1, pageSize))), Employee.class);
+    }
+
+    public KeysetPage<Employee> getAllAfter(String after, int pageSize) {
+        return getAllAfter(after, pageSize, FieldSelection.ALL);
+    }
+
+    public KeysetPage<Employee> getAllAfter(String after, int pageSize, FieldSelection fields) {
+        Query query = fields.applyTo(KeysetPage.query(after, pageSize, maxPageSize));
+        return KeysetPage.of(mongoTemplate.find(query, Employee.class), pageSize, Employee::getId);
+    }
+
+    public KeysetPage<Employee> filter(EmployeeFilterRequest filter, FieldSelection fields) {
+        EmployeeFilterQuery filterQuery = EmployeeFilterQuery.of(filter, fields, maxPageSize);
+        return filterQuery.page(mongoTemplate.find(filterQuery.getQuery(), Employee.class));
+    }
+
+    public List<EmployeeStatsResponse> getStats(String groupBy, int buckets) {
+        return statsAggregator.aggregate(new Criteria(), groupBy, buckets);
+    }
+
+    private List<Object> lookupKey(String argument, FieldSelection fields) {
+        return Arrays.asList(argument, fields.getFields(), changeTracker.stamp(Employee.class));
+    }
+
+    private List<Employee> findFigures(List<String> employeeIds) {
+        if (employeeIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Query query = new Query(Criteria.where("id").in(employeeIds));
+        query.fields().include("gender").include("salary").include("age");
+        return mongoTemplate.find(query, Employee.class);
+    }
+
+    private Employee find(String employeeId) {
+        return employeeRepository.findById(employeeId).orElseThrow(EmployeeNotFoundException::new);
+    }
+
+    private Employee doUpdate(String employeeId, Employee updateEmployee, VersionMatch ifMatch) {
+        Employee foundEmployee = employeeRepository.findById(employeeId).orElseThrow(() -> ifMatch.missing(EmployeeNotFoundException::new));
+        if (!ifMatch.matches(foundEmployee.getVersion())) {
+            throw new PreconditionFailedException();
+        }
+        foundEmployee.setAge(updateEmployee.getAge());
+        foundEmployee.setGender(updateEmployee.getGender());
+        foundEmployee.setName(updateEmployee.getName());
+        foundEmployee.setSalary(updateEmployee.getSalary());
+        Employee employee = employeeRepository.save(foundEmployee);
+        changeTracker.documentSaved(Employee.class, employeeId, employee.getVersion());
+        statsStore.employeeSaved(employee);
+        return employee;
+    }
+
+    private Employee doPatch(String employeeId, Update update, VersionMatch ifMatch) {
+        Query query = ifMatch.applyTo(new Query(Criteria.where("id").is(employeeId)));
+        Employee employee = mongoTemplate.findAndModify(query, Updates.versioned(update),
+                FindAndModifyOptions.options().returnNew(true), Employee.class);
+        if (employee == null) {
+            throw ifMatch.missing(EmployeeNotFoundException::new);
+        }
+        changeTracker.documentSaved(Employee.class, employeeId, employee.getVersion());
+        statsStore.employeeSaved(employee);
+        return employee;
+    }
 }
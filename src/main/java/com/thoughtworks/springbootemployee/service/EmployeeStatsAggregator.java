@@ -0,0 +1,161 @@
+package com.thoughtworks.springbootemployee.service;
+
+import com.thoughtworks.springbootemployee.dto.EmployeeStatsResponse;
+import com.thoughtworks.springbootemployee.dto.FieldStatsResponse;
+import com.thoughtworks.springbootemployee.dto.StatsBucketResponse;
+import com.thoughtworks.springbootemployee.model.Employee;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.GroupOperation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Component
+public class EmployeeStatsAggregator {
+    public static final int DEFAULT_BUCKETS = 4;
+    private static final int MAX_BUCKETS = 100;
+    private static final Set<String> GROUP_BY_FIELDS = Collections.singleton("gender");
+    private static final String SALARY = "salary";
+    private static final String AGE = "age";
+    private static final String SUMMARY = "summary";
+    private static final String BUCKETS = "buckets";
+    private static final String VALUES = "values";
+
+    private final MongoTemplate mongoTemplate;
+
+    public EmployeeStatsAggregator(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public List<EmployeeStatsResponse> aggregate(Criteria criteria, String groupBy, int buckets) {
+        return toStats(mongoTemplate.aggregate(aggregation(criteria, groupBy, buckets), Document.class)
+                .getUniqueMappedResult());
+    }
+
+    static TypedAggregation<Employee> aggregation(Criteria criteria, String groupBy, int buckets) {
+        if (groupBy != null && !GROUP_BY_FIELDS.contains(groupBy)) {
+            throw new IllegalArgumentException("Unknown groupBy: " + groupBy);
+        }
+        if (buckets < 1 || buckets > MAX_BUCKETS) {
+            throw new IllegalArgumentException("Buckets must be between 1 and " + MAX_BUCKETS);
+        }
+        return Aggregation.newAggregation(Employee.class,
+                Aggregation.match(criteria),
+                Aggregation.facet(summary(groupBy)).as(SUMMARY)
+                        .and(buckets(groupBy, SALARY, buckets)).as(SALARY)
+                        .and(buckets(groupBy, AGE, buckets)).as(AGE));
+    }
+
+    static List<EmployeeStatsResponse> toStats(Document result) {
+        if (result == null) {
+            return new ArrayList<>();
+        }
+        Map<Object, List<Document>> salaryBuckets = bucketsByGroup(result, SALARY);
+        Map<Object, List<Document>> ageBuckets = bucketsByGroup(result, AGE);
+        List<Document> summaries = result.getList(SUMMARY, Document.class, Collections.emptyList());
+        List<EmployeeStatsResponse> stats = new ArrayList<>(summaries.size());
+        for (Document summary : summaries) {
+            Object group = summary.get("_id");
+            stats.add(new EmployeeStatsResponse(
+                    group == null ? null : group.toString(),
+                    toLong(summary.get("count")),
+                    toFieldStats(summary, SALARY, salaryBuckets.get(group)),
+                    toFieldStats(summary, AGE, ageBuckets.get(group))));
+        }
+        stats.sort(Comparator.comparing(EmployeeStatsResponse::getGroup, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return stats;
+    }
+
+    private static GroupOperation summary(String groupBy) {
+        GroupOperation group = groupBy == null ? Aggregation.group() : Aggregation.group(groupBy);
+        return group.count().as("count")
+                .sum(SALARY).as(SALARY + "Sum")
+                .avg(SALARY).as(SALARY + "Average")
+                .min(SALARY).as(SALARY + "Min")
+                .max(SALARY).as(SALARY + "Max")
+                .sum(AGE).as(AGE + "Sum")
+                .avg(AGE).as(AGE + "Average")
+                .min(AGE).as(AGE + "Min")
+                .max(AGE).as(AGE + "Max");
+    }
+
+    private static AggregationOperation[] buckets(String groupBy, String field, int buckets) {
+        AggregationOperation present = Aggregation.match(Criteria.where(field).ne(null));
+        if (groupBy == null) {
+            return new AggregationOperation[]{present, Aggregation.bucketAuto(field, buckets),
+                    context -> new Document("$group", new Document("_id", null)
+                            .append(BUCKETS, new Document("$push", new Document("min", "$_id.min")
+                                    .append("max", "$_id.max")
+                                    .append("count", "$count"))))};
+        }
+        return new AggregationOperation[]{present, Aggregation.sort(Sort.by(groupBy, field)),
+                Aggregation.group(groupBy).push(field).as(VALUES),
+                context -> new Document("$project", new Document(BUCKETS, quantiles(buckets)))};
+    }
+
+    private static Document quantiles(int buckets) {
+        Document from = new Document("$floor", new Document("$divide",
+                Arrays.asList(new Document("$multiply", Arrays.asList("$$i", "$$n")), buckets)));
+        Document to = new Document("$floor", new Document("$divide",
+                Arrays.asList(new Document("$multiply", Arrays.asList(new Document("$add", Arrays.asList("$$i", 1)), "$$n")), buckets)));
+        Document bucket = new Document("min", new Document("$arrayElemAt", Arrays.asList("$" + VALUES, "$$from")))
+                .append("max", new Document("$arrayElemAt", Arrays.asList("$" + VALUES,
+                        new Document("$min", Arrays.asList("$$to", new Document("$subtract", Arrays.asList("$$n", 1)))))))
+                .append("count", new Document("$subtract", Arrays.asList("$$to", "$$from")));
+        Document ranges = new Document("$map", new Document("input", new Document("$range", Arrays.asList(0, buckets)))
+                .append("as", "i")
+                .append("in", new Document("$let", new Document("vars", new Document("from", from).append("to", to))
+                        .append("in", bucket))));
+        Document nonEmpty = new Document("$filter", new Document("input", ranges)
+                .append("as", "bucket")
+                .append("cond", new Document("$gt", Arrays.asList("$$bucket.count", 0))));
+        return new Document("$let", new Document("vars", new Document("n", new Document("$size", "$" + VALUES)))
+                .append("in", nonEmpty));
+    }
+
+    private static Map<Object, List<Document>> bucketsByGroup(Document result, String field) {
+        Map<Object, List<Document>> bucketsByGroup = new HashMap<>();
+        for (Document group : result.getList(field, Document.class, Collections.emptyList())) {
+            bucketsByGroup.put(group.get("_id"), group.getList(BUCKETS, Document.class, Collections.emptyList()));
+        }
+        return bucketsByGroup;
+    }
+
+    private static FieldStatsResponse toFieldStats(Document summary, String field, List<Document> fieldBuckets) {
+        List<StatsBucketResponse> buckets = new ArrayList<>();
+        if (fieldBuckets != null) {
+            for (Document bucket : fieldBuckets) {
+                buckets.add(new StatsBucketResponse(toInteger(bucket.get("min")), toInteger(bucket.get("max")),
+                        toLong(bucket.get("count"))));
+            }
+        }
+        Number average = (Number) summary.get(field + "Average");
+        return new FieldStatsResponse(
+                toLong(summary.get(field + "Sum")),
+                average == null ? null : average.doubleValue(),
+                toInteger(summary.get(field + "Min")),
+                toInteger(summary.get(field + "Max")),
+                buckets);
+    }
+
+    private static Long toLong(Object value) {
+        return value == null ? null : ((Number) value).longValue();
+    }
+
+    private static Integer toInteger(Object value) {
+        return value == null ? null : ((Number) value).intValue();
+    }
+}
@@ -0,0 +1,238 @@
+package com.thoughtworks.springbootemployee.service;
+
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteManyModel;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import com.thoughtworks.springbootemployee.dto.BatchResponse;
+import com.thoughtworks.springbootemployee.exception.MalformedRecordException;
+import com.thoughtworks.springbootemployee.streaming.DecodedRecord;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.UpdateMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * BulkWriter on the reactive driver: the same chunking, versioning and per-record reporting, with
+ * every chunk sent as one unordered bulk write without holding a thread while it runs.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveBulkWriter {
+    private static final BulkWriteOptions UNORDERED = new BulkWriteOptions().ordered(false);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final UpdateMapper updateMapper;
+    private final int chunkSize;
+
+    public ReactiveBulkWriter(ReactiveMongoTemplate mongoTemplate, @Value("${app.batch.chunk-size:1000}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Batch chunk size must be positive");
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.updateMapper = new UpdateMapper(mongoTemplate.getConverter());
+        this.chunkSize = chunkSize;
+    }
+
+    public <T> Mono<BatchResponse> insert(Class<T> type, Flux<DecodedRecord<T>> records, BiConsumer<T, String> idAssigner,
+                                          Consumer<List<T>> inserted) {
+        return insert(type, records, BulkWrites.assignIds(idAssigner), inserted, new BatchResponse());
+    }
+
+    public <T> Mono<BatchResponse> importAll(Class<T> type, Flux<DecodedRecord<T>> records,
+                                             BiConsumer<T, String> idAssigner, Function<T, String> idGetter,
+                                             Consumer<List<T>> inserted) {
+        return insert(type, records, BulkWrites.keepValidIds(idAssigner, idGetter), inserted,
+                BatchResponse.failuresOnly());
+    }
+
+    private <T> Mono<BatchResponse> insert(Class<T> type, Flux<DecodedRecord<T>> records, Function<T, String> identify,
+                                           Consumer<List<T>> inserted, BatchResponse response) {
+        return records
+                .onErrorResume(MalformedRecordException.class, exception -> Mono.just(DecodedRecord.<T>malformed()))
+                .index()
+                .buffer(chunkSize)
+                .concatMap(chunk -> insertChunk(type, chunk, identify, inserted, response))
+                .then(Mono.just(response));
+    }
+
+    public Mono<BatchResponse> update(Class<?> type, List<Pair<String, Update>> updates) {
+        BatchResponse response = new BatchResponse();
+        return Flux.range(0, (updates.size() + chunkSize - 1) / chunkSize)
+                .concatMap(chunk -> {
+                    int offset = chunk * chunkSize;
+                    return updateChunk(type, updates.subList(offset, Math.min(offset + chunkSize, updates.size())),
+                            offset, response);
+                })
+                .then(Mono.just(response));
+    }
+
+    public Mono<BatchResponse> delete(Class<?> type, List<String> ids) {
+        BatchResponse response = new BatchResponse();
+        return Flux.range(0, (ids.size() + chunkSize - 1) / chunkSize)
+                .concatMap(chunk -> {
+                    int offset = chunk * chunkSize;
+                    return deleteChunk(type, ids.subList(offset, Math.min(offset + chunkSize, ids.size())), offset,
+                            response);
+                })
+                .then(Mono.just(response));
+    }
+
+    private MongoPersistentEntity<?> persistentEntity(Class<?> type) {
+        return mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(type);
+    }
+
+    private <T> Mono<Void> insertChunk(Class<T> type, List<Tuple2<Long, DecodedRecord<T>>> records,
+                                       Function<T, String> identify, Consumer<List<T>> inserted,
+                                       BatchResponse response) {
+        List<T> chunk = new ArrayList<>(records.size());
+        List<String> ids = new ArrayList<>(records.size());
+        List<Integer> indexes = new ArrayList<>(records.size());
+        List<Integer> malformedIndexes = new ArrayList<>();
+        List<WriteModel<Document>> models = new ArrayList<>(records.size());
+        MongoPersistentEntity<?> entity = persistentEntity(type);
+        for (Tuple2<Long, DecodedRecord<T>> record : records) {
+            int index = record.getT1().intValue();
+            if (record.getT2().isMalformed()) {
+                malformedIndexes.add(index);
+                continue;
+            }
+            T document = record.getT2().getValue();
+            String id = identify.apply(document);
+            BulkWrites.initializeVersion(entity, document);
+            Document mapped = new Document();
+            mongoTemplate.getConverter().write(document, mapped);
+            chunk.add(document);
+            ids.add(id);
+            indexes.add(index);
+            models.add(new InsertOneModel<>(mapped));
+        }
+        Mono<Map<Integer, String>> errors = models.isEmpty()
+                ? Mono.just(Collections.<Integer, String>emptyMap())
+                : execute(type, models).map(outcome -> outcome.errors);
+        return errors.doOnNext(chunkErrors -> {
+            List<T> insertedDocuments = BulkWrites.reportInserted(chunk, ids, indexes, malformedIndexes, chunkErrors,
+                    response);
+            if (!insertedDocuments.isEmpty()) {
+                inserted.accept(insertedDocuments);
+            }
+        }).then();
+    }
+
+    private Mono<Void> updateChunk(Class<?> type, List<Pair<String, Update>> chunk, int offset, BatchResponse response) {
+        String[] errors = new String[chunk.size()];
+        List<Integer> sentIndexes = new ArrayList<>(chunk.size());
+        List<WriteModel<Document>> models = new ArrayList<>(chunk.size());
+        MongoPersistentEntity<?> entity = persistentEntity(type);
+        for (int i = 0; i < chunk.size(); i++) {
+            String id = chunk.get(i).getFirst();
+            errors[i] = BulkWrites.validate(id, chunk.get(i).getSecond());
+            if (errors[i] == null) {
+                Update update = BulkWrites.versioned(entity, chunk.get(i).getSecond());
+                models.add(new UpdateOneModel<>(byId(id), updateMapper.getMappedObject(update.getUpdateObject(), entity)));
+                sentIndexes.add(i);
+            }
+        }
+        Mono<Void> sent = models.isEmpty() ? Mono.<Void>empty() : execute(type, models).flatMap(outcome -> {
+            Set<ObjectId> sentIds = new HashSet<>();
+            for (int model = 0; model < sentIndexes.size(); model++) {
+                int index = sentIndexes.get(model);
+                errors[index] = outcome.errors.get(model);
+                sentIds.add(new ObjectId(chunk.get(index).getFirst()));
+            }
+            if (outcome.result.getMatchedCount() >= sentIndexes.size() - outcome.errors.size()) {
+                return Mono.<Void>empty();
+            }
+            return findExistingIds(type, sentIds).doOnNext(existingIds -> {
+                for (int index : sentIndexes) {
+                    if (errors[index] == null && !existingIds.contains(new ObjectId(chunk.get(index).getFirst()))) {
+                        errors[index] = BulkWrites.NOT_FOUND;
+                    }
+                }
+            }).then();
+        });
+        return sent.then(Mono.fromRunnable(() -> {
+            for (int i = 0; i < chunk.size(); i++) {
+                BulkWrites.report(response, offset + i, chunk.get(i).getFirst(), errors[i]);
+            }
+        }));
+    }
+
+    private Mono<Void> deleteChunk(Class<?> type, List<String> chunk, int offset, BatchResponse response) {
+        String[] errors = new String[chunk.size()];
+        Set<ObjectId> requestedIds = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (BulkWrites.isValidId(chunk.get(i))) {
+                requestedIds.add(new ObjectId(chunk.get(i)));
+            } else {
+                errors[i] = BulkWrites.INVALID_ID;
+            }
+        }
+        Mono<Void> deleted = requestedIds.isEmpty() ? Mono.<Void>empty() : findExistingIds(type, requestedIds)
+                .flatMap(existingIds -> deleteExisting(type, existingIds).doOnNext(deleteError -> {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        if (errors[i] == null) {
+                            errors[i] = existingIds.contains(new ObjectId(chunk.get(i)))
+                                    ? deleteError.orElse(null)
+                                    : BulkWrites.NOT_FOUND;
+                        }
+                    }
+                }))
+                .then();
+        return deleted.then(Mono.fromRunnable(() -> {
+            for (int i = 0; i < chunk.size(); i++) {
+                BulkWrites.report(response, offset + i, chunk.get(i), errors[i]);
+            }
+        }));
+    }
+
+    private Mono<Optional<String>> deleteExisting(Class<?> type, Set<ObjectId> existingIds) {
+        if (existingIds.isEmpty()) {
+            return Mono.just(Optional.empty());
+        }
+        Document filter = new Document("_id", new Document("$in", new ArrayList<>(existingIds)));
+        return execute(type, Collections.<WriteModel<Document>>singletonList(new DeleteManyModel<>(filter)))
+                .map(outcome -> Optional.ofNullable(outcome.errors.get(0)));
+    }
+
+    private Mono<Set<ObjectId>> findExistingIds(Class<?> type, Set<ObjectId> ids) {
+        return mongoTemplate.findDistinct(Query.query(Criteria.where("id").in(ids)), "id", type, ObjectId.class)
+                .collect(Collectors.toSet());
+    }
+
+    private static Document byId(String id) {
+        return new Document("_id", new ObjectId(id));
+    }
+
+    private Mono<BulkOutcome> execute(Class<?> type, List<WriteModel<Document>> models) {
+        return mongoTemplate.execute(type, collection -> collection.bulkWrite(models, UNORDERED))
+                .next()
+                .map(BulkOutcome::succeeded)
+                .onErrorResume(exception -> BulkOutcome.findBulkWriteException(exception) != null,
+                        exception -> Mono.just(BulkOutcome.failed(BulkOutcome.findBulkWriteException(exception))));
+    }
+}
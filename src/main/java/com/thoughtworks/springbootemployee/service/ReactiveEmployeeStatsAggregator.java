@@ -0,0 +1,29 @@
+package com.thoughtworks.springbootemployee.service;
+
+import com.thoughtworks.springbootemployee.dto.EmployeeStatsResponse;
+import org.bson.Document;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Component
+@Profile("reactive")
+public class ReactiveEmployeeStatsAggregator {
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public ReactiveEmployeeStatsAggregator(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public Mono<List<EmployeeStatsResponse>> aggregate(Criteria criteria, String groupBy, int buckets) {
+        return Mono.defer(() -> mongoTemplate.aggregate(EmployeeStatsAggregator.aggregation(criteria, groupBy, buckets),
+                Document.class)
+                .next()
+                .map(EmployeeStatsAggregator::toStats)
+                .switchIfEmpty(Mono.fromCallable(() -> EmployeeStatsAggregator.toStats(null))));
+    }
+}
@@ -0,0 +1,25 @@
+package com.thoughtworks.springbootemployee.service;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Update;
+
+public final class Updates {
+    private static final String VERSION = "version";
+
+    private Updates() {
+    }
+
+    public static Update versioned(Update update) {
+        if (update.getUpdateObject().isEmpty()) {
+            throw new IllegalArgumentException("No fields to update");
+        }
+        return withIncrement(update, VERSION);
+    }
+
+    static Update withIncrement(Update update, String key) {
+        Document copy = new Document();
+        update.getUpdateObject().forEach((operator, value) ->
+                copy.put(operator, value instanceof Document ? new Document((Document) value) : value));
+        return Update.fromDocument(copy).inc(key, 1L);
+    }
+}
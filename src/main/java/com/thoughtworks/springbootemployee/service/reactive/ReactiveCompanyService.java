@@ -0,0 +1,284 @@
+package com.thoughtworks.springbootemployee.service.reactive;
+
+import com.thoughtworks.springbootemployee.concurrency.ChangeTracker;
+import com.thoughtworks.springbootemployee.concurrency.ReactiveSingleFlight;
+import com.thoughtworks.springbootemployee.concurrency.VersionMatch;
+import com.thoughtworks.springbootemployee.dto.BatchResponse;
+import com.thoughtworks.springbootemployee.dto.EmployeeStatsResponse;
+import com.thoughtworks.springbootemployee.exception.CompanyNotFoundException;
+import com.thoughtworks.springbootemployee.exception.PreconditionFailedException;
+import com.thoughtworks.springbootemployee.model.Company;
+import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.paging.KeysetPage;
+import com.thoughtworks.springbootemployee.projection.FieldSelection;
+import com.thoughtworks.springbootemployee.repository.reactive.ReactiveCompanyRepository;
+import com.thoughtworks.springbootemployee.repository.reactive.ReactiveEmployeeRepository;
+import com.thoughtworks.springbootemployee.service.ReactiveBulkWriter;
+import com.thoughtworks.springbootemployee.service.ReactiveEmployeeStatsAggregator;
+import com.thoughtworks.springbootemployee.service.Updates;
+import com.thoughtworks.springbootemployee.stats.EmployeeStatsStore;
+import com.thoughtworks.springbootemployee.streaming.DecodedRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * The reactive twin of CompanyService, keeping the same ChangeTracker, stats store and "companies"
+ * cache up to date after each ReactiveMongoTemplate write.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveCompanyService {
+    private static final String CACHE_NAME = "companies";
+
+    @Autowired
+    ReactiveCompanyRepository companyRepository;
+    @Autowired
+    ReactiveEmployeeRepository employeeRepository;
+    @Autowired
+    ReactiveMongoTemplate mongoTemplate;
+    @Autowired
+    ReactiveBulkWriter bulkWriter;
+    @Autowired
+    ReactiveEmployeeStatsAggregator statsAggregator;
+    @Autowired
+    EmployeeStatsStore statsStore;
+    @Autowired
+    ChangeTracker changeTracker;
+    @Autowired
+    CacheManager cacheManager;
+    @Value("${app.paging.max-page-size:1000}")
+    int maxPageSize = KeysetPage.DEFAULT_MAX_PAGE_SIZE;
+
+    private final ReactiveSingleFlight<List<Object>, Company> companyLookups = new ReactiveSingleFlight<>();
+    private final ReactiveSingleFlight<List<Object>, List<Employee>> employeeLookups = new ReactiveSingleFlight<>();
+
+    public Mono<Company> add(Company requestCompany) {
+        return companyRepository.save(requestCompany).doOnNext(this::saved);
+    }
+
+    public Mono<BatchResponse> importAll(Flux<DecodedRecord<Company>> companies) {
+        return bulkWriter.importAll(Company.class, companies, Company::setId, Company::getId,
+                statsStore::companiesSaved)
+                .doOnNext(response -> changeTracker.collectionChanged(Company.class));
+    }
+
+    public Flux<Company> getAll() {
+        return companyRepository.findAll();
+    }
+
+    public Flux<Company> getAll(FieldSelection fields) {
+        if (fields.isAll()) {
+            return getAll();
+        }
+        return mongoTemplate.find(fields.applyTo(new Query()), Company.class);
+    }
+
+    public Flux<Company> streamAll() {
+        return streamAll(FieldSelection.ALL);
+    }
+
+    public Flux<Company> streamAll(FieldSelection fields) {
+        return mongoTemplate.find(fields.applyTo(new Query().cursorBatchSize(500)), Company.class);
+    }
+
+    public Mono<Company> get(String companyId) {
+        return Mono.defer(() -> {
+            Company cached = cache().get(companyId, Company.class);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            long stamp = changeTracker.stamp(Company.class);
+            return companyLookups.execute(lookupKey(companyId, FieldSelection.ALL, stamp),
+                    () -> companyRepository.findById(companyId)
+                            .switchIfEmpty(Mono.defer(() -> Mono.error(new CompanyNotFoundException())))
+                            .doOnNext(company -> {
+                                // a write since the lookup started has evicted the entry; don't restore the old copy
+                                if (changeTracker.stamp(Company.class) == stamp) {
+                                    cache().put(companyId, company);
+                                }
+                            }));
+        });
+    }
+
+    public Mono<Company> get(String companyId, FieldSelection fields) {
+        if (fields.isAll()) {
+            return get(companyId);
+        }
+        return Mono.defer(() -> companyLookups.execute(
+                lookupKey(companyId, fields, changeTracker.stamp(Company.class)), () -> {
+                    Query query = fields.applyTo(new Query(Criteria.where("id").is(companyId)));
+                    query.fields().include("version");
+                    return mongoTemplate.findOne(query, Company.class)
+                            .switchIfEmpty(Mono.defer(() -> Mono.error(new CompanyNotFoundException())));
+                }));
+    }
+
+    public Mono<List<String>> getEmployeeList(String companyId) {
+        return get(companyId).map(company -> company.getEmployees() == null
+                ? new ArrayList<String>()
+                : company.getEmployees());
+    }
+
+    public Flux<Employee> getEmployees(String companyId) {
+        return getEmployees(companyId, FieldSelection.ALL);
+    }
+
+    public Flux<Employee> getEmployees(String companyId, FieldSelection fields) {
+        return Mono.defer(() -> {
+            List<Object> key = Arrays.asList(companyId, fields.getFields(),
+                    changeTracker.stamp(Company.class), changeTracker.stamp(Employee.class));
+            return employeeLookups.execute(key, () -> getEmployeeList(companyId)
+                    .flatMap(employeeIds -> findEmployees(employeeIds, fields)
+                            .collectMap(Employee::getId)
+                            .map(employeesById -> inRosterOrder(employeeIds, employeesById))));
+        }).flatMapIterable(Function.identity());
+    }
+
+    public Mono<List<EmployeeStatsResponse>> getEmployeeStats(String companyId, String groupBy, int buckets) {
+        return getEmployeeList(companyId).flatMap(employeeIds -> employeeIds.isEmpty()
+                ? Mono.just(new ArrayList<>())
+                : statsAggregator.aggregate(Criteria.where("id").in(employeeIds), groupBy, buckets));
+    }
+
+    public Flux<Company> getAllByPage(int page, int pageSize) {
+        return getAllByPage(page, pageSize, FieldSelection.ALL);
+    }
+
+    public Flux<Company> getAllByPage(int page, int pageSize, FieldSelection fields) {
+        return mongoTemplate.find(fields.applyTo(new Query().with(PageRequest.of(page - 1, pageSize))), Company.class);
+    }
+
+    public Mono<KeysetPage<Company>> getAllAfter(String after, int pageSize) {
+        return getAllAfter(after, pageSize, FieldSelection.ALL);
+    }
+
+    public Mono<KeysetPage<Company>> getAllAfter(String after, int pageSize, FieldSelection fields) {
+        return Mono.defer(() -> mongoTemplate.find(fields.applyTo(KeysetPage.query(after, pageSize, maxPageSize)),
+                Company.class)
+                .collectList()
+                .map(companies -> KeysetPage.of(companies, pageSize, Company::getId)));
+    }
+
+    public Mono<Company> update(String companyId, Company updateCompany, VersionMatch ifMatch) {
+        return companyRepository.findById(companyId)
+                .switchIfEmpty(Mono.defer(() -> Mono.error(ifMatch.missing(CompanyNotFoundException::new))))
+                .flatMap(foundCompany -> {
+                    if (!ifMatch.matches(foundCompany.getVersion())) {
+                        return Mono.error(new PreconditionFailedException());
+                    }
+                    updateCompany.setId(companyId);
+                    updateCompany.setVersion(foundCompany.getVersion());
+                    return companyRepository.save(updateCompany);
+                })
+                .doOnNext(company -> {
+                    saved(company);
+                    cache().evict(companyId);
+                });
+    }
+
+    public Mono<Company> patch(String companyId, Update update, VersionMatch ifMatch) {
+        return Mono.defer(() -> mongoTemplate.findAndModify(
+                ifMatch.applyTo(new Query(Criteria.where("id").is(companyId))), Updates.versioned(update),
+                FindAndModifyOptions.options().returnNew(true), Company.class))
+                .switchIfEmpty(Mono.defer(() -> Mono.error(ifMatch.missing(CompanyNotFoundException::new))))
+                .doOnNext(company -> {
+                    saved(company);
+                    cache().evict(companyId);
+                });
+    }
+
+    public Mono<Company> addEmployee(String companyId, String employeeId) {
+        return patch(companyId, new Update().addToSet("employees", employeeId), VersionMatch.NONE);
+    }
+
+    public Mono<Company> removeEmployee(String companyId, String employeeId) {
+        return patch(companyId, new Update().pull("employees", employeeId), VersionMatch.NONE);
+    }
+
+    public Mono<BatchResponse> updateAll(List<Pair<String, Update>> companyUpdates) {
+        return bulkWriter.update(Company.class, companyUpdates)
+                .flatMap(response -> {
+                    changeTracker.collectionChanged(Company.class);
+                    return findMembers(response.succeededIds())
+                            .doOnNext(statsStore::companiesSaved)
+                            .thenReturn(response);
+                })
+                .doOnNext(response -> cache().clear());
+    }
+
+    public Mono<Void> remove(String companyId) {
+        return companyRepository.deleteById(companyId)
+                .then(Mono.fromRunnable(() -> {
+                    changeTracker.documentRemoved(Company.class, companyId);
+                    statsStore.companyRemoved(companyId);
+                    cache().evict(companyId);
+                }));
+    }
+
+    public Mono<BatchResponse> removeAll(List<String> companyIds) {
+        return bulkWriter.delete(Company.class, companyIds)
+                .doOnNext(response -> {
+                    changeTracker.collectionChanged(Company.class);
+                    statsStore.companiesRemoved(response.succeededIds());
+                    cache().clear();
+                });
+    }
+
+    private void saved(Company company) {
+        changeTracker.documentSaved(Company.class, company.getId(), company.getVersion());
+        statsStore.companySaved(company);
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(CACHE_NAME);
+    }
+
+    private static List<Object> lookupKey(String companyId, FieldSelection fields, long stamp) {
+        return Arrays.asList(companyId, fields.getFields(), stamp);
+    }
+
+    private Mono<List<Company>> findMembers(List<String> companyIds) {
+        if (companyIds.isEmpty()) {
+            return Mono.just(new ArrayList<>());
+        }
+        Query query = new Query(Criteria.where("id").in(companyIds));
+        query.fields().include("employees");
+        return mongoTemplate.find(query, Company.class).collectList();
+    }
+
+    private Flux<Employee> findEmployees(List<String> employeeIds, FieldSelection fields) {
+        if (fields.isAll()) {
+            return employeeRepository.findAllById(employeeIds);
+        }
+        return mongoTemplate.find(fields.applyTo(new Query(Criteria.where("id").in(employeeIds))), Employee.class);
+    }
+
+    private static List<Employee> inRosterOrder(List<String> employeeIds, Map<String, Employee> employeesById) {
+        List<Employee> employees = new ArrayList<>(employeeIds.size());
+        employeeIds.stream()
+                .map(employeesById::get)
+                .filter(Objects::nonNull)
+                .forEach(employees::add);
+        return employees;
+    }
+}
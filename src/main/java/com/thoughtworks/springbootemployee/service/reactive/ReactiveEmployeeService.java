@@ -0,0 +1,278 @@
+package com.thoughtworks.springbootemployee.service.reactive;
+
+import com.thoughtworks.springbootemployee.concurrency.ChangeTracker;
+import com.thoughtworks.springbootemployee.concurrency.ReactiveSingleFlight;
+import com.thoughtworks.springbootemployee.concurrency.VersionMatch;
+import com.thoughtworks.springbootemployee.dto.BatchResponse;
+import com.thoughtworks.springbootemployee.dto.EmployeeFilterRequest;
+import com.thoughtworks.springbootemployee.dto.EmployeeStatsResponse;
+import com.thoughtworks.springbootemployee.exception.EmployeeNotFoundException;
+import com.thoughtworks.springbootemployee.exception.PreconditionFailedException;
+import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.paging.KeysetPage;
+import com.thoughtworks.springbootemployee.projection.FieldSelection;
+import com.thoughtworks.springbootemployee.repository.reactive.ReactiveEmployeeRepository;
+import com.thoughtworks.springbootemployee.search.ReactiveEmployeeNameSearch;
+import com.thoughtworks.springbootemployee.service.EmployeeFilterQuery;
+import com.thoughtworks.springbootemployee.service.ReactiveBulkWriter;
+import com.thoughtworks.springbootemployee.service.ReactiveEmployeeStatsAggregator;
+import com.thoughtworks.springbootemployee.service.Updates;
+import com.thoughtworks.springbootemployee.stats.EmployeeStatsStore;
+import com.thoughtworks.springbootemployee.streaming.DecodedRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The reactive twin of EmployeeService. Writes go through ReactiveMongoTemplate and then update the
+ * same ChangeTracker, stats store and "employees" cache the blocking service keeps, so either stack
+ * sees the other's changes.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveEmployeeService {
+    private static final String CACHE_NAME = "employees";
+
+    @Autowired
+    ReactiveEmployeeRepository employeeRepository;
+    @Autowired
+    ReactiveMongoTemplate mongoTemplate;
+    @Autowired
+    ReactiveBulkWriter bulkWriter;
+    @Autowired
+    ReactiveEmployeeStatsAggregator statsAggregator;
+    @Autowired
+    ReactiveEmployeeNameSearch nameSearch;
+    @Autowired
+    EmployeeStatsStore statsStore;
+    @Autowired
+    ChangeTracker changeTracker;
+    @Autowired
+    CacheManager cacheManager;
+    @Value("${app.paging.max-page-size:1000}")
+    int maxPageSize = KeysetPage.DEFAULT_MAX_PAGE_SIZE;
+
+    private final ReactiveSingleFlight<List<Object>, Employee> employeeLookups = new ReactiveSingleFlight<>();
+    private final ReactiveSingleFlight<List<Object>, List<Employee>> genderLookups = new ReactiveSingleFlight<>();
+
+    public Mono<Employee> add(Employee requestEmployee) {
+        return employeeRepository.save(requestEmployee).doOnNext(this::saved);
+    }
+
+    public Mono<BatchResponse> addAll(Flux<DecodedRecord<Employee>> requestEmployees) {
+        return bulkWriter.insert(Employee.class, requestEmployees, Employee::setId, statsStore::employeesSaved)
+                .doOnNext(response -> changeTracker.collectionChanged(Employee.class));
+    }
+
+    public Mono<BatchResponse> importAll(Flux<DecodedRecord<Employee>> employees) {
+        return bulkWriter.importAll(Employee.class, employees, Employee::setId, Employee::getId,
+                statsStore::employeesSaved)
+                .doOnNext(response -> changeTracker.collectionChanged(Employee.class));
+    }
+
+    public Flux<Employee> getAll() {
+        return employeeRepository.findAll();
+    }
+
+    public Flux<Employee> getAll(FieldSelection fields) {
+        if (fields.isAll()) {
+            return getAll();
+        }
+        return mongoTemplate.find(fields.applyTo(new Query()), Employee.class);
+    }
+
+    public Flux<Employee> streamAll() {
+        return streamAll(FieldSelection.ALL);
+    }
+
+    public Flux<Employee> streamAll(FieldSelection fields) {
+        return mongoTemplate.find(fields.applyTo(new Query().cursorBatchSize(500)), Employee.class);
+    }
+
+    public Mono<Employee> get(String employeeId) {
+        return Mono.defer(() -> {
+            Employee cached = cache().get(employeeId, Employee.class);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            long stamp = changeTracker.stamp(Employee.class);
+            return employeeLookups.execute(lookupKey(employeeId, FieldSelection.ALL, stamp),
+                    () -> employeeRepository.findById(employeeId)
+                            .switchIfEmpty(Mono.defer(() -> Mono.error(new EmployeeNotFoundException())))
+                            .doOnNext(employee -> {
+                                // a write since the lookup started has evicted the entry; don't restore the old copy
+                                if (changeTracker.stamp(Employee.class) == stamp) {
+                                    cache().put(employeeId, employee);
+                                }
+                            }));
+        });
+    }
+
+    public Mono<Employee> get(String employeeId, FieldSelection fields) {
+        if (fields.isAll()) {
+            return get(employeeId);
+        }
+        return Mono.defer(() -> employeeLookups.execute(
+                lookupKey(employeeId, fields, changeTracker.stamp(Employee.class)), () -> {
+                    Query query = fields.applyTo(new Query(Criteria.where("id").is(employeeId)));
+                    query.fields().include("version");
+                    return mongoTemplate.findOne(query, Employee.class)
+                            .switchIfEmpty(Mono.defer(() -> Mono.error(new EmployeeNotFoundException())));
+                }));
+    }
+
+    public Mono<Employee> update(String employeeId, Employee updateEmployee, VersionMatch ifMatch) {
+        return employeeRepository.findById(employeeId)
+                .switchIfEmpty(Mono.defer(() -> Mono.error(ifMatch.missing(EmployeeNotFoundException::new))))
+                .flatMap(foundEmployee -> {
+                    if (!ifMatch.matches(foundEmployee.getVersion())) {
+                        return Mono.error(new PreconditionFailedException());
+                    }
+                    foundEmployee.setAge(updateEmployee.getAge());
+                    foundEmployee.setGender(updateEmployee.getGender());
+                    foundEmployee.setName(updateEmployee.getName());
+                    foundEmployee.setSalary(updateEmployee.getSalary());
+                    return employeeRepository.save(foundEmployee);
+                })
+                .doOnNext(employee -> {
+                    saved(employee);
+                    cache().evict(employeeId);
+                });
+    }
+
+    public Mono<Employee> patch(String employeeId, Update update, VersionMatch ifMatch) {
+        return Mono.defer(() -> mongoTemplate.findAndModify(
+                ifMatch.applyTo(new Query(Criteria.where("id").is(employeeId))), Updates.versioned(update),
+                FindAndModifyOptions.options().returnNew(true), Employee.class))
+                .switchIfEmpty(Mono.defer(() -> Mono.error(ifMatch.missing(EmployeeNotFoundException::new))))
+                .doOnNext(employee -> {
+                    saved(employee);
+                    cache().evict(employeeId);
+                });
+    }
+
+    public Mono<BatchResponse> updateAll(List<Pair<String, Update>> employeeUpdates) {
+        return bulkWriter.update(Employee.class, employeeUpdates)
+                .flatMap(response -> {
+                    changeTracker.collectionChanged(Employee.class);
+                    return findFigures(response.succeededIds())
+                            .doOnNext(statsStore::employeesSaved)
+                            .thenReturn(response);
+                })
+                .doOnNext(response -> cache().clear());
+    }
+
+    public Mono<Void> remove(String employeeId) {
+        return mongoTemplate.findAndRemove(new Query(Criteria.where("id").is(employeeId)), Employee.class)
+                .hasElement()
+                .doOnNext(removed -> {
+                    changeTracker.documentRemoved(Employee.class, employeeId);
+                    if (removed) {
+                        statsStore.employeeRemoved(employeeId);
+                    }
+                    cache().evict(employeeId);
+                })
+                .then();
+    }
+
+    public Mono<BatchResponse> removeAll(List<String> employeeIds) {
+        return bulkWriter.delete(Employee.class, employeeIds)
+                .doOnNext(response -> {
+                    changeTracker.collectionChanged(Employee.class);
+                    statsStore.employeesRemoved(response.succeededIds());
+                    cache().clear();
+                });
+    }
+
+    public Flux<Employee> getAllByGender(String gender) {
+        return getAllByGender(gender, FieldSelection.ALL);
+    }
+
+    public Flux<Employee> getAllByGender(String gender, FieldSelection fields) {
+        return Mono.defer(() -> genderLookups.execute(lookupKey(gender, fields, changeTracker.stamp(Employee.class)),
+                () -> findAllByGender(gender, fields).collectList()))
+                .flatMapIterable(Function.identity());
+    }
+
+    private Flux<Employee> findAllByGender(String gender, FieldSelection fields) {
+        if (fields.isAll()) {
+            return employeeRepository.findAllByGender(gender);
+        }
+        return mongoTemplate.find(fields.applyTo(new Query(Criteria.where("gender").is(gender))), Employee.class);
+    }
+
+    public Mono<List<Employee>> search(String text, int limit, FieldSelection fields) {
+        return nameSearch.search(text, limit, fields);
+    }
+
+    public Flux<Employee> getAllByPage(int page, int pageSize) {
+        return getAllByPage(page, pageSize, FieldSelection.ALL);
+    }
+
+    public Flux<Employee> getAllByPage(int page, int pageSize, FieldSelection fields) {
+        return mongoTemplate.find(fields.applyTo(new Query().with(PageRequest.of(page - 1, pageSize))), Employee.class);
+    }
+
+    public Mono<KeysetPage<Employee>> getAllAfter(String after, int pageSize) {
+        return getAllAfter(after, pageSize, FieldSelection.ALL);
+    }
+
+    public Mono<KeysetPage<Employee>> getAllAfter(String after, int pageSize, FieldSelection fields) {
+        return Mono.defer(() -> mongoTemplate.find(fields.applyTo(KeysetPage.query(after, pageSize, maxPageSize)),
+                Employee.class)
+                .collectList()
+                .map(employees -> KeysetPage.of(employees, pageSize, Employee::getId)));
+    }
+
+    public Mono<KeysetPage<Employee>> filter(EmployeeFilterRequest filter, FieldSelection fields) {
+        return Mono.defer(() -> {
+            EmployeeFilterQuery filterQuery = EmployeeFilterQuery.of(filter, fields, maxPageSize);
+            return mongoTemplate.find(filterQuery.getQuery(), Employee.class)
+                    .collectList()
+                    .map(filterQuery::page);
+        });
+    }
+
+    public Mono<List<EmployeeStatsResponse>> getStats(String groupBy, int buckets) {
+        return statsAggregator.aggregate(new Criteria(), groupBy, buckets);
+    }
+
+    private void saved(Employee employee) {
+        changeTracker.documentSaved(Employee.class, employee.getId(), employee.getVersion());
+        statsStore.employeeSaved(employee);
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(CACHE_NAME);
+    }
+
+    private static List<Object> lookupKey(String argument, FieldSelection fields, long stamp) {
+        return Arrays.asList(argument, fields.getFields(), stamp);
+    }
+
+    private Mono<List<Employee>> findFigures(List<String> employeeIds) {
+        if (employeeIds.isEmpty()) {
+            return Mono.just(new ArrayList<>());
+        }
+        Query query = new Query(Criteria.where("id").in(employeeIds));
+        query.fields().include("gender").include("salary").include("age");
+        return mongoTemplate.find(query, Employee.class).collectList();
+    }
+}
@@ -0,0 +1,92 @@
+package com.thoughtworks.springbootemployee.slowquery;
+
+import com.thoughtworks.springbootemployee.dto.SlowQueryResponse;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import java.time.Instant;
+import java.util.stream.Collectors;
+
+class SlowQuery {
+    private final Instant loggedAt;
+    private final String database;
+    private final String collection;
+    private final String command;
+    private final long durationMillis;
+    private final String filter;
+    private final String sort;
+    private final String projection;
+    private final String pipeline;
+    private boolean explained;
+    private Long docsExamined;
+    private Long keysExamined;
+    private Long returned;
+    private String winningStage;
+    private String indexName;
+    private String explainError;
+
+    SlowQuery(String database, String command, long durationMillis, BsonDocument commandDocument) {
+        this.loggedAt = Instant.now();
+        this.database = database;
+        this.command = command;
+        this.durationMillis = durationMillis;
+        BsonValue collection = commandDocument.get(command);
+        this.collection = collection != null && collection.isString() ? collection.asString().getValue() : null;
+        this.filter = toJson(commandDocument.containsKey("filter") ? commandDocument.get("filter") : commandDocument.get("query"));
+        this.sort = toJson(commandDocument.get("sort"));
+        this.projection = toJson(commandDocument.get("projection"));
+        this.pipeline = toJson(commandDocument.get("pipeline"));
+    }
+
+    String getCollection() {
+        return collection;
+    }
+
+    String getCommand() {
+        return command;
+    }
+
+    long getDurationMillis() {
+        return durationMillis;
+    }
+
+    String getFilter() {
+        return filter != null ? filter : pipeline;
+    }
+
+    synchronized void explained(Long docsExamined, Long keysExamined, Long returned, String winningStage, String indexName) {
+        this.explained = true;
+        this.docsExamined = docsExamined;
+        this.keysExamined = keysExamined;
+        this.returned = returned;
+        this.winningStage = winningStage;
+        this.indexName = indexName;
+    }
+
+    synchronized void explainFailed(String error) {
+        this.explained = true;
+        this.explainError = error;
+    }
+
+    synchronized SlowQueryResponse toResponse() {
+        return new SlowQueryResponse(loggedAt, database, collection, command, durationMillis, filter, sort, projection,
+                pipeline, explained, docsExamined, keysExamined, returned, winningStage, indexName, explainError);
+    }
+
+    private static String toJson(BsonValue value) {
+        if (value == null) {
+            return null;
+        }
+        if (value.isDocument()) {
+            return value.asDocument().toJson();
+        }
+        if (value.isArray()) {
+            BsonArray array = value.asArray();
+            return array.stream()
+                    .map(element -> element.isDocument() ? element.asDocument().toJson() : element.toString())
+                    .collect(Collectors.joining(", ", "[", "]"));
+        }
+        return value.toString();
+    }
+}
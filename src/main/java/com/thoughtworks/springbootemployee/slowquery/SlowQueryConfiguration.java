@@ -0,0 +1,13 @@
+package com.thoughtworks.springbootemployee.slowquery;
+
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SlowQueryConfiguration {
+    @Bean
+    public MongoClientSettingsBuilderCustomizer slowQueryLogCustomizer(SlowQueryLog slowQueryLog) {
+        return builder -> builder.addCommandListener(slowQueryLog);
+    }
+}
@@ -0,0 +1,196 @@
+package com.thoughtworks.springbootemployee.slowquery;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import com.thoughtworks.springbootemployee.dto.SlowQueryResponse;
+import com.thoughtworks.springbootemployee.index.QueryPlans;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class SlowQueryLog implements CommandListener, DisposableBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SlowQueryLog.class);
+    private static final Set<String> READ_COMMANDS = new HashSet<>(Arrays.asList("find", "aggregate", "count", "distinct"));
+    private static final List<String> EXPLAIN_FIELDS = Arrays.asList(
+            "filter", "query", "key", "sort", "projection", "pipeline", "hint", "skip", "limit", "collation");
+
+    private final ObjectProvider<MongoClient> mongoClient;
+    private final long thresholdNanos;
+    private final int capacity;
+    private final Map<Integer, PendingCommand> pendingCommands = new ConcurrentHashMap<>();
+    private final Deque<SlowQuery> slowQueries = new ArrayDeque<>();
+    private final ThreadPoolExecutor explainExecutor;
+
+    public SlowQueryLog(ObjectProvider<MongoClient> mongoClient,
+                        @Value("${app.slow-query.threshold:100ms}") Duration threshold,
+                        @Value("${app.slow-query.capacity:200}") int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Slow query capacity must be positive");
+        }
+        this.mongoClient = mongoClient;
+        this.thresholdNanos = threshold.toNanos();
+        this.capacity = capacity;
+        this.explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity), runnable -> {
+                    Thread thread = new Thread(runnable, "slow-query-explain");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (READ_COMMANDS.contains(event.getCommandName())) {
+            pendingCommands.put(event.getRequestId(), new PendingCommand(event.getDatabaseName(),
+                    explainable(event.getCommandName(), event.getCommand())));
+        }
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        completed(event.getRequestId(), event.getCommandName(), event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        completed(event.getRequestId(), event.getCommandName(), event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    public List<SlowQueryResponse> getSlowQueries(String collection, int limit) {
+        List<SlowQuery> matches = new ArrayList<>();
+        synchronized (slowQueries) {
+            Iterator<SlowQuery> iterator = slowQueries.descendingIterator();
+            while (iterator.hasNext() && matches.size() < limit) {
+                SlowQuery slowQuery = iterator.next();
+                if (collection == null || collection.equals(slowQuery.getCollection())) {
+                    matches.add(slowQuery);
+                }
+            }
+        }
+        List<SlowQueryResponse> responses = new ArrayList<>(matches.size());
+        matches.forEach(slowQuery -> responses.add(slowQuery.toResponse()));
+        return responses;
+    }
+
+    public void clear() {
+        synchronized (slowQueries) {
+            slowQueries.clear();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        explainExecutor.shutdownNow();
+    }
+
+    private void completed(int requestId, String commandName, long elapsedNanos) {
+        PendingCommand pendingCommand = pendingCommands.remove(requestId);
+        if (pendingCommand == null || elapsedNanos < thresholdNanos) {
+            return;
+        }
+        SlowQuery slowQuery = new SlowQuery(pendingCommand.database, commandName,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), pendingCommand.command);
+        synchronized (slowQueries) {
+            if (slowQueries.size() >= capacity) {
+                slowQueries.pollFirst();
+            }
+            slowQueries.addLast(slowQuery);
+        }
+        LOGGER.warn("Slow {} on {}.{} took {} ms, filter: {}", commandName, pendingCommand.database,
+                slowQuery.getCollection(), slowQuery.getDurationMillis(), slowQuery.getFilter());
+        try {
+            explainExecutor.execute(() -> explain(slowQuery, pendingCommand));
+        } catch (RejectedExecutionException exception) {
+            slowQuery.explainFailed("Explain queue full");
+        }
+    }
+
+    private void explain(SlowQuery slowQuery, PendingCommand pendingCommand) {
+        MongoClient client = mongoClient.getIfAvailable();
+        if (client == null) {
+            slowQuery.explainFailed("No Mongo client available");
+            return;
+        }
+        try {
+            Document result = client.getDatabase(pendingCommand.database).runCommand(
+                    new BsonDocument("explain", pendingCommand.command).append("verbosity", new BsonString("executionStats")));
+            summarize(slowQuery, result);
+        } catch (RuntimeException exception) {
+            slowQuery.explainFailed(exception.getMessage());
+        }
+    }
+
+    private static BsonDocument explainable(String commandName, BsonDocument command) {
+        BsonDocument explainable = new BsonDocument(commandName, command.get(commandName));
+        for (String field : EXPLAIN_FIELDS) {
+            BsonValue value = command.get(field);
+            if (value != null) {
+                explainable.put(field, value.isDocument() ? value.asDocument().clone()
+                        : value.isArray() ? value.asArray().clone() : value);
+            }
+        }
+        return explainable;
+    }
+
+    private static void summarize(SlowQuery slowQuery, Document result) {
+        Document plan = result;
+        List<Document> stages = result.getList("stages", Document.class);
+        if (stages != null && !stages.isEmpty() && stages.get(0).containsKey("$cursor")) {
+            plan = stages.get(0).get("$cursor", Document.class);
+        }
+        Document executionStats = plan.get("executionStats", Document.class);
+        Document queryPlanner = plan.get("queryPlanner", Document.class);
+        Document winningPlan = queryPlanner == null ? null : queryPlanner.get("winningPlan", Document.class);
+        Document indexScan = QueryPlans.findStage(winningPlan, "IXSCAN");
+        String winningStage = indexScan != null ? "IXSCAN"
+                : QueryPlans.findStage(winningPlan, "COLLSCAN") != null ? "COLLSCAN"
+                : winningPlan == null ? null : winningPlan.getString("stage");
+        slowQuery.explained(
+                executionStats == null ? null : toLong(executionStats.get("totalDocsExamined")),
+                executionStats == null ? null : toLong(executionStats.get("totalKeysExamined")),
+                executionStats == null ? null : toLong(executionStats.get("nReturned")),
+                winningStage,
+                indexScan == null ? null : indexScan.getString("indexName"));
+    }
+
+    private static Long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+
+    private static class PendingCommand {
+        private final String database;
+        private final BsonDocument command;
+
+        PendingCommand(String database, BsonDocument command) {
+            this.database = database;
+            this.command = command;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.thoughtworks.springbootemployee.stats;
+
+import com.thoughtworks.springbootemployee.model.Employee;
+
+public final class EmployeeFigures {
+    private final String gender;
+    private final Integer salary;
+    private final Integer age;
+
+    private EmployeeFigures(String gender, Integer salary, Integer age) {
+        this.gender = gender;
+        this.salary = salary;
+        this.age = age;
+    }
+
+    public static EmployeeFigures of(Employee employee) {
+        return new EmployeeFigures(employee.getGender(), employee.getSalary(), employee.getAge());
+    }
+
+    public String getGender() {
+        return gender;
+    }
+
+    public Integer getSalary() {
+        return salary;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+}
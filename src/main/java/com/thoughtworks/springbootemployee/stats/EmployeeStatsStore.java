@@ -0,0 +1,147 @@
+package com.thoughtworks.springbootemployee.stats;
+
+import com.thoughtworks.springbootemployee.dto.MaterializedStatsResponse;
+import com.thoughtworks.springbootemployee.model.Company;
+import com.thoughtworks.springbootemployee.model.Employee;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+@Component
+public class EmployeeStatsStore {
+    private static final int CURSOR_BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final Object rebuildLock = new Object();
+    private StatsState state = new StatsState();
+    private List<Consumer<StatsState>> pendingChanges;
+
+    public EmployeeStatsStore(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public synchronized List<MaterializedStatsResponse> getGenderStats() {
+        return state.genderStats();
+    }
+
+    public synchronized MaterializedStatsResponse getCompanyStats(String companyId) {
+        return state.companyStats(companyId);
+    }
+
+    public void employeeSaved(Employee employee) {
+        String employeeId = employee.getId();
+        EmployeeFigures figures = EmployeeFigures.of(employee);
+        apply(target -> target.saveEmployee(employeeId, figures));
+    }
+
+    public void employeesSaved(Collection<Employee> employees) {
+        if (employees.isEmpty()) {
+            return;
+        }
+        Map<String, EmployeeFigures> figuresById = new HashMap<>();
+        employees.forEach(employee -> figuresById.put(employee.getId(), EmployeeFigures.of(employee)));
+        apply(target -> figuresById.forEach(target::saveEmployee));
+    }
+
+    public void employeeRemoved(String employeeId) {
+        apply(target -> target.removeEmployee(employeeId));
+    }
+
+    public void employeesRemoved(Collection<String> employeeIds) {
+        if (employeeIds.isEmpty()) {
+            return;
+        }
+        List<String> removedIds = new ArrayList<>(employeeIds);
+        apply(target -> removedIds.forEach(target::removeEmployee));
+    }
+
+    public void companySaved(Company company) {
+        String companyId = company.getId();
+        Set<String> employeeIds = members(company);
+        apply(target -> target.saveCompany(companyId, employeeIds));
+    }
+
+    public void companiesSaved(Collection<Company> companies) {
+        if (companies.isEmpty()) {
+            return;
+        }
+        Map<String, Set<String>> membersById = new HashMap<>();
+        companies.forEach(company -> membersById.put(company.getId(), members(company)));
+        apply(target -> membersById.forEach(target::saveCompany));
+    }
+
+    public void companyRemoved(String companyId) {
+        apply(target -> target.removeCompany(companyId));
+    }
+
+    public void companiesRemoved(Collection<String> companyIds) {
+        if (companyIds.isEmpty()) {
+            return;
+        }
+        List<String> removedIds = new ArrayList<>(companyIds);
+        apply(target -> removedIds.forEach(target::removeCompany));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            startRecording();
+            StatsState rebuilt = null;
+            try {
+                rebuilt = load();
+            } finally {
+                swap(rebuilt);
+            }
+        }
+    }
+
+    private StatsState load() {
+        StatsState rebuilt = new StatsState();
+        Query employeeQuery = new Query().cursorBatchSize(CURSOR_BATCH_SIZE);
+        employeeQuery.fields().include("gender").include("salary").include("age");
+        try (CloseableIterator<Employee> employees = mongoTemplate.stream(employeeQuery, Employee.class)) {
+            employees.forEachRemaining(employee -> rebuilt.saveEmployee(employee.getId(), EmployeeFigures.of(employee)));
+        }
+        Query companyQuery = new Query().cursorBatchSize(CURSOR_BATCH_SIZE);
+        companyQuery.fields().include("employees");
+        try (CloseableIterator<Company> companies = mongoTemplate.stream(companyQuery, Company.class)) {
+            companies.forEachRemaining(company -> rebuilt.saveCompany(company.getId(), members(company)));
+        }
+        return rebuilt;
+    }
+
+    private synchronized void startRecording() {
+        pendingChanges = new ArrayList<>();
+    }
+
+    private synchronized void swap(StatsState rebuilt) {
+        if (rebuilt != null) {
+            pendingChanges.forEach(change -> change.accept(rebuilt));
+            state = rebuilt;
+        }
+        pendingChanges = null;
+    }
+
+    private synchronized void apply(Consumer<StatsState> change) {
+        change.accept(state);
+        if (pendingChanges != null) {
+            pendingChanges.add(change);
+        }
+    }
+
+    private static Set<String> members(Company company) {
+        return company.getEmployees() == null ? new LinkedHashSet<>() : new LinkedHashSet<>(company.getEmployees());
+    }
+}
@@ -0,0 +1,46 @@
+package com.thoughtworks.springbootemployee.stats;
+
+import com.thoughtworks.springbootemployee.dto.MaterializedStatsResponse;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+class StatsAccumulator {
+    private static final int AGE_BUCKET_WIDTH = 10;
+
+    private long count;
+    private long salarySum;
+    private final TreeMap<Integer, Long> ageHistogram = new TreeMap<>();
+
+    void add(EmployeeFigures figures) {
+        apply(figures, 1);
+    }
+
+    void remove(EmployeeFigures figures) {
+        apply(figures, -1);
+    }
+
+    boolean isEmpty() {
+        return count == 0;
+    }
+
+    MaterializedStatsResponse toResponse(String group) {
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        ageHistogram.forEach((bucket, bucketCount) ->
+                histogram.put(bucket + "-" + (bucket + AGE_BUCKET_WIDTH - 1), bucketCount));
+        Double salaryAverage = count == 0 ? null : (double) salarySum / count;
+        return new MaterializedStatsResponse(group, count, salarySum, salaryAverage, histogram);
+    }
+
+    private void apply(EmployeeFigures figures, int sign) {
+        count += sign;
+        if (figures.getSalary() != null) {
+            salarySum += sign * (long) figures.getSalary();
+        }
+        if (figures.getAge() != null) {
+            int bucket = Math.floorDiv(figures.getAge(), AGE_BUCKET_WIDTH) * AGE_BUCKET_WIDTH;
+            ageHistogram.merge(bucket, (long) sign, (current, delta) -> current + delta == 0 ? null : current + delta);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.thoughtworks.springbootemployee.stats;
+
+import com.thoughtworks.springbootemployee.dto.MaterializedStatsResponse;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+class StatsState {
+    private final Map<String, EmployeeFigures> employees = new HashMap<>();
+    private final Map<String, Set<String>> employeesByCompany = new HashMap<>();
+    private final Map<String, Set<String>> companiesByEmployee = new HashMap<>();
+    private final Map<String, StatsAccumulator> genderStats = new HashMap<>();
+    private final Map<String, StatsAccumulator> companyStats = new HashMap<>();
+
+    void saveEmployee(String employeeId, EmployeeFigures figures) {
+        EmployeeFigures previous = employees.put(employeeId, figures);
+        if (previous != null) {
+            withdraw(employeeId, previous);
+        }
+        genderStats.computeIfAbsent(figures.getGender(), gender -> new StatsAccumulator()).add(figures);
+        forEachCompany(employeeId, accumulator -> accumulator.add(figures));
+    }
+
+    void removeEmployee(String employeeId) {
+        EmployeeFigures previous = employees.remove(employeeId);
+        if (previous != null) {
+            withdraw(employeeId, previous);
+        }
+    }
+
+    void saveCompany(String companyId, Set<String> employeeIds) {
+        Set<String> previous = employeesByCompany.put(companyId, employeeIds);
+        StatsAccumulator accumulator = companyStats.computeIfAbsent(companyId, id -> new StatsAccumulator());
+        if (previous != null) {
+            for (String employeeId : previous) {
+                if (!employeeIds.contains(employeeId)) {
+                    unlink(companyId, employeeId);
+                    EmployeeFigures figures = employees.get(employeeId);
+                    if (figures != null) {
+                        accumulator.remove(figures);
+                    }
+                }
+            }
+        }
+        for (String employeeId : employeeIds) {
+            if (previous == null || !previous.contains(employeeId)) {
+                companiesByEmployee.computeIfAbsent(employeeId, id -> new HashSet<>()).add(companyId);
+                EmployeeFigures figures = employees.get(employeeId);
+                if (figures != null) {
+                    accumulator.add(figures);
+                }
+            }
+        }
+    }
+
+    void removeCompany(String companyId) {
+        Set<String> previous = employeesByCompany.remove(companyId);
+        companyStats.remove(companyId);
+        if (previous != null) {
+            previous.forEach(employeeId -> unlink(companyId, employeeId));
+        }
+    }
+
+    List<MaterializedStatsResponse> genderStats() {
+        List<MaterializedStatsResponse> stats = new ArrayList<>(genderStats.size());
+        genderStats.forEach((gender, accumulator) -> stats.add(accumulator.toResponse(gender)));
+        stats.sort(Comparator.comparing(MaterializedStatsResponse::getGroup, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return stats;
+    }
+
+    MaterializedStatsResponse companyStats(String companyId) {
+        StatsAccumulator accumulator = companyStats.get(companyId);
+        return accumulator == null ? null : accumulator.toResponse(companyId);
+    }
+
+    private void withdraw(String employeeId, EmployeeFigures figures) {
+        StatsAccumulator accumulator = genderStats.get(figures.getGender());
+        if (accumulator != null) {
+            accumulator.remove(figures);
+            if (accumulator.isEmpty()) {
+                genderStats.remove(figures.getGender());
+            }
+        }
+        forEachCompany(employeeId, companyAccumulator -> companyAccumulator.remove(figures));
+    }
+
+    private void forEachCompany(String employeeId, Consumer<StatsAccumulator> action) {
+        Set<String> companyIds = companiesByEmployee.get(employeeId);
+        if (companyIds != null) {
+            companyIds.forEach(companyId -> action.accept(companyStats.get(companyId)));
+        }
+    }
+
+    private void unlink(String companyId, String employeeId) {
+        Set<String> companyIds = companiesByEmployee.get(employeeId);
+        if (companyIds != null) {
+            companyIds.remove(companyId);
+            if (companyIds.isEmpty()) {
+                companiesByEmployee.remove(employeeId);
+            }
+        }
+    }
+}
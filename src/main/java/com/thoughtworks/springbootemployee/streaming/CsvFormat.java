@@ -0,0 +1,60 @@
+package com.thoughtworks.springbootemployee.streaming;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+@Component
+public class CsvFormat {
+    public static final String TEXT_CSV_VALUE = "text/csv";
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType(TEXT_CSV_VALUE);
+    private static final String ARRAY_ELEMENT_SEPARATOR = ";";
+
+    private final CsvMapper csvMapper = new CsvMapper();
+
+    public CsvFormat(Jackson2ObjectMapperBuilder builder) {
+        builder.configure(csvMapper);
+        csvMapper.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    public static boolean isAccepted(String accept) {
+        return accept != null && MediaType.parseMediaTypes(accept).stream().anyMatch(TEXT_CSV::equalsTypeAndSubtype);
+    }
+
+    public ObjectReader readerFor(Class<?> type) {
+        return csvMapper.readerFor(type).with(CsvSchema.emptySchema().withHeader().withArrayElementSeparator(ARRAY_ELEMENT_SEPARATOR));
+    }
+
+    public ObjectReader rowReaderFor(Class<?> type, String header) throws IOException {
+        String[] columns = csvMapper.readerFor(String[].class).with(CsvParser.Feature.WRAP_AS_ARRAY).readValue(header);
+        CsvSchema.Builder schema = CsvSchema.builder().setArrayElementSeparator(ARRAY_ELEMENT_SEPARATOR);
+        for (String column : columns) {
+            schema.addColumn(column);
+        }
+        return csvMapper.readerFor(type).with(schema.build());
+    }
+
+    public ObjectWriter writerFor(Class<?> type) {
+        return writerFor(type, true);
+    }
+
+    public ObjectWriter rowWriterFor(Class<?> type) {
+        return writerFor(type, false);
+    }
+
+    private ObjectWriter writerFor(Class<?> type, boolean header) {
+        CsvSchema schema = csvMapper.schemaFor(type).withArrayElementSeparator(ARRAY_ELEMENT_SEPARATOR);
+        return csvMapper.writerFor(type)
+                .with(header ? schema.withHeader() : schema.withoutHeader())
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+}
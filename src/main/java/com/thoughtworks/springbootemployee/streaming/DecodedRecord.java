@@ -0,0 +1,38 @@
+package com.thoughtworks.springbootemployee.streaming;
+
+import java.util.function.Function;
+
+/**
+ * One record decoded from a request body, or a marker for a record that could not be mapped.
+ * Malformed records stay in the sequence so batch responses report them at their own index.
+ */
+public final class DecodedRecord<T> {
+    private static final DecodedRecord<?> MALFORMED = new DecodedRecord<>(null);
+
+    private final T value;
+
+    private DecodedRecord(T value) {
+        this.value = value;
+    }
+
+    public static <T> DecodedRecord<T> of(T value) {
+        return new DecodedRecord<>(value);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> DecodedRecord<T> malformed() {
+        return (DecodedRecord<T>) MALFORMED;
+    }
+
+    public boolean isMalformed() {
+        return value == null;
+    }
+
+    public T getValue() {
+        return value;
+    }
+
+    public <R> DecodedRecord<R> map(Function<T, R> mapper) {
+        return isMalformed() ? malformed() : of(mapper.apply(value));
+    }
+}
@@ -0,0 +1,30 @@
+package com.thoughtworks.springbootemployee.streaming;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thoughtworks.springbootemployee.projection.FieldSelectionJsonEncoder;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+import java.util.Arrays;
+
+@Configuration
+@Profile("reactive")
+public class ReactiveCodecConfiguration implements WebFluxConfigurer {
+    private final ObjectMapper objectMapper;
+
+    public ReactiveCodecConfiguration(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        Jackson2JsonEncoder encoder = new FieldSelectionJsonEncoder(objectMapper,
+                MediaType.APPLICATION_JSON, new MediaType("application", "*+json"), RecordStreamWriter.APPLICATION_NDJSON);
+        encoder.setStreamingMediaTypes(Arrays.asList(MediaType.APPLICATION_STREAM_JSON, RecordStreamWriter.APPLICATION_NDJSON));
+        configurer.defaultCodecs().jackson2JsonEncoder(encoder);
+    }
+}
@@ -0,0 +1,202 @@
+package com.thoughtworks.springbootemployee.streaming;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.thoughtworks.springbootemployee.exception.MalformedRecordException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.data.util.StreamUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.AbstractJackson2Decoder;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Component
+public class RecordStreamReader {
+    private static final ResolvableType JSON_NODE = ResolvableType.forClass(JsonNode.class);
+    private static final ResolvableType LINE = ResolvableType.forClass(String.class);
+
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper cborObjectMapper;
+    private final ObjectMapper smileObjectMapper;
+    private final CsvFormat csvFormat;
+    private final DataSize maxBufferedSize;
+    private final AbstractJackson2Decoder jsonDecoder;
+    private final AbstractJackson2Decoder smileDecoder;
+    private final StringDecoder lineDecoder = StringDecoder.textPlainOnly();
+
+    public RecordStreamReader(ObjectMapper objectMapper, MappingJackson2CborHttpMessageConverter cborConverter,
+                              MappingJackson2SmileHttpMessageConverter smileConverter, CsvFormat csvFormat,
+                              @Value("${app.batch.max-buffered-size:16MB}") DataSize maxBufferedSize) {
+        this.objectMapper = objectMapper;
+        this.cborObjectMapper = cborConverter.getObjectMapper();
+        this.smileObjectMapper = smileConverter.getObjectMapper();
+        this.csvFormat = csvFormat;
+        this.maxBufferedSize = maxBufferedSize;
+        this.jsonDecoder = new Jackson2JsonDecoder(objectMapper);
+        this.smileDecoder = new Jackson2SmileDecoder(smileObjectMapper);
+    }
+
+    public <T> Stream<T> read(InputStream inputStream, Class<T> type) throws IOException {
+        return read(inputStream, type, MediaType.APPLICATION_JSON);
+    }
+
+    public <T> Stream<T> read(InputStream inputStream, Class<T> type, MediaType contentType) throws IOException {
+        ObjectReader reader = CsvFormat.TEXT_CSV.isCompatibleWith(contentType)
+                ? csvFormat.readerFor(type)
+                : objectMapperFor(contentType).readerFor(type);
+        MappingIterator<T> iterator = reader.readValues(inputStream);
+        return StreamUtils.createStreamFromIterator(records(iterator)).onClose(() -> {
+            try {
+                iterator.close();
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        });
+    }
+
+    /**
+     * Decodes a reactive request body without blocking: JSON, NDJSON and Smile through Jackson's
+     * non-blocking parser, CSV line by line. Jackson has no non-blocking CBOR parser, so CBOR bodies
+     * are joined in memory, up to {@code app.batch.max-buffered-size}, and parsed from there.
+     */
+    public <T> Flux<DecodedRecord<T>> read(Flux<DataBuffer> body, Class<T> type, MediaType contentType) {
+        if (CsvFormat.TEXT_CSV.isCompatibleWith(contentType)) {
+            return readCsv(body, type, contentType);
+        }
+        ObjectMapper mapper = objectMapperFor(contentType);
+        ObjectReader reader = mapper.readerFor(type);
+        if (mapper == cborObjectMapper) {
+            return readBuffered(body, reader);
+        }
+        AbstractJackson2Decoder decoder = mapper == smileObjectMapper ? smileDecoder : jsonDecoder;
+        return decoder.decode(body, JSON_NODE, null, Collections.emptyMap())
+                .onErrorMap(DecodingException.class, exception -> new MalformedRecordException(false, exception))
+                .map(node -> decode(reader, (JsonNode) node));
+    }
+
+    private <T> Flux<DecodedRecord<T>> readCsv(Flux<DataBuffer> body, Class<T> type, MediaType contentType) {
+        return lineDecoder.decode(body, LINE, contentType, Collections.emptyMap())
+                .filter(line -> !line.isEmpty())
+                .switchOnFirst((header, lines) -> {
+                    if (!header.hasValue()) {
+                        return header.isOnError()
+                                ? Flux.<DecodedRecord<T>>error(header.getThrowable())
+                                : Flux.<DecodedRecord<T>>empty();
+                    }
+                    ObjectReader reader;
+                    try {
+                        reader = csvFormat.rowReaderFor(type, header.get());
+                    } catch (IOException exception) {
+                        return Flux.<DecodedRecord<T>>error(new MalformedRecordException(false, exception));
+                    }
+                    return lines.skip(1).map(line -> decode(reader, line));
+                });
+    }
+
+    private <T> Flux<DecodedRecord<T>> readBuffered(Flux<DataBuffer> body, ObjectReader reader) {
+        return DataBufferUtils.join(body, (int) maxBufferedSize.toBytes())
+                .flatMapMany(buffer -> Flux.using(() -> reader.<T>readValues(buffer.asInputStream(true)),
+                        iterator -> Flux.fromIterable(() -> decodedRecords(records(iterator))),
+                        RecordStreamReader::close));
+    }
+
+    private static void close(MappingIterator<?> iterator) {
+        try {
+            iterator.close();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static <T> DecodedRecord<T> decode(ObjectReader reader, JsonNode node) {
+        try {
+            return DecodedRecord.of(reader.readValue(node));
+        } catch (IOException exception) {
+            return DecodedRecord.malformed();
+        }
+    }
+
+    private static <T> DecodedRecord<T> decode(ObjectReader reader, String line) {
+        try {
+            return DecodedRecord.of(reader.readValue(line));
+        } catch (IOException exception) {
+            return DecodedRecord.malformed();
+        }
+    }
+
+    private static <T> Iterator<DecodedRecord<T>> decodedRecords(Iterator<T> records) {
+        return new Iterator<DecodedRecord<T>>() {
+            @Override
+            public boolean hasNext() {
+                return records.hasNext();
+            }
+
+            @Override
+            public DecodedRecord<T> next() {
+                try {
+                    return DecodedRecord.of(records.next());
+                } catch (MalformedRecordException exception) {
+                    if (exception.isRecoverable()) {
+                        return DecodedRecord.malformed();
+                    }
+                    throw exception;
+                }
+            }
+        };
+    }
+
+    private static <T> Iterator<T> records(MappingIterator<T> iterator) {
+        return new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                try {
+                    return iterator.hasNextValue();
+                } catch (IOException exception) {
+                    throw new MalformedRecordException(false, exception);
+                }
+            }
+
+            @Override
+            public T next() {
+                try {
+                    return iterator.nextValue();
+                } catch (JsonMappingException exception) {
+                    throw new MalformedRecordException(true, exception);
+                } catch (IOException exception) {
+                    throw new MalformedRecordException(false, exception);
+                }
+            }
+        };
+    }
+
+    private ObjectMapper objectMapperFor(MediaType contentType) {
+        if (MediaType.APPLICATION_CBOR.isCompatibleWith(contentType)
+                || BinaryFormatConfiguration.APPLICATION_CBOR_SEQ.isCompatibleWith(contentType)) {
+            return cborObjectMapper;
+        }
+        if (BinaryFormatConfiguration.APPLICATION_SMILE.isCompatibleWith(contentType)) {
+            return smileObjectMapper;
+        }
+        return objectMapper;
+    }
+}
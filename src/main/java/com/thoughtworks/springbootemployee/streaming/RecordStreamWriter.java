@@ -0,0 +1,134 @@
+package com.thoughtworks.springbootemployee.streaming;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.thoughtworks.springbootemployee.projection.FieldSelection;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+@Component
+public class RecordStreamWriter {
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType(APPLICATION_NDJSON_VALUE);
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter objectWriter;
+    private final ObjectMapper cborObjectMapper;
+    private final ObjectWriter cborObjectWriter;
+    private final CsvFormat csvFormat;
+
+    public RecordStreamWriter(ObjectMapper objectMapper, MappingJackson2CborHttpMessageConverter cborConverter,
+                              CsvFormat csvFormat) {
+        this.objectMapper = objectMapper;
+        this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.cborObjectMapper = cborConverter.getObjectMapper();
+        this.cborObjectWriter = cborObjectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.csvFormat = csvFormat;
+    }
+
+    public <T, R> ResponseEntity<StreamingResponseBody> stream(Supplier<Stream<T>> source, Function<T, R> mapper) {
+        return stream(source, mapper, FieldSelection.ALL);
+    }
+
+    public <T, R> ResponseEntity<StreamingResponseBody> stream(Supplier<Stream<T>> source, Function<T, R> mapper,
+                                                               FieldSelection fields) {
+        return stream(source, mapper, fields, APPLICATION_NDJSON);
+    }
+
+    public <T, R> ResponseEntity<StreamingResponseBody> stream(Supplier<Stream<T>> source, Function<T, R> mapper,
+                                                               FieldSelection fields, MediaType contentType) {
+        StreamingResponseBody body = outputStream -> write(source, mapper, fields, contentType, outputStream);
+        return ResponseEntity.ok().contentType(contentType).body(body);
+    }
+
+    public <T, R> ResponseEntity<StreamingResponseBody> stream(Supplier<Stream<T>> source, Function<T, R> mapper,
+                                                               Class<R> type, MediaType contentType) {
+        StreamingResponseBody body = outputStream -> write(source, mapper, type, contentType, outputStream);
+        return ResponseEntity.ok().contentType(contentType).body(body);
+    }
+
+    public <T, R> ResponseEntity<Flux<byte[]>> stream(Flux<T> source, Function<T, R> mapper, Class<R> type,
+                                                      MediaType contentType) {
+        return ResponseEntity.ok().contentType(contentType).body(encode(source.map(mapper), type, contentType));
+    }
+
+    public <T, R> void write(Supplier<Stream<T>> source, Function<T, R> mapper, Class<R> type, MediaType contentType,
+                             OutputStream outputStream) throws IOException {
+        if (!CsvFormat.TEXT_CSV.isCompatibleWith(contentType)) {
+            write(source, mapper, FieldSelection.ALL, contentType, outputStream);
+            return;
+        }
+        try (Stream<T> stream = source.get();
+             SequenceWriter writer = csvFormat.writerFor(type).writeValues(outputStream)) {
+            Iterator<T> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                writer.write(mapper.apply(iterator.next()));
+            }
+        }
+    }
+
+    public <T, R> void write(Supplier<Stream<T>> source, Function<T, R> mapper, FieldSelection fields,
+                             OutputStream outputStream) throws IOException {
+        write(source, mapper, fields, APPLICATION_NDJSON, outputStream);
+    }
+
+    public <T, R> void write(Supplier<Stream<T>> source, Function<T, R> mapper, FieldSelection fields,
+                             MediaType contentType, OutputStream outputStream) throws IOException {
+        boolean cbor = BinaryFormatConfiguration.APPLICATION_CBOR_SEQ.isCompatibleWith(contentType);
+        ObjectWriter objectWriter = cbor ? this.cborObjectWriter : this.objectWriter;
+        if (!fields.isAll()) {
+            objectWriter = objectWriter.with(fields.toFilterProvider());
+        }
+        try (Stream<T> stream = source.get();
+             JsonGenerator generator = (cbor ? cborObjectMapper : objectMapper).getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            Iterator<T> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                objectWriter.writeValue(generator, mapper.apply(iterator.next()));
+                if (!cbor) {
+                    generator.writeRaw('\n');
+                }
+            }
+        }
+    }
+
+    private <R> Flux<byte[]> encode(Flux<R> records, Class<R> type, MediaType contentType) {
+        if (!CsvFormat.TEXT_CSV.isCompatibleWith(contentType)) {
+            return records.map(record -> {
+                byte[] json = writeValueAsBytes(objectWriter, record);
+                byte[] line = Arrays.copyOf(json, json.length + 1);
+                line[json.length] = '\n';
+                return line;
+            });
+        }
+        ObjectWriter headerWriter = csvFormat.writerFor(type);
+        ObjectWriter rowWriter = csvFormat.rowWriterFor(type);
+        return records.index().map(row -> writeValueAsBytes(row.getT1() == 0 ? headerWriter : rowWriter, row.getT2()));
+    }
+
+    private static byte[] writeValueAsBytes(ObjectWriter writer, Object value) {
+        try {
+            return writer.writeValueAsBytes(value);
+        } catch (JsonProcessingException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
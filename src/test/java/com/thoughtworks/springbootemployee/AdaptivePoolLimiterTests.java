@@ -0,0 +1,109 @@
+package com.thoughtworks.springbootemployee;
+
+import com.thoughtworks.springbootemployee.mongo.AdaptivePoolLimiter;
+import com.thoughtworks.springbootemployee.mongo.MongoDriverProperties;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptivePoolLimiterTests {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void should_grow_limit_when_adjust_given_limit_reached_and_short_checkout_waits() throws InterruptedException {
+        //given
+        AdaptivePoolLimiter limiter = limiter(2, 10);
+        limiter.tryAcquire(0);
+        limiter.tryAcquire(0);
+        //when
+        limiter.adjust(TimeUnit.MILLISECONDS.toNanos(1), 0.5);
+        //then
+        assertEquals(6, limiter.getLimit());
+        assertTrue(limiter.tryAcquire(0));
+    }
+
+    @Test
+    void should_keep_limit_when_adjust_given_limit_not_reached_and_short_checkout_waits() throws InterruptedException {
+        //given
+        AdaptivePoolLimiter limiter = limiter(2, 10);
+        limiter.tryAcquire(0);
+        //when
+        limiter.adjust(TimeUnit.MILLISECONDS.toNanos(1), 0.5);
+        //then
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void should_shrink_limit_to_min_size_when_adjust_given_long_checkout_waits() throws InterruptedException {
+        //given
+        AdaptivePoolLimiter limiter = limiter(2, 10);
+        limiter.tryAcquire(0);
+        limiter.tryAcquire(0);
+        limiter.adjust(0, 0);
+        //when
+        limiter.adjust(TimeUnit.MILLISECONDS.toNanos(50), 0);
+        //then
+        assertEquals(5, limiter.getLimit());
+        limiter.adjust(TimeUnit.MILLISECONDS.toNanos(50), 0);
+        limiter.adjust(TimeUnit.MILLISECONDS.toNanos(50), 0);
+        limiter.adjust(TimeUnit.MILLISECONDS.toNanos(50), 0);
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void should_shrink_limit_when_adjust_given_saturated_pool() throws InterruptedException {
+        //given
+        AdaptivePoolLimiter limiter = limiter(2, 10);
+        limiter.tryAcquire(0);
+        limiter.tryAcquire(0);
+        limiter.adjust(0, 0);
+        //when
+        limiter.adjust(0, 1.0);
+        //then
+        assertEquals(5, limiter.getLimit());
+    }
+
+    @Test
+    void should_reject_until_released_when_try_acquire_given_limit_reached() throws InterruptedException {
+        //given
+        AdaptivePoolLimiter limiter = limiter(1, 10);
+        limiter.tryAcquire(0);
+        //when
+        //then
+        assertFalse(limiter.tryAcquire(TimeUnit.MILLISECONDS.toNanos(10)));
+        limiter.release();
+        assertTrue(limiter.tryAcquire(0));
+    }
+
+    @Test
+    void should_shrink_limit_when_sample_given_long_checkout_waits_recorded_since_last_sample() throws InterruptedException {
+        //given
+        AdaptivePoolLimiter limiter = limiter(2, 10);
+        limiter.tryAcquire(0);
+        limiter.tryAcquire(0);
+        limiter.sample();
+        Timer checkOut = Timer.builder("mongodb.driver.pool.checkout").tag("outcome", "success").register(meterRegistry);
+        checkOut.record(50, TimeUnit.MILLISECONDS);
+        checkOut.record(30, TimeUnit.MILLISECONDS);
+        //when
+        limiter.sample();
+        //then
+        assertEquals(5, limiter.getLimit());
+        assertEquals(5.0, meterRegistry.get("mongodb.driver.pool.adaptive.limit").gauge().value());
+    }
+
+    private AdaptivePoolLimiter limiter(int minSize, int maxSize) {
+        MongoDriverProperties properties = new MongoDriverProperties();
+        properties.getPool().getAdaptive().setMinSize(minSize);
+        properties.getPool().getAdaptive().setMaxSize(maxSize);
+        properties.getPool().getAdaptive().setTargetWait(Duration.ofMillis(10));
+        return new AdaptivePoolLimiter(properties, meterRegistry);
+    }
+}
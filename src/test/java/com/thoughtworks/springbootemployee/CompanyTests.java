@@ -1,9 +1,13 @@
 package com.thoughtworks.springbootemployee;
 
 
+import com.thoughtworks.springbootemployee.concurrency.ChangeTracker;
+import com.thoughtworks.springbootemployee.concurrency.VersionMatch;
+import com.thoughtworks.springbootemployee.exception.PreconditionFailedException;
 import com.thoughtworks.springbootemployee.model.Company;
 import com.thoughtworks.springbootemployee.repository.CompanyRepository;
 import com.thoughtworks.springbootemployee.service.CompanyService;
+import com.thoughtworks.springbootemployee.stats.EmployeeStatsStore;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -17,8 +21,13 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,6 +37,10 @@ public class CompanyTests {
     private CompanyService companyService;
     @Mock
     private CompanyRepository companyRepository;
+    @Mock
+    private EmployeeStatsStore statsStore;
+    @Mock
+    private ChangeTracker changeTracker;
 
     @Test
     void should_return_company_when_add_company_given_no_company() {
@@ -100,7 +113,9 @@ public class CompanyTests {
     void should_return_updated_employees_when_get_employee_given_employees_employee_id() {
         //given
         Company company = new Company("My New Company1", 10000, new ArrayList<>());
-        when(companyRepository.existsById("1")).thenReturn(true);
+        Company foundCompany = new Company("My Company", 1000, new ArrayList<>());
+        foundCompany.setVersion(3L);
+        when(companyRepository.findById("1")).thenReturn(Optional.of(foundCompany));
         when(companyRepository.save(company)).thenReturn(company);
 
         //when
@@ -108,5 +123,20 @@ public class CompanyTests {
 
         //then
         assertEquals(company, actual);
+        assertEquals(3L, company.getVersion());
+    }
+
+    @Test
+    void should_throw_precondition_failed_when_update_company_given_stale_if_match() {
+        //given
+        Company company = new Company("My New Company1", 10000, new ArrayList<>());
+        Company foundCompany = new Company("My Company", 1000, new ArrayList<>());
+        foundCompany.setVersion(3L);
+        when(companyRepository.findById("1")).thenReturn(Optional.of(foundCompany));
+
+        //when
+        //then
+        assertThrows(PreconditionFailedException.class, () -> companyService.update("1", company, VersionMatch.parse("\"2\"")));
+        verify(companyRepository, never()).save(any());
     }
 }
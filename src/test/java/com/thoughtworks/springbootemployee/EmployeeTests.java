@@ -1,8 +1,15 @@
 package com.thoughtworks.springbootemployee;
 
+import com.thoughtworks.springbootemployee.concurrency.ChangeTracker;
+import com.thoughtworks.springbootemployee.dto.EmployeeFilterRequest;
+import com.thoughtworks.springbootemployee.exception.EmployeeNotFoundException;
 import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.paging.KeysetPage;
+import com.thoughtworks.springbootemployee.projection.FieldSelection;
 import com.thoughtworks.springbootemployee.repository.EmployeeRepository;
 import com.thoughtworks.springbootemployee.service.EmployeeService;
+import com.thoughtworks.springbootemployee.stats.EmployeeStatsStore;
+import org.bson.Document;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -12,12 +19,20 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +42,12 @@ class EmployeeTests {
     private EmployeeService employeeService;
     @Mock
     private EmployeeRepository employeeRepository;
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private EmployeeStatsStore statsStore;
+    @Mock
+    private ChangeTracker changeTracker;
 
     @Test
     void should_return_employees_when_add_employee_given_no_employees() {
@@ -108,6 +129,84 @@ class EmployeeTests {
 
     }
 
+    @Test
+    void should_return_first_2_employees_with_next_token_when_get_employee_after_given_3_employees_pageSize2() {
+        //given
+        Employee employee1 = new Employee("test", 18, 1000, "male");
+        employee1.setId("5f0c2b8a9d1e3a4b5c6d7e01");
+        Employee employee2 = new Employee("test", 18, 1000, "female");
+        employee2.setId("5f0c2b8a9d1e3a4b5c6d7e02");
+        Employee employee3 = new Employee("test", 18, 1000, "female");
+        employee3.setId("5f0c2b8a9d1e3a4b5c6d7e03");
+        when(mongoTemplate.find(any(Query.class), eq(Employee.class))).thenReturn(Arrays.asList(employee1, employee2, employee3));
+
+        //when
+        final KeysetPage<Employee> actual = employeeService.getAllAfter(null, 2);
+
+        //then
+        assertEquals(Arrays.asList(employee1, employee2), actual.getContent());
+        assertNotNull(actual.getNext());
+    }
+
+    @Test
+    void should_return_last_employee_without_next_token_when_get_employee_after_given_last_page() {
+        //given
+        Employee employee = new Employee("test", 18, 1000, "male");
+        employee.setId("5f0c2b8a9d1e3a4b5c6d7e03");
+        when(mongoTemplate.find(any(Query.class), eq(Employee.class))).thenReturn(Collections.singletonList(employee));
+
+        //when
+        final KeysetPage<Employee> actual = employeeService.getAllAfter("Xwwrip0eOktcbX4C", 2);
+
+        //then
+        assertEquals(Collections.singletonList(employee), actual.getContent());
+        assertNull(actual.getNext());
+    }
+
+    @Test
+    void should_throw_illegal_argument_when_get_employee_after_given_page_size_over_max() {
+        //given
+        //when
+        //then
+        assertThrows(IllegalArgumentException.class,
+                () -> employeeService.getAllAfter(null, KeysetPage.DEFAULT_MAX_PAGE_SIZE + 1));
+        assertThrows(IllegalArgumentException.class, () -> employeeService.getAllAfter(null, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void should_query_ranges_sorted_by_salary_then_id_when_filter_employees_given_gender_age_salary_and_sort() {
+        //given
+        Employee employee = new Employee("test", 30, 9000, "female");
+        employee.setId("5f0c2b8a9d1e3a4b5c6d7e01");
+        when(mongoTemplate.find(any(Query.class), eq(Employee.class))).thenReturn(Arrays.asList(employee, employee));
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+
+        //when
+        final KeysetPage<Employee> actual = employeeService.filter(
+                new EmployeeFilterRequest("female", 25, 35, 8000, null, "salary,desc", 1, null), FieldSelection.ALL);
+
+        //then
+        verify(mongoTemplate).find(query.capture(), eq(Employee.class));
+        assertEquals(new Document("gender", "female")
+                        .append("age", new Document("$gte", 25).append("$lte", 35))
+                        .append("salary", new Document("$gte", 8000)),
+                query.getValue().getQueryObject());
+        assertEquals(new Document("salary", -1).append("id", -1), query.getValue().getSortObject());
+        assertEquals(2, query.getValue().getLimit());
+        assertEquals(Collections.singletonList(employee), actual.getContent());
+        assertNotNull(actual.getNext());
+    }
+
+    @Test
+    void should_throw_illegal_argument_when_filter_employees_given_unsupported_sort_key() {
+        //given
+        EmployeeFilterRequest filter = new EmployeeFilterRequest(null, null, null, null, null, "name,asc", null, null);
+
+        //when
+        //then
+        assertThrows(IllegalArgumentException.class, () -> employeeService.filter(filter, FieldSelection.ALL));
+    }
+
     @Test
     void should_return_updated_employee_when_updated_employee_given_employees_new_employee() {
         //given
@@ -126,18 +225,78 @@ class EmployeeTests {
 
     }
 
+    @Test
+    void should_update_stats_store_with_saved_figures_when_update_employee_given_employee() {
+        //given
+        Employee foundEmployee = new Employee("test", 18, 1000, "male");
+        foundEmployee.setId("1");
+        when(employeeRepository.findById("1")).thenReturn(java.util.Optional.of(foundEmployee));
+        when(employeeRepository.save(foundEmployee)).thenReturn(foundEmployee);
+        final ArgumentCaptor<Employee> employeeArgumentCaptor = ArgumentCaptor.forClass(Employee.class);
+
+        //when
+        employeeService.update("1", new Employee("test", 20, 3000, "female"));
+
+        //then
+        verify(statsStore, times(1)).employeeSaved(employeeArgumentCaptor.capture());
+        assertEquals("1", employeeArgumentCaptor.getValue().getId());
+        assertEquals("female", employeeArgumentCaptor.getValue().getGender());
+        assertEquals(3000, employeeArgumentCaptor.getValue().getSalary());
+        assertEquals(20, employeeArgumentCaptor.getValue().getAge());
+    }
+
+    @Test
+    void should_return_modified_employee_and_keep_request_update_when_patch_employee_given_update() {
+        //given
+        Employee modifiedEmployee = new Employee("testA", 18, 1500, "male");
+        modifiedEmployee.setId("1");
+        Update update = new Update().set("name", "testA").inc("salary", 500);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Employee.class)))
+                .thenReturn(modifiedEmployee);
+        final ArgumentCaptor<Update> updateArgumentCaptor = ArgumentCaptor.forClass(Update.class);
+        final ArgumentCaptor<FindAndModifyOptions> optionsArgumentCaptor = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+
+        //when
+        final Employee actual = employeeService.patch("1", update);
+
+        //then
+        assertEquals(modifiedEmployee, actual);
+        verify(mongoTemplate, times(1)).findAndModify(any(Query.class), updateArgumentCaptor.capture(),
+                optionsArgumentCaptor.capture(), eq(Employee.class));
+        assertTrue(optionsArgumentCaptor.getValue().isReturnNew());
+        assertEquals(new Document("salary", 500).append("version", 1L),
+                updateArgumentCaptor.getValue().getUpdateObject().get("$inc"));
+        assertEquals(new Document("salary", 500), update.getUpdateObject().get("$inc"));
+        verify(statsStore, times(1)).employeeSaved(actual);
+    }
+
+    @Test
+    void should_throw_not_found_when_patch_employee_given_missing_employee() {
+        //given
+        Update update = new Update().set("name", "testA");
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Employee.class)))
+                .thenReturn(null);
+
+        //when
+        //then
+        assertThrows(EmployeeNotFoundException.class, () -> employeeService.patch("1", update));
+    }
+
     @Test
     void should_return_null_when_delete_employee_given_employees_new_employee() {
         //given
         Employee employee = new Employee("test", 18, 1000, "male");
+        employee.setId("1");
+        when(employeeRepository.save(employee)).thenReturn(employee);
         employeeService.add(employee);
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(Employee.class))).thenReturn(employee);
 
         //when
         employeeService.remove("1");
-        final ArgumentCaptor<Employee> employeeArgumentCaptor = ArgumentCaptor.forClass(Employee.class);
 
         //then
-        verify(employeeRepository, times(1)).deleteById("1");
+        verify(mongoTemplate, times(1)).findAndRemove(any(Query.class), eq(Employee.class));
+        verify(statsStore, times(1)).employeeRemoved("1");
 
     }
 }
@@ -0,0 +1,125 @@
+package com.thoughtworks.springbootemployee;
+
+import com.thoughtworks.springbootemployee.concurrency.ChangeTracker;
+import com.thoughtworks.springbootemployee.dto.BatchResponse;
+import com.thoughtworks.springbootemployee.exception.IngestQueueFullException;
+import com.thoughtworks.springbootemployee.ingest.EmployeeWriteBehindQueue;
+import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.service.BulkWriter;
+import com.thoughtworks.springbootemployee.stats.EmployeeStatsStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class EmployeeWriteBehindQueueTests {
+    private final BulkWriter bulkWriter = mock(BulkWriter.class);
+    private final ChangeTracker changeTracker = mock(ChangeTracker.class);
+    private final EmployeeStatsStore statsStore = mock(EmployeeStatsStore.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private EmployeeWriteBehindQueue queue;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (queue != null) {
+            queue.destroy();
+        }
+    }
+
+    @Test
+    void should_insert_queued_employees_in_one_batch_when_submit_given_batch_size_reached() {
+        //given
+        queue = start(10, 3, Duration.ofSeconds(5));
+        when(bulkWriter.insertWithIds(eq(Employee.class), anyList(), any())).thenAnswer(invocation -> succeeded(invocation.getArgument(1)));
+        //when
+        Employee employee = queue.submit(new Employee("Victor", 18, 1000, "male"));
+        queue.submit(new Employee("Mary", 19, 2000, "female"));
+        queue.submit(new Employee("Lily", 20, 3000, "female"));
+        //then
+        assertNotNull(employee.getId());
+        verify(bulkWriter, timeout(2000)).insertWithIds(eq(Employee.class), argThat(batch -> batch.size() == 3), any());
+        verify(statsStore, timeout(2000)).employeesSaved(argThat(batch -> batch.size() == 3));
+        verify(changeTracker, timeout(2000)).documentSaved(Employee.class, employee.getId(), 0L);
+        assertEquals(1, meterRegistry.get("ingest.batch.size").summary().count());
+        assertEquals(3, meterRegistry.get("ingest.batch.size").summary().totalAmount());
+    }
+
+    @Test
+    void should_flush_partial_batch_when_submit_given_flush_interval_elapsed() {
+        //given
+        queue = start(10, 100, Duration.ofMillis(20));
+        when(bulkWriter.insertWithIds(eq(Employee.class), anyList(), any())).thenAnswer(invocation -> succeeded(invocation.getArgument(1)));
+        //when
+        queue.submit(new Employee("Victor", 18, 1000, "male"));
+        //then
+        verify(bulkWriter, timeout(2000)).insertWithIds(eq(Employee.class), argThat(batch -> batch.size() == 1), any());
+    }
+
+    @Test
+    void should_reject_when_submit_given_queue_full() throws InterruptedException {
+        //given
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        queue = start(1, 1, Duration.ofMillis(20));
+        when(bulkWriter.insertWithIds(eq(Employee.class), anyList(), any())).thenAnswer(invocation -> {
+            flushing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return succeeded(invocation.getArgument(1));
+        });
+        queue.submit(new Employee("Victor", 18, 1000, "male"));
+        flushing.await(5, TimeUnit.SECONDS);
+        queue.submit(new Employee("Mary", 19, 2000, "female"));
+        //when
+        //then
+        assertThrows(IngestQueueFullException.class, () -> queue.submit(new Employee("Lily", 20, 3000, "female")));
+        assertEquals(1.0, meterRegistry.get("ingest.rejected").counter().count());
+        release.countDown();
+    }
+
+    @Test
+    void should_write_every_accepted_employee_when_destroy_given_employees_still_queued() throws InterruptedException {
+        //given
+        queue = start(10, 2, Duration.ofSeconds(5));
+        when(bulkWriter.insertWithIds(eq(Employee.class), anyList(), any())).thenAnswer(invocation -> succeeded(invocation.getArgument(1)));
+        queue.submit(new Employee("Victor", 18, 1000, "male"));
+        queue.submit(new Employee("Mary", 19, 2000, "female"));
+        queue.submit(new Employee("Lily", 20, 3000, "female"));
+        //when
+        queue.destroy();
+        //then
+        assertEquals(0, queue.size());
+        assertEquals(3, meterRegistry.get("ingest.batch.size").summary().totalAmount());
+        assertThrows(IngestQueueFullException.class, () -> queue.submit(new Employee("Mandy", 21, 4000, "female")));
+    }
+
+    private EmployeeWriteBehindQueue start(int capacity, int batchSize, Duration flushInterval) {
+        EmployeeWriteBehindQueue writeBehindQueue = new EmployeeWriteBehindQueue(bulkWriter, changeTracker, statsStore,
+                meterRegistry, capacity, batchSize, flushInterval);
+        writeBehindQueue.afterPropertiesSet();
+        return writeBehindQueue;
+    }
+
+    private static BatchResponse succeeded(List<Employee> employees) {
+        BatchResponse response = new BatchResponse();
+        for (int i = 0; i < employees.size(); i++) {
+            response.addSuccess(i, employees.get(i).getId());
+        }
+        return response;
+    }
+}
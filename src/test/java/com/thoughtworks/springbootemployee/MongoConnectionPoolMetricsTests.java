@@ -0,0 +1,82 @@
+package com.thoughtworks.springbootemployee;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionId;
+import com.mongodb.connection.ConnectionPoolSettings;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolClearedEvent;
+import com.mongodb.event.ConnectionPoolCreatedEvent;
+import com.thoughtworks.springbootemployee.metrics.MongoConnectionPoolMetrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class MongoConnectionPoolMetricsTests {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MongoConnectionPoolMetrics metrics = new MongoConnectionPoolMetrics(meterRegistry);
+    private final ServerId serverId = new ServerId(new ClusterId(), new ServerAddress());
+
+    @Test
+    void should_record_checkout_wait_when_checkout_completes_on_same_thread_given_started_checkout() {
+        //given
+        metrics.connectionPoolCreated(new ConnectionPoolCreatedEvent(serverId, ConnectionPoolSettings.builder().maxSize(10).build()));
+        metrics.connectionCheckOutStarted(new ConnectionCheckOutStartedEvent(serverId));
+
+        //when
+        metrics.connectionCheckedOut(new ConnectionCheckedOutEvent(new ConnectionId(serverId)));
+
+        //then
+        Timer checkout = meterRegistry.get("mongodb.driver.pool.checkout").tag("outcome", "success").timer();
+        assertEquals(1, checkout.count());
+        assertEquals(0.0, meterRegistry.get("mongodb.driver.pool.waitqueuesize").gauge().value());
+        assertEquals(1.0, meterRegistry.get("mongodb.driver.pool.checkedout").gauge().value());
+    }
+
+    @Test
+    void should_only_update_gauges_when_checkout_completes_on_another_thread_given_started_checkout() throws InterruptedException {
+        //given
+        metrics.connectionPoolCreated(new ConnectionPoolCreatedEvent(serverId, ConnectionPoolSettings.builder().maxSize(10).build()));
+        metrics.connectionCheckOutStarted(new ConnectionCheckOutStartedEvent(serverId));
+
+        //when
+        Thread completion = new Thread(() -> metrics.connectionCheckedOut(new ConnectionCheckedOutEvent(new ConnectionId(serverId))));
+        completion.start();
+        completion.join();
+
+        //then
+        assertEquals(0, meterRegistry.find("mongodb.driver.pool.checkout").timers().size());
+        assertEquals(0.0, meterRegistry.get("mongodb.driver.pool.waitqueuesize").gauge().value());
+        assertEquals(1.0, meterRegistry.get("mongodb.driver.pool.checkedout").gauge().value());
+    }
+
+    @Test
+    void should_not_record_checkout_wait_when_checkout_completes_given_pool_cleared_after_start() {
+        //given
+        metrics.connectionPoolCreated(new ConnectionPoolCreatedEvent(serverId, ConnectionPoolSettings.builder().maxSize(10).build()));
+        metrics.connectionCheckOutStarted(new ConnectionCheckOutStartedEvent(serverId));
+        metrics.connectionPoolCleared(new ConnectionPoolClearedEvent(serverId));
+
+        //when
+        metrics.connectionCheckedOut(new ConnectionCheckedOutEvent(new ConnectionId(serverId)));
+
+        //then
+        assertEquals(0, meterRegistry.find("mongodb.driver.pool.checkout").timers().size());
+    }
+
+    @Test
+    void should_not_record_checkout_wait_when_checkout_completes_given_no_started_checkout() {
+        //given
+        metrics.connectionPoolCreated(new ConnectionPoolCreatedEvent(serverId, ConnectionPoolSettings.builder().maxSize(10).build()));
+
+        //when
+        metrics.connectionCheckedOut(new ConnectionCheckedOutEvent(new ConnectionId(serverId)));
+
+        //then
+        assertEquals(0, meterRegistry.find("mongodb.driver.pool.checkout").timers().size());
+    }
+}
@@ -0,0 +1,73 @@
+package com.thoughtworks.springbootemployee;
+
+import com.thoughtworks.springbootemployee.concurrency.ReactiveSingleFlight;
+import com.thoughtworks.springbootemployee.exception.EmployeeNotFoundException;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReactiveSingleFlightTests {
+
+    @Test
+    void should_subscribe_loader_once_when_execute_given_concurrent_subscribers_for_same_key() throws Exception {
+        //given
+        ReactiveSingleFlight<String, String> singleFlight = new ReactiveSingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        MonoProcessor<String> release = MonoProcessor.create();
+        //when
+        CompletableFuture<String> leader = singleFlight.execute("1", () -> {
+            calls.incrementAndGet();
+            return release;
+        }).toFuture();
+        CompletableFuture<String> follower = singleFlight.execute("1", () -> {
+            calls.incrementAndGet();
+            return Mono.just("other");
+        }).toFuture();
+        release.onNext("employee");
+        //then
+        assertEquals("employee", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("employee", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void should_signal_leader_error_when_execute_given_follower_waiting() {
+        //given
+        ReactiveSingleFlight<String, String> singleFlight = new ReactiveSingleFlight<>();
+        MonoProcessor<String> release = MonoProcessor.create();
+        CompletableFuture<String> leader = singleFlight.execute("1", () -> release).toFuture();
+        //when
+        CompletableFuture<String> follower = singleFlight.execute("1", () -> Mono.just("other")).toFuture();
+        release.onError(new EmployeeNotFoundException());
+        //then
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof EmployeeNotFoundException);
+        assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void should_subscribe_own_loader_when_execute_given_leader_slower_than_max_wait() throws Exception {
+        //given
+        ReactiveSingleFlight<String, String> singleFlight = new ReactiveSingleFlight<>(Duration.ofMillis(50));
+        MonoProcessor<String> release = MonoProcessor.create();
+        CompletableFuture<String> leader = singleFlight.execute("1", () -> release).toFuture();
+        //when
+        String result = singleFlight.execute("1", () -> Mono.just("fallback")).block(Duration.ofSeconds(5));
+        //then
+        assertEquals("fallback", result);
+        release.onNext("employee");
+        assertEquals("employee", leader.get(5, TimeUnit.SECONDS));
+    }
+}
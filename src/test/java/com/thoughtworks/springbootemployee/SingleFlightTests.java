@@ -0,0 +1,106 @@
+package com.thoughtworks.springbootemployee;
+
+import com.thoughtworks.springbootemployee.concurrency.SingleFlight;
+import com.thoughtworks.springbootemployee.exception.EmployeeNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SingleFlightTests {
+
+    @Test
+    void should_call_loader_once_when_execute_given_concurrent_calls_for_same_key() throws Exception {
+        //given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        //when
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("1", () -> {
+            calls.incrementAndGet();
+            await(release);
+            return "employee";
+        }), executor);
+        waitUntilInFlight(singleFlight);
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> singleFlight.execute("1", () -> {
+            calls.incrementAndGet();
+            return "other";
+        }), executor);
+        Thread.sleep(100);
+        release.countDown();
+        //then
+        assertEquals("employee", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("employee", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+        assertEquals(0, singleFlight.inFlightCount());
+        executor.shutdown();
+    }
+
+    @Test
+    void should_rethrow_leader_exception_when_execute_given_follower_waiting() throws Exception {
+        //given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("1", () -> {
+            await(release);
+            throw new EmployeeNotFoundException();
+        }), executor);
+        waitUntilInFlight(singleFlight);
+        //when
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> singleFlight.execute("1", () -> "other"), executor);
+        Thread.sleep(100);
+        release.countDown();
+        //then
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof EmployeeNotFoundException);
+        assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+
+    @Test
+    void should_call_own_loader_when_execute_given_leader_slower_than_max_wait() throws Exception {
+        //given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("1", () -> {
+            await(release);
+            return "employee";
+        }), executor);
+        waitUntilInFlight(singleFlight);
+        //when
+        String result = singleFlight.execute("1", () -> "fallback");
+        //then
+        assertEquals("fallback", result);
+        release.countDown();
+        assertEquals("employee", leader.get(5, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+
+    private static void waitUntilInFlight(SingleFlight<?, ?> singleFlight) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.inFlightCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,56 +1,117 @@
 package com.thoughtworks.springbootemployee.integration;
 
 import com.thoughtworks.springbootemployee.model.Company;
+import com.thoughtworks.springbootemployee.model.Employee;
 import com.thoughtworks.springbootemployee.repository.CompanyRepository;
+import com.thoughtworks.springbootemployee.repository.EmployeeRepository;
 import org.bson.types.ObjectId;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
-import org.springframework.test.web.servlet.MockMvc;
-import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
-import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public abstract class CompanyIntegrationTest {
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+    static class Servlet extends CompanyIntegrationTest {
+    }
+
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+    @ActiveProfiles("reactive")
+    static class Reactive extends CompanyIntegrationTest {
+    }
+
+    @Autowired
+    WebTestClient webTestClient;
 
-@SpringBootTest
-@AutoConfigureMockMvc
-public class CompanyIntegrationTest {
     @Autowired
-    MockMvc mockMvc;
+    CompanyRepository companyRepository;
 
     @Autowired
-    private CompanyRepository companyRepository;
+    EmployeeRepository employeeRepository;
 
     @AfterEach
     void tearDown() {
         companyRepository.deleteAll();
+        employeeRepository.deleteAll();
     }
 
     @Test
-    public void should_return_all_companies_when_get_all_companies_given_companies() throws Exception {
+    public void should_return_all_companies_when_get_all_companies_given_companies() {
         //given
         Company company = new Company("ABC Company", 1000, new ArrayList<>());
         companyRepository.save(company);
         //when
         //then
-        mockMvc.perform(MockMvcRequestBuilders.get("/companies"))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").isString())
-                .andExpect(jsonPath("$[0].name").value("ABC Company"))
-                .andExpect(jsonPath("$[0].employeeNumber").value(1000))
-                .andExpect(jsonPath("$[0].employees", hasSize(0)));
+        webTestClient.get().uri("/companies")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].id").isNotEmpty()
+                .jsonPath("$[0].name").isEqualTo("ABC Company")
+                .jsonPath("$[0].employeeNumber").isEqualTo(1000)
+                .jsonPath("$[0].employees.length()").isEqualTo(0);
+    }
+
+    @Test
+    public void should_stream_all_companies_as_ndjson_when_get_all_companies_given_companies_and_accept_ndjson() {
+        //given
+        companyRepository.save(new Company("ABC Company", 1000, new ArrayList<>()));
+        companyRepository.save(new Company("ABCD Company", 1100, new ArrayList<>()));
+        //when
+        String body = webTestClient.get().uri("/companies")
+                .accept(MediaType.parseMediaType("application/x-ndjson"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.parseMediaType("application/x-ndjson"))
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+        //then
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"name\":\"ABC Company\""));
+        assertTrue(lines[1].contains("\"name\":\"ABCD Company\""));
+    }
+
+    @Test
+    public void should_restore_companies_when_import_given_csv_export() {
+        //given
+        Company company = companyRepository.save(new Company("ABC Company", 1000, Arrays.asList("1", "2")));
+        String companiesAsCsv = webTestClient.get().uri("/companies/export")
+                .accept(MediaType.parseMediaType("text/csv"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+        companyRepository.deleteAll();
+        //when
+        webTestClient.post().uri("/companies/import")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .bodyValue(companiesAsCsv)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.succeeded").isEqualTo(1);
+        //then
+        Company imported = companyRepository.findById(company.getId()).orElseThrow(IllegalStateException::new);
+        assertEquals("ABC Company", imported.getName());
+        assertEquals(1000, imported.getEmployeeNumber());
+        assertEquals(Arrays.asList("1", "2"), imported.getEmployees());
     }
 
     @Test
-    public void should_return_company_when_create_company_given_company() throws Exception {
+    public void should_return_company_when_create_company_given_company() {
         //given
         String companyAsJson = "{\n" +
                 "    \"name\" : \"ABC Company\",\n" +
@@ -61,14 +122,16 @@ public class CompanyIntegrationTest {
                 "}";
         //when
         //then
-        mockMvc.perform(MockMvcRequestBuilders.post("/companies")
+        webTestClient.post().uri("/companies")
                 .contentType(MediaType.APPLICATION_JSON)
-                .content(companyAsJson))
-                .andExpect(status().isCreated())
-                .andExpect(jsonPath("$.id").isString())
-                .andExpect(jsonPath("$.name").value("ABC Company"))
-                .andExpect(jsonPath("$.employeeNumber").value(1200))
-                .andExpect(jsonPath("$.employees", hasSize(1)));
+                .bodyValue(companyAsJson)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.id").isNotEmpty()
+                .jsonPath("$.name").isEqualTo("ABC Company")
+                .jsonPath("$.employeeNumber").isEqualTo(1200)
+                .jsonPath("$.employees.length()").isEqualTo(1);
 
         List<Company> companyList = companyRepository.findAll();
         assertEquals(1, companyList.size());
@@ -78,30 +141,49 @@ public class CompanyIntegrationTest {
     }
 
     @Test
-    public void should_return_specific_company_when_get_company_given_company_id() throws Exception {
+    public void should_return_specific_company_when_get_company_given_company_id() {
+        //given
+        Company company = companyRepository.save(new Company("ABC Company", 1000, new ArrayList<>()));
+        //when
+        //then
+        webTestClient.get().uri("/companies/" + company.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isNotEmpty()
+                .jsonPath("$.name").isEqualTo("ABC Company")
+                .jsonPath("$.employeeNumber").isEqualTo(1000)
+                .jsonPath("$.employees.length()").isEqualTo(0);
+    }
+
+    @Test
+    public void should_return_only_selected_fields_when_get_company_given_company_id_and_fields() {
         //given
         Company company = companyRepository.save(new Company("ABC Company", 1000, new ArrayList<>()));
         //when
         //then
-        mockMvc.perform(MockMvcRequestBuilders.get("/companies/" + company.getId()))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.id").isString())
-                .andExpect(jsonPath("$.name").value("ABC Company"))
-                .andExpect(jsonPath("$.employeeNumber").value(1000))
-                .andExpect(jsonPath("$.employees", hasSize(0)));
+        webTestClient.get().uri("/companies/" + company.getId() + "?fields=name")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(company.getId())
+                .jsonPath("$.name").isEqualTo("ABC Company")
+                .jsonPath("$.employeeNumber").doesNotExist()
+                .jsonPath("$.employees").doesNotExist();
     }
 
     @Test
-    public void should_return_not_found_when_get_company_given_invalid_company_id() throws Exception {
+    public void should_return_not_found_when_get_company_given_invalid_company_id() {
         //given
         //when
         //then
-        mockMvc.perform(MockMvcRequestBuilders.get("/companies/" + "6fc9d0e060e64c0326fd2e92"))
-                .andExpect(status().isNotFound());
+        webTestClient.get().uri("/companies/" + "6fc9d0e060e64c0326fd2e92")
+                .exchange()
+                .expectStatus().isNotFound();
     }
 
     @Test
-    public void should_return_specific_company_employee_list_when_get_company_employee_list_given_company_id() throws Exception {
+    public void should_return_specific_company_employee_list_when_get_company_employee_list_given_company_id() {
         //given
         List<String> expected = new ArrayList<>();
         String employeeId1 = new ObjectId().toString();
@@ -113,28 +195,192 @@ public class CompanyIntegrationTest {
         Company company = companyRepository.save(new Company("ABC Company", 1000, expected));
         //when
         //then
-        mockMvc.perform(MockMvcRequestBuilders.get("/companies/" + company.getId() + "/employees"))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.*", hasSize(2)));
+        webTestClient.get().uri("/companies/" + company.getId() + "/employees")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2);
+    }
+
+    @Test
+    public void should_return_employee_details_in_roster_order_when_get_company_employee_list_given_expand() {
+        //given
+        Employee employee1 = employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
+        Employee employee2 = employeeRepository.save(new Employee("Mary", 19, 2000, "female"));
+        Company company = companyRepository.save(new Company("ABC Company", 1000,
+                Arrays.asList(employee2.getId(), new ObjectId().toString(), employee1.getId())));
+        //when
+        //then
+        webTestClient.get().uri("/companies/" + company.getId() + "/employees?expand=true")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].id").isEqualTo(employee2.getId())
+                .jsonPath("$[0].name").isEqualTo("Mary")
+                .jsonPath("$[1].id").isEqualTo(employee1.getId())
+                .jsonPath("$[1].name").isEqualTo("Victor");
+    }
+
+    @Test
+    public void should_return_stats_of_company_employees_only_when_get_company_stats_given_company_id() {
+        //given
+        Employee employee1 = employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
+        Employee employee2 = employeeRepository.save(new Employee("Mary", 22, 3000, "female"));
+        employeeRepository.save(new Employee("Mandy", 40, 9000, "female"));
+        Company company = companyRepository.save(new Company("ABC Company", 2,
+                Arrays.asList(employee1.getId(), employee2.getId())));
+        //when
+        //then
+        webTestClient.get().uri("/companies/" + company.getId() + "/stats")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].count").isEqualTo(2)
+                .jsonPath("$[0].salary.sum").isEqualTo(4000)
+                .jsonPath("$[0].salary.max").isEqualTo(3000)
+                .jsonPath("$[0].age.average").isEqualTo(20.0);
+    }
+
+    @Test
+    public void should_add_member_once_when_put_company_employee_twice_given_company() {
+        //given
+        String employeeId = new ObjectId().toString();
+        Company company = companyRepository.save(new Company("ABC Company", 1, new ArrayList<>(Arrays.asList("123"))));
+        //when
+        webTestClient.put().uri("/companies/" + company.getId() + "/employees/" + employeeId)
+                .exchange()
+                .expectStatus().isOk();
+        //then
+        webTestClient.put().uri("/companies/" + company.getId() + "/employees/" + employeeId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.employees.length()").isEqualTo(2)
+                .jsonPath("$.employees[1]").isEqualTo(employeeId);
     }
 
     @Test
-    public void should_return_first_2_employee_when_get_employee_by_page_given_employees_page1_pageSize2() throws Exception {
+    public void should_follow_membership_and_removals_when_get_materialized_company_stats_given_rebuilt_stats() {
+        //given
+        Employee employee1 = employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
+        Employee employee2 = employeeRepository.save(new Employee("Mary", 22, 3000, "female"));
+        Company company = companyRepository.save(new Company("ABC Company", 1,
+                new ArrayList<>(Collections.singletonList(employee1.getId()))));
+        webTestClient.post().uri("/stats/rebuild")
+                .exchange()
+                .expectStatus().isNoContent();
+        //when
+        webTestClient.put().uri("/companies/" + company.getId() + "/employees/" + employee2.getId())
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.delete().uri("/employees/" + employee1.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+        //then
+        webTestClient.get().uri("/stats/companies/" + company.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.count").isEqualTo(1)
+                .jsonPath("$.salarySum").isEqualTo(3000);
+    }
+
+    @Test
+    public void should_remove_member_when_delete_company_employee_given_company() {
+        //given
+        Company company = companyRepository.save(new Company("ABC Company", 2, new ArrayList<>(Arrays.asList("123", "456"))));
+        //when
+        //then
+        webTestClient.delete().uri("/companies/" + company.getId() + "/employees/123")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.employees.length()").isEqualTo(1)
+                .jsonPath("$.employees[0]").isEqualTo("456");
+        assertEquals(Collections.singletonList("456"), companyRepository.findById(company.getId()).get().getEmployees());
+    }
+
+    @Test
+    public void should_set_and_increment_only_supplied_fields_when_patch_company_given_company() {
+        //given
+        Company company = companyRepository.save(new Company("ABC Company", 2, new ArrayList<>(Arrays.asList("123", "456"))));
+        String patchAsJson = "{ \"name\" : \"ABCD Company\", \"increment\" : { \"employeeNumber\" : 1 } }";
+        //when
+        //then
+        webTestClient.patch().uri("/companies/" + company.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(patchAsJson)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("ABCD Company")
+                .jsonPath("$.employeeNumber").isEqualTo(3)
+                .jsonPath("$.employees.length()").isEqualTo(2);
+    }
+
+    @Test
+    public void should_return_not_modified_until_employee_added_when_get_company_given_current_etag() {
+        //given
+        Company company = companyRepository.save(new Company("ABC Company", 1000, new ArrayList<>()));
+        String etag = webTestClient.get().uri("/companies/" + company.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseHeaders().getETag();
+        //when
+        //then
+        webTestClient.get().uri("/companies/" + company.getId())
+                .header("If-None-Match", etag)
+                .exchange()
+                .expectStatus().isNotModified();
+        webTestClient.put().uri("/companies/" + company.getId() + "/employees/employee-1")
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.get().uri("/companies/" + company.getId())
+                .header("If-None-Match", etag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.employees.length()").isEqualTo(1);
+    }
+
+    @Test
+    public void should_return_precondition_failed_when_update_company_given_stale_if_match() {
+        //given
+        Company company = companyRepository.save(new Company("ABC Company", 1000, new ArrayList<>()));
+        long staleVersion = company.getVersion();
+        companyRepository.save(company);
+        String companyAsJson = "{ \"name\" : \"ABCD Company\", \"employeeNumber\" : 1200, \"employees\" : [] }";
+        //when
+        //then
+        webTestClient.put().uri("/companies/" + company.getId())
+                .header("If-Match", "\"" + staleVersion + "\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(companyAsJson)
+                .exchange()
+                .expectStatus().isEqualTo(412);
+        assertEquals("ABC Company", companyRepository.findById(company.getId()).get().getName());
+    }
+
+    @Test
+    public void should_return_first_2_employee_when_get_employee_by_page_given_employees_page1_pageSize2() {
         //given
         companyRepository.save(new Company("ABC Company", 1000, new ArrayList<>()));
         companyRepository.save(new Company("ABCD Company", 1100, new ArrayList<>()));
         companyRepository.save(new Company("AB Company", 100, new ArrayList<>()));
         //when
         //then
-        mockMvc.perform(MockMvcRequestBuilders.get("/companies")
-                .param("page", "1")
-                .param("pageSize", "2"))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.*", hasSize(2)));
+        webTestClient.get().uri("/companies?page=1&pageSize=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2);
     }
 
     @Test
-    public void should_return_updated_company_when_update_company_given_company_company_id() throws Exception {
+    public void should_return_updated_company_when_update_company_given_company_company_id() {
         //given
         Company company = companyRepository.save(new Company("ABC Company", 1000, new ArrayList<>()));
         String companyAsJson = "{\n" +
@@ -146,14 +392,16 @@ public class CompanyIntegrationTest {
                 "}";
         //when
         //then
-        mockMvc.perform(MockMvcRequestBuilders.put("/companies/" + company.getId())
+        webTestClient.put().uri("/companies/" + company.getId())
                 .contentType(MediaType.APPLICATION_JSON)
-                .content(companyAsJson))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.id").isString())
-                .andExpect(jsonPath("$.name").value("ABCD Company"))
-                .andExpect(jsonPath("$.employeeNumber").value(1200))
-                .andExpect(jsonPath("$.employees", hasSize(1)));
+                .bodyValue(companyAsJson)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isNotEmpty()
+                .jsonPath("$.name").isEqualTo("ABCD Company")
+                .jsonPath("$.employeeNumber").isEqualTo(1200)
+                .jsonPath("$.employees.length()").isEqualTo(1);
 
         List<Company> companyList = companyRepository.findAll();
         assertEquals(1, companyList.size());
@@ -163,7 +411,7 @@ public class CompanyIntegrationTest {
     }
 
     @Test
-    public void should_return_not_found_when_update_company_given_company_invalid_company_id() throws Exception {
+    public void should_return_not_found_when_update_company_given_company_invalid_company_id() {
         //given
         String companyAsJson = "{\n" +
                 "    \"name\" : \"ABCD Company\",\n" +
@@ -174,21 +422,66 @@ public class CompanyIntegrationTest {
                 "}";
         //when
         //then
-        mockMvc.perform(MockMvcRequestBuilders.put("/companies/" + "6fc9d0e060e64c0326fd2e92")
+        webTestClient.put().uri("/companies/" + "6fc9d0e060e64c0326fd2e92")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(companyAsJson)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void should_update_only_supplied_fields_when_update_companies_in_batch_given_company_ids() {
+        //given
+        Company company1 = companyRepository.save(new Company("ABC Company", 1000, new ArrayList<>()));
+        Company company2 = companyRepository.save(new Company("ABCD Company", 1100, new ArrayList<>()));
+        String updatesAsJson = "[\n" +
+                "    {\"id\" : \"" + company1.getId() + "\", \"employeeNumber\" : 2000},\n" +
+                "    {\"id\" : \"" + company2.getId() + "\", \"name\" : \"XYZ Company\"}\n" +
+                "]";
+        //when
+        //then
+        webTestClient.patch().uri("/companies/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(updatesAsJson)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.succeeded").isEqualTo(2)
+                .jsonPath("$.failed").isEqualTo(0);
+        assertEquals("ABC Company", companyRepository.findById(company1.getId()).get().getName());
+        assertEquals(2000, companyRepository.findById(company1.getId()).get().getEmployeeNumber());
+        assertEquals("XYZ Company", companyRepository.findById(company2.getId()).get().getName());
+        assertEquals(1100, companyRepository.findById(company2.getId()).get().getEmployeeNumber());
+    }
+
+    @Test
+    public void should_delete_companies_when_delete_companies_in_batch_given_company_ids() {
+        //given
+        Company company1 = companyRepository.save(new Company("ABC Company", 1000, new ArrayList<>()));
+        Company company2 = companyRepository.save(new Company("ABCD Company", 1100, new ArrayList<>()));
+        String idsAsJson = "[\"" + company1.getId() + "\", \"" + company2.getId() + "\"]";
+        //when
+        //then
+        webTestClient.method(HttpMethod.DELETE).uri("/companies/batch")
                 .contentType(MediaType.APPLICATION_JSON)
-                .content(companyAsJson))
-                .andExpect(status().isNotFound());
+                .bodyValue(idsAsJson)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.succeeded").isEqualTo(2);
+        assertEquals(0, companyRepository.count());
     }
 
     @Test
-    public void should_return_null_when_delete_company_given_companies_new_company() throws Exception {
+    public void should_return_null_when_delete_company_given_companies_new_company() {
         //given
         Company company = companyRepository.save(new Company("ABC Company", 1000, new ArrayList<>()));
 
         //when
         //then
         //todo: check response no content
-        mockMvc.perform(MockMvcRequestBuilders.delete("/companies/" + company.getId()));
+        webTestClient.delete().uri("/companies/" + company.getId())
+                .exchange();
         List<Company> companyList = companyRepository.findAll();
         assertEquals(0, companyList.size());
     }
@@ -1,31 +1,155 @@
 package com.thoughtworks.springbootemployee.integration;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.jayway.jsonpath.JsonPath;
+import com.thoughtworks.springbootemployee.dto.EmployeeRequest;
+import com.thoughtworks.springbootemployee.dto.EmployeeResponse;
 import com.thoughtworks.springbootemployee.model.Employee;
 import com.thoughtworks.springbootemployee.repository.EmployeeRepository;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
-import org.springframework.test.web.servlet.MockMvc;
-import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
-import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public abstract class EmployeeIntegrationTest {
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+    static class Servlet extends EmployeeIntegrationTest {
+
+        @Test
+        public void should_expose_request_service_and_mongo_metrics_when_get_prometheus_given_employees_requested() {
+            //given
+            employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
+            webTestClient.get().uri("/employees")
+                    .exchange()
+                    .expectStatus().isOk();
+            //when
+            String body = webTestClient.get().uri("/actuator/prometheus")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(String.class)
+                    .returnResult().getResponseBody();
+            //then
+            assertTrue(body.contains("http_server_requests_seconds_bucket"));
+            assertTrue(body.contains("service_method_seconds_bucket{class=\"EmployeeService\""));
+            assertTrue(body.contains("mongodb_driver_commands_seconds_bucket{command=\"find\""));
+            assertTrue(body.contains("mongodb_driver_commands_documents_count{command=\"find\""));
+            assertTrue(body.contains("mongodb_driver_pool_saturation"));
+        }
+
+        @Test
+        public void should_stream_all_employees_as_cbor_sequence_when_get_all_given_employees_and_accept_cbor_seq() throws Exception {
+            //given
+            employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
+            employeeRepository.save(new Employee("Mary", 19, 2000, "female"));
+            ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+            //when
+            byte[] body = webTestClient.get().uri("/employees")
+                    .accept(MediaType.parseMediaType("application/cbor-seq"))
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().contentType(MediaType.parseMediaType("application/cbor-seq"))
+                    .expectBody(byte[].class)
+                    .returnResult().getResponseBody();
+            //then
+            List<EmployeeResponse> employees = cborMapper.readerFor(EmployeeResponse.class)
+                    .<EmployeeResponse>readValues(body).readAll();
+            assertEquals(2, employees.size());
+            assertEquals("Victor", employees.get(0).getName());
+            assertEquals("Mary", employees.get(1).getName());
+        }
+
+        @Test
+        public void should_return_cbor_employee_when_add_employee_given_cbor_employee() throws Exception {
+            //given
+            ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+            byte[] employeeAsCbor = cborMapper.writeValueAsBytes(new EmployeeRequest("Victor", 18, "male", 1000));
+            //when
+            byte[] body = webTestClient.post().uri("/employees")
+                    .contentType(MediaType.APPLICATION_CBOR)
+                    .accept(MediaType.APPLICATION_CBOR)
+                    .bodyValue(employeeAsCbor)
+                    .exchange()
+                    .expectStatus().isCreated()
+                    .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                    .expectBody(byte[].class)
+                    .returnResult().getResponseBody();
+            //then
+            EmployeeResponse employee = cborMapper.readValue(body, EmployeeResponse.class);
+            assertEquals("Victor", employee.getName());
+            assertEquals(18, employee.getAge());
+            assertEquals(1, employeeRepository.count());
+        }
+
+        @Test
+        public void should_return_distinct_etag_per_representation_when_get_employee_given_cbor_or_fields() {
+            //given
+            Employee employee = employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
+            String jsonEtag = webTestClient.get().uri("/employees/" + employee.getId())
+                    .exchange()
+                    .expectHeader().valueEquals("Vary", "Accept")
+                    .returnResult(String.class)
+                    .getResponseHeaders().getETag();
+            //when
+            String cborEtag = webTestClient.get().uri("/employees/" + employee.getId())
+                    .accept(MediaType.APPLICATION_CBOR)
+                    .header("If-None-Match", jsonEtag)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .returnResult(byte[].class)
+                    .getResponseHeaders().getETag();
+            String fieldsEtag = webTestClient.get().uri("/employees/" + employee.getId() + "?fields=name")
+                    .header("If-None-Match", jsonEtag)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .returnResult(String.class)
+                    .getResponseHeaders().getETag();
+            //then
+            assertTrue(!jsonEtag.equals(cborEtag) && !jsonEtag.equals(fieldsEtag) && !cborEtag.equals(fieldsEtag));
+            webTestClient.get().uri("/employees/" + employee.getId())
+                    .accept(MediaType.APPLICATION_CBOR)
+                    .header("If-None-Match", cborEtag)
+                    .exchange()
+                    .expectStatus().isNotModified()
+                    .expectHeader().valueEquals("ETag", cborEtag);
+            webTestClient.patch().uri("/employees/" + employee.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header("If-Match", fieldsEtag)
+                    .bodyValue("{ \"name\" : \"Vic\" }")
+                    .exchange()
+                    .expectStatus().isOk();
+        }
+    }
+
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+    @ActiveProfiles("reactive")
+    static class Reactive extends EmployeeIntegrationTest {
+    }
+
+    @Autowired
+    WebTestClient webTestClient;
 
-@SpringBootTest
-@AutoConfigureMockMvc
-public class EmployeeIntegrationTest {
     @Autowired
-    MockMvc mockMvc;
+    EmployeeRepository employeeRepository;
 
     @Autowired
-    private EmployeeRepository employeeRepository;
+    MongoTemplate mongoTemplate;
 
     @AfterEach
     void tearDown() {
@@ -33,23 +157,289 @@ public class EmployeeIntegrationTest {
     }
 
     @Test
-    public void should_return_all_employees_when_get_all_given_employees() throws Exception {
+    public void should_create_declared_indexes_when_application_started() {
+        //given
+        //when
+        List<String> indexNames = mongoTemplate.indexOps(Employee.class).getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .collect(Collectors.toList());
+        //then
+        assertTrue(indexNames.contains("gender_salary_id"));
+        assertTrue(indexNames.contains("gender_age_id"));
+        assertFalse(indexNames.contains("gender_salary"));
+        assertTrue(indexNames.contains("name_ci"));
+    }
+
+    @Test
+    public void should_return_all_employees_when_get_all_given_employees() {
         //given
         Employee employee = new Employee("Victor", 18, 1000, "male");
         employeeRepository.save(employee);
         //when
-        mockMvc.perform(MockMvcRequestBuilders.get("/employees"))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").isString())
-                .andExpect(jsonPath("$[0].name").value("Victor"))
-                .andExpect(jsonPath("$[0].age").value(18))
-                .andExpect(jsonPath("$[0].salary").value(1000))
-                .andExpect(jsonPath("$[0].gender").value("male"));
+        webTestClient.get().uri("/employees")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].id").isNotEmpty()
+                .jsonPath("$[0].name").isEqualTo("Victor")
+                .jsonPath("$[0].age").isEqualTo(18)
+                .jsonPath("$[0].salary").isEqualTo(1000)
+                .jsonPath("$[0].gender").isEqualTo("male");
+        //then
+    }
+
+    @Test
+    public void should_return_only_selected_fields_when_get_all_given_employees_and_fields() {
+        //given
+        employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
+        //when
+        //then
+        webTestClient.get().uri("/employees?fields=name,salary")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].id").isNotEmpty()
+                .jsonPath("$[0].name").isEqualTo("Victor")
+                .jsonPath("$[0].salary").isEqualTo(1000)
+                .jsonPath("$[0].age").doesNotExist()
+                .jsonPath("$[0].gender").doesNotExist();
+    }
+
+    @Test
+    public void should_return_only_selected_fields_when_get_employee_given_employee_id_and_fields() {
+        //given
+        Employee employee = employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
+        //when
+        //then
+        webTestClient.get().uri("/employees/" + employee.getId() + "?fields=gender")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(employee.getId())
+                .jsonPath("$.gender").isEqualTo("male")
+                .jsonPath("$.name").doesNotExist();
+    }
+
+    @Test
+    public void should_return_bad_request_when_get_all_given_unknown_field() {
+        //given
+        //when
+        //then
+        webTestClient.get().uri("/employees?fields=password")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void should_stream_all_employees_as_ndjson_when_get_all_given_employees_and_accept_ndjson() {
+        //given
+        employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
+        employeeRepository.save(new Employee("Mary", 19, 2000, "female"));
+        //when
+        String body = webTestClient.get().uri("/employees")
+                .accept(MediaType.parseMediaType("application/x-ndjson"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.parseMediaType("application/x-ndjson"))
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+        //then
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"name\":\"Victor\""));
+        assertTrue(lines[1].contains("\"name\":\"Mary\""));
+    }
+
+    @Test
+    public void should_return_inserted_ids_when_add_employees_in_batch_given_smile_array() throws Exception {
+        //given
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+        byte[] employeesAsSmile = smileMapper.writeValueAsBytes(Arrays.asList(
+                new EmployeeRequest("Victor", 18, "male", 1000),
+                new EmployeeRequest("Mary", 19, "female", 2000)));
+        //when
+        byte[] body = webTestClient.post().uri("/employees/batch")
+                .contentType(MediaType.parseMediaType("application/x-jackson-smile"))
+                .accept(MediaType.parseMediaType("application/x-jackson-smile"))
+                .bodyValue(employeesAsSmile)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(byte[].class)
+                .returnResult().getResponseBody();
+        //then
+        assertEquals(2, smileMapper.readTree(body).get("succeeded").asInt());
+        assertEquals(2, employeeRepository.count());
+    }
+
+    @Test
+    public void should_import_rows_and_keep_given_ids_when_import_employees_given_csv() {
+        //given
+        String id = new ObjectId().toHexString();
+        String employeesAsCsv = "id,name,age,salary,gender\n" +
+                id + ",Victor,18,1000,male\n" +
+                ",Mary,19,2000,female\n";
+        //when
+        webTestClient.post().uri("/employees/import")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .bodyValue(employeesAsCsv)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.succeeded").isEqualTo(2)
+                .jsonPath("$.failed").isEqualTo(0)
+                .jsonPath("$.items.length()").isEqualTo(0);
+        //then
+        assertEquals("Victor", employeeRepository.findById(id).map(Employee::getName).orElse(null));
+        assertEquals(2, employeeRepository.count());
+    }
+
+    @Test
+    public void should_report_only_failed_rows_when_import_employees_given_ndjson_with_duplicate_id() {
+        //given
+        String id = new ObjectId().toHexString();
+        String employeesAsNdjson = "{\"id\":\"" + id + "\",\"name\":\"Victor\",\"age\":18,\"salary\":1000,\"gender\":\"male\"}\n" +
+                "{\"id\":\"" + id + "\",\"name\":\"Mary\",\"age\":19,\"salary\":2000,\"gender\":\"female\"}\n";
+        //when
+        //then
+        webTestClient.post().uri("/employees/import")
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .bodyValue(employeesAsNdjson)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.succeeded").isEqualTo(1)
+                .jsonPath("$.failed").isEqualTo(1)
+                .jsonPath("$.items.length()").isEqualTo(1)
+                .jsonPath("$.items[0].index").isEqualTo(1)
+                .jsonPath("$.items[0].id").isEqualTo(id);
+    }
+
+    @Test
+    public void should_stream_header_and_rows_when_export_employees_given_accept_csv() {
+        //given
+        Employee employee = employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
+        employeeRepository.save(new Employee("Mary", 19, 2000, "female"));
+        //when
+        String body = webTestClient.get().uri("/employees/export")
+                .accept(MediaType.parseMediaType("text/csv"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.parseMediaType("text/csv"))
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+        //then
+        String[] lines = body.split("\n");
+        assertEquals(3, lines.length);
+        List<String> columns = Arrays.asList(lines[0].split(","));
+        List<String> values = Arrays.asList(lines[1].split(","));
+        assertEquals(6, columns.size());
+        assertEquals(employee.getId(), values.get(columns.indexOf("id")));
+        assertEquals("Victor", values.get(columns.indexOf("name")));
+        assertEquals("1000", values.get(columns.indexOf("salary")));
+    }
+
+    @Test
+    public void should_stream_ndjson_when_export_employees_given_no_accept() {
+        //given
+        employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
+        //when
+        String body = webTestClient.get().uri("/employees/export")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
         //then
+        assertTrue(body.startsWith("{") && body.contains("\"name\":\"Victor\""));
     }
 
     @Test
-    public void should_return_employee_when_add_employee_given_employee() throws Exception {
+    public void should_return_prefix_matches_ignoring_case_when_search_given_name_prefix() {
+        //given
+        employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
+        employeeRepository.save(new Employee("vicky Lee", 19, 2000, "female"));
+        employeeRepository.save(new Employee("Mary", 20, 3000, "female"));
+        //when
+        //then
+        webTestClient.get().uri("/employees/search?q=VIC")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].name").isEqualTo("vicky Lee")
+                .jsonPath("$[1].name").isEqualTo("Victor");
+    }
+
+    @Test
+    public void should_return_token_matches_after_prefix_matches_when_search_given_name_token() {
+        //given
+        employeeRepository.save(new Employee("Lee", 18, 1000, "male"));
+        employeeRepository.save(new Employee("Vicky Lee", 19, 2000, "female"));
+        employeeRepository.save(new Employee("Mary", 20, 3000, "female"));
+        //when
+        //then
+        webTestClient.get().uri("/employees/search?q=lee&fields=name")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].name").isEqualTo("Lee")
+                .jsonPath("$[1].name").isEqualTo("Vicky Lee")
+                .jsonPath("$[1].age").doesNotExist();
+    }
+
+    @Test
+    public void should_return_bad_request_when_search_given_limit_above_maximum() {
+        //given
+        //when
+        //then
+        webTestClient.get().uri("/employees/search?q=vic&limit=1000")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void should_page_matching_employees_by_salary_desc_when_filter_given_gender_age_and_salary_ranges() {
+        //given
+        employeeRepository.save(new Employee("Amy", 30, 9000, "female"));
+        employeeRepository.save(new Employee("Bella", 28, 12000, "female"));
+        employeeRepository.save(new Employee("Cathy", 33, 8500, "female"));
+        employeeRepository.save(new Employee("Diana", 40, 20000, "female"));
+        employeeRepository.save(new Employee("Eric", 30, 15000, "male"));
+        employeeRepository.save(new Employee("Fiona", 26, 7000, "female"));
+        String filter = "/employees/filter?gender=female&minAge=25&maxAge=35&minSalary=8000&sort=salary,desc&pageSize=2";
+        //when
+        String body = new String(webTestClient.get().uri(filter + "&fields=name")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(2)
+                .jsonPath("$.content[0].name").isEqualTo("Bella")
+                .jsonPath("$.content[1].name").isEqualTo("Amy")
+                .jsonPath("$.content[0].age").doesNotExist()
+                .returnResult().getResponseBody());
+        //then
+        webTestClient.get().uri(filter + "&after=" + JsonPath.<String>read(body, "$.next"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(1)
+                .jsonPath("$.content[0].name").isEqualTo("Cathy")
+                .jsonPath("$.next").doesNotExist();
+    }
+
+    @Test
+    public void should_return_bad_request_when_filter_given_unsupported_sort() {
+        //given
+        //when
+        //then
+        webTestClient.get().uri("/employees/filter?sort=name")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void should_return_employee_when_add_employee_given_employee() {
         //given
         String employeeAsJson = "{\n" +
                 "    \"name\" : \"Victor\",\n" +
@@ -59,15 +449,17 @@ public class EmployeeIntegrationTest {
                 "}";
         //when
         //then
-        mockMvc.perform(MockMvcRequestBuilders.post("/employees")
+        webTestClient.post().uri("/employees")
                 .contentType(MediaType.APPLICATION_JSON)
-                .content(employeeAsJson))
-                .andExpect(status().isCreated())
-                .andExpect(jsonPath("id").isString())
-                .andExpect(jsonPath("name").value("Victor"))
-                .andExpect(jsonPath("age").value(18))
-                .andExpect(jsonPath("salary").value(1000))
-                .andExpect(jsonPath("gender").value("male"));
+                .bodyValue(employeeAsJson)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("id").isNotEmpty()
+                .jsonPath("name").isEqualTo("Victor")
+                .jsonPath("age").isEqualTo(18)
+                .jsonPath("salary").isEqualTo(1000)
+                .jsonPath("gender").isEqualTo("male");
         List<Employee> employeeList = employeeRepository.findAll();
         assertEquals(1, employeeList.size());
         assertEquals("Victor", employeeList.get(0).getName());
@@ -77,71 +469,240 @@ public class EmployeeIntegrationTest {
     }
 
     @Test
-    public void should_return_specific_employee_when_get_employee_given_employee_id() throws Exception {
+    public void should_accept_and_insert_later_when_add_employee_given_prefer_respond_async() throws Exception {
+        //given
+        String employeeAsJson = "{\"name\":\"Victor\",\"age\":18,\"salary\":1000,\"gender\":\"male\"}";
+        //when
+        String body = webTestClient.post().uri("/employees")
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employeeAsJson)
+                .exchange()
+                .expectStatus().isAccepted()
+                .expectHeader().valueEquals("Preference-Applied", "respond-async")
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+        //then
+        String id = JsonPath.read(body, "$.id");
+        assertEquals("Victor", JsonPath.<String>read(body, "$.name"));
+        for (int attempt = 0; attempt < 50 && !employeeRepository.existsById(id); attempt++) {
+            Thread.sleep(100);
+        }
+        assertEquals("Victor", employeeRepository.findById(id).map(Employee::getName).orElse(null));
+        webTestClient.get().uri("/employees/" + id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.version").isEqualTo(0);
+    }
+
+    @Test
+    public void should_return_inserted_ids_when_add_employees_in_batch_given_employee_array() {
+        //given
+        String employeesAsJson = "[\n" +
+                "    {\"name\" : \"Victor\", \"age\" : 18, \"salary\" : 1000, \"gender\" : \"male\"},\n" +
+                "    {\"name\" : \"Mary\", \"age\" : 19, \"salary\" : 2000, \"gender\" : \"female\"}\n" +
+                "]";
+        //when
+        //then
+        webTestClient.post().uri("/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employeesAsJson)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.succeeded").isEqualTo(2)
+                .jsonPath("$.failed").isEqualTo(0)
+                .jsonPath("$.items.length()").isEqualTo(2)
+                .jsonPath("$.items[0].index").isEqualTo(0)
+                .jsonPath("$.items[0].id").isNotEmpty()
+                .jsonPath("$.items[1].index").isEqualTo(1)
+                .jsonPath("$.items[1].id").isNotEmpty();
+        List<Employee> employeeList = employeeRepository.findAll();
+        assertEquals(2, employeeList.size());
+        assertEquals("Victor", employeeList.get(0).getName());
+        assertEquals("Mary", employeeList.get(1).getName());
+    }
+
+    @Test
+    public void should_return_inserted_ids_when_add_employees_in_batch_given_ndjson_stream() {
+        //given
+        String employeesAsNdjson =
+                "{\"name\" : \"Victor\", \"age\" : 18, \"salary\" : 1000, \"gender\" : \"male\"}\n" +
+                "{\"name\" : \"Mary\", \"age\" : 19, \"salary\" : 2000, \"gender\" : \"female\"}\n" +
+                "{\"name\" : \"Mandy\", \"age\" : 18, \"salary\" : 1000, \"gender\" : \"female\"}\n";
+        //when
+        //then
+        webTestClient.post().uri("/employees/batch")
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .bodyValue(employeesAsNdjson)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.succeeded").isEqualTo(3)
+                .jsonPath("$.items.length()").isEqualTo(3);
+        assertEquals(3, employeeRepository.count());
+    }
+
+    @Test
+    public void should_report_malformed_item_and_keep_inserting_when_add_employees_in_batch_given_bad_row_after_first_chunk() {
+        //given
+        StringBuilder employeesAsNdjson = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            employeesAsNdjson.append("{\"name\" : \"Victor\", \"age\" : 18, \"salary\" : 1000, \"gender\" : \"male\"}\n");
+        }
+        employeesAsNdjson.append("{\"name\" : \"Mary\", \"age\" : \"nineteen\", \"salary\" : 2000, \"gender\" : \"female\"}\n");
+        employeesAsNdjson.append("{\"name\" : \"Mandy\", \"age\" : 18, \"salary\" : 1000, \"gender\" : \"female\"}\n");
+        //when
+        //then
+        webTestClient.post().uri("/employees/batch")
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .bodyValue(employeesAsNdjson.toString())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.succeeded").isEqualTo(1001)
+                .jsonPath("$.failed").isEqualTo(1)
+                .jsonPath("$.items.length()").isEqualTo(1002)
+                .jsonPath("$.items[1000].index").isEqualTo(1000)
+                .jsonPath("$.items[1000].error").isEqualTo("Malformed Record")
+                .jsonPath("$.items[1001].index").isEqualTo(1001)
+                .jsonPath("$.items[1001].id").isNotEmpty();
+        assertEquals(1001, employeeRepository.count());
+    }
+
+    @Test
+    public void should_return_partial_result_when_add_employees_in_batch_given_unparseable_row_after_first_chunk() {
+        //given
+        StringBuilder employeesAsNdjson = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            employeesAsNdjson.append("{\"name\" : \"Victor\", \"age\" : 18, \"salary\" : 1000, \"gender\" : \"male\"}\n");
+        }
+        employeesAsNdjson.append("{\"name\" : \"Mary\", \"age\" : }\n");
+        employeesAsNdjson.append("{\"name\" : \"Mandy\", \"age\" : 18, \"salary\" : 1000, \"gender\" : \"female\"}\n");
+        //when
+        //then
+        webTestClient.post().uri("/employees/batch")
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .bodyValue(employeesAsNdjson.toString())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.succeeded").isEqualTo(1000)
+                .jsonPath("$.failed").isEqualTo(1)
+                .jsonPath("$.items.length()").isEqualTo(1001)
+                .jsonPath("$.items[1000].index").isEqualTo(1000)
+                .jsonPath("$.items[1000].error").isEqualTo("Malformed Record");
+        assertEquals(1000, employeeRepository.count());
+    }
+
+    @Test
+    public void should_return_specific_employee_when_get_employee_given_employee_id() {
         //given
         Employee employee = employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
         //when
         //then
-        mockMvc.perform(MockMvcRequestBuilders.get("/employees/" + employee.getId()))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("id").isString())
-                .andExpect(jsonPath("name").value("Victor"))
-                .andExpect(jsonPath("age").value(18))
-                .andExpect(jsonPath("salary").value(1000))
-                .andExpect(jsonPath("gender").value("male"));
+        webTestClient.get().uri("/employees/" + employee.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("id").isEqualTo(employee.getId())
+                .jsonPath("name").isEqualTo("Victor")
+                .jsonPath("age").isEqualTo(18)
+                .jsonPath("salary").isEqualTo(1000)
+                .jsonPath("gender").isEqualTo("male");
     }
 
 
     @Test
-    public void should_return_not_found_when_get_employee_given_invalid_employee_id() throws Exception {
+    public void should_return_not_found_when_get_employee_given_invalid_employee_id() {
         //given
         //when
         //then
-        mockMvc.perform(MockMvcRequestBuilders.get("/employees/" + "6fc9d0e060e64c0326fd2e92"))
-                .andExpect(status().isNotFound());
+        webTestClient.get().uri("/employees/" + "6fc9d0e060e64c0326fd2e92")
+                .exchange()
+                .expectStatus().isNotFound();
     }
 
     @Test
-    public void should_return_all_male_employees_when_get_all_employee_by_gender_given_employees_male() throws Exception {
+    public void should_return_all_male_employees_when_get_all_employee_by_gender_given_employees_male() {
         //given
         employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
         employeeRepository.save(new Employee("Vic", 18, 1000, "male"));
         employeeRepository.save(new Employee("Victor", 18, 1000, "female"));
         //when
         //then
-        mockMvc.perform(MockMvcRequestBuilders.get("/employees").param("gender", "male"))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.*", hasSize(2)));
+        webTestClient.get().uri("/employees?gender=male")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2);
     }
 
     @Test
-    public void should_return_first_2_employee_when_get_employee_by_page_given_employees_page1_pageSize2() throws Exception {
+    public void should_return_first_2_employee_when_get_employee_by_page_given_employees_page1_pageSize2() {
         //given
         Employee employee1 = employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
         Employee employee2 = employeeRepository.save(new Employee("Mary", 19, 2000, "female"));
         employeeRepository.save(new Employee("Mandy", 18, 1000, "female"));
         //when
         //then
-        mockMvc.perform(MockMvcRequestBuilders.get("/employees")
-                .param("page", "1")
-                .param("pageSize", "2"))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.*", hasSize(2)))
-                .andExpect(jsonPath("$[0].id").isString())
-                .andExpect(jsonPath("$[0].name").value(employee1.getName()))
-                .andExpect(jsonPath("$[0].age").value(employee1.getAge()))
-                .andExpect(jsonPath("$[0].salary").value(employee1.getSalary()))
-                .andExpect(jsonPath("$[0].gender").value(employee1.getGender()))
-                .andExpect(jsonPath("$[1].id").isString())
-                .andExpect(jsonPath("$[1].name").value(employee2.getName()))
-                .andExpect(jsonPath("$[1].age").value(employee2.getAge()))
-                .andExpect(jsonPath("$[1].salary").value(employee2.getSalary()))
-                .andExpect(jsonPath("$[1].gender").value(employee2.getGender()));
+        webTestClient.get().uri("/employees?page=1&pageSize=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].id").isNotEmpty()
+                .jsonPath("$[0].name").isEqualTo(employee1.getName())
+                .jsonPath("$[0].age").isEqualTo(employee1.getAge())
+                .jsonPath("$[0].salary").isEqualTo(employee1.getSalary())
+                .jsonPath("$[0].gender").isEqualTo(employee1.getGender())
+                .jsonPath("$[1].id").isNotEmpty()
+                .jsonPath("$[1].name").isEqualTo(employee2.getName())
+                .jsonPath("$[1].age").isEqualTo(employee2.getAge())
+                .jsonPath("$[1].salary").isEqualTo(employee2.getSalary())
+                .jsonPath("$[1].gender").isEqualTo(employee2.getGender());
+    }
+
+
+    @Test
+    public void should_return_pages_linked_by_next_token_when_get_employee_by_keyset_given_employees_pageSize2() {
+        //given
+        employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
+        employeeRepository.save(new Employee("Mary", 19, 2000, "female"));
+        employeeRepository.save(new Employee("Mandy", 18, 1000, "female"));
+        //when
+        String firstPage = new String(webTestClient.get().uri("/employees?pageSize=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(2)
+                .jsonPath("$.content[0].name").isEqualTo("Victor")
+                .jsonPath("$.content[1].name").isEqualTo("Mary")
+                .jsonPath("$.next").isNotEmpty()
+                .returnResult().getResponseBody());
+        //then
+        webTestClient.get().uri("/employees?pageSize=2&after=" + JsonPath.<String>read(firstPage, "$.next"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(1)
+                .jsonPath("$.content[0].name").isEqualTo("Mandy")
+                .jsonPath("$.next").doesNotExist();
     }
 
+    @Test
+    public void should_return_bad_request_when_get_employee_by_keyset_given_invalid_token() {
+        //given
+        //when
+        //then
+        webTestClient.get().uri("/employees?pageSize=2&after=not-a-token")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
 
     @Test
-    public void should_return_updated_employee_when_updated_employee_given_employees_new_employee() throws Exception {
+    public void should_return_updated_employee_when_updated_employee_given_employees_new_employee() {
         //given
 
         Employee employee = employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
@@ -154,15 +715,17 @@ public class EmployeeIntegrationTest {
                 "}";
         //when
         //then
-        mockMvc.perform(MockMvcRequestBuilders.put("/employees/" + employee.getId())
+        webTestClient.put().uri("/employees/" + employee.getId())
                 .contentType(MediaType.APPLICATION_JSON)
-                .content(employeeAsJson))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.id").value(employee.getId()))
-                .andExpect(jsonPath("$.name").value("Mary"))
-                .andExpect(jsonPath("$.age").value(19))
-                .andExpect(jsonPath("$.salary").value(10000))
-                .andExpect(jsonPath("$.gender").value("female"));
+                .bodyValue(employeeAsJson)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(employee.getId())
+                .jsonPath("$.name").isEqualTo("Mary")
+                .jsonPath("$.age").isEqualTo(19)
+                .jsonPath("$.salary").isEqualTo(10000)
+                .jsonPath("$.gender").isEqualTo("female");
         List<Employee> employeeList = employeeRepository.findAll();
         assertEquals(1, employeeList.size());
         assertEquals("Mary", employeeList.get(0).getName());
@@ -172,7 +735,44 @@ public class EmployeeIntegrationTest {
     }
 
     @Test
-    public void should_return_not_found_when_updated_employee_given_employees_invalid_employee_id() throws Exception {
+    public void should_return_updated_employee_when_get_employee_after_update_given_cached_employee() {
+        //given
+        Employee employee = employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
+        webTestClient.get().uri("/employees/" + employee.getId())
+                .exchange()
+                .expectBody()
+                .jsonPath("$.salary").isEqualTo(1000);
+        webTestClient.get().uri("/employees/" + employee.getId())
+                .exchange()
+                .expectBody()
+                .jsonPath("$.salary").isEqualTo(1000);
+        String employeeAsJson = "{\n" +
+                "    \"name\" : \"Victor\",\n" +
+                "    \"age\"   : \"18\",\n" +
+                "    \"salary\" : \"2000\",\n" +
+                "    \"gender\" : \"male\"\n" +
+                "}";
+        //when
+        webTestClient.put().uri("/employees/" + employee.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employeeAsJson)
+                .exchange()
+                .expectStatus().isOk();
+        //then
+        webTestClient.get().uri("/employees/" + employee.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.salary").isEqualTo(2000);
+        webTestClient.get().uri("/caches")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[?(@.name == 'employees')].hitCount").isNotEmpty();
+    }
+
+    @Test
+    public void should_return_not_found_when_updated_employee_given_employees_invalid_employee_id() {
         //given
 
         String employeeAsJson = "{\n" +
@@ -183,21 +783,352 @@ public class EmployeeIntegrationTest {
                 "}";
         //when
         //then
-        mockMvc.perform(MockMvcRequestBuilders.put("/employees/" + "6fc9d0e060e64c0326fd2e92")
+        webTestClient.put().uri("/employees/" + "6fc9d0e060e64c0326fd2e92")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employeeAsJson)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void should_report_each_item_when_update_employees_in_batch_given_existing_and_missing_ids() {
+        //given
+        Employee employee = employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
+        String updatesAsJson = "[\n" +
+                "    {\"id\" : \"" + employee.getId() + "\", \"salary\" : 5000},\n" +
+                "    {\"id\" : \"6fc9d0e060e64c0326fd2e92\", \"salary\" : 5000}\n" +
+                "]";
+        //when
+        //then
+        webTestClient.patch().uri("/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(updatesAsJson)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.succeeded").isEqualTo(1)
+                .jsonPath("$.failed").isEqualTo(1)
+                .jsonPath("$.items[0].id").isEqualTo(employee.getId())
+                .jsonPath("$.items[0].error").doesNotExist()
+                .jsonPath("$.items[1].error").isEqualTo("Not Found");
+        Employee updatedEmployee = employeeRepository.findById(employee.getId()).get();
+        assertEquals("Victor", updatedEmployee.getName());
+        assertEquals(5000, updatedEmployee.getSalary());
+    }
+
+    @Test
+    public void should_report_each_item_when_delete_employees_in_batch_given_existing_and_missing_ids() {
+        //given
+        Employee employee1 = employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
+        Employee employee2 = employeeRepository.save(new Employee("Mary", 19, 2000, "female"));
+        employeeRepository.save(new Employee("Mandy", 18, 1000, "female"));
+        String idsAsJson = "[\"" + employee1.getId() + "\", \"" + employee2.getId() + "\", \"6fc9d0e060e64c0326fd2e92\"]";
+        //when
+        //then
+        webTestClient.method(HttpMethod.DELETE).uri("/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(idsAsJson)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.succeeded").isEqualTo(2)
+                .jsonPath("$.failed").isEqualTo(1)
+                .jsonPath("$.items[2].error").isEqualTo("Not Found");
+        List<Employee> employeeList = employeeRepository.findAll();
+        assertEquals(1, employeeList.size());
+        assertEquals("Mandy", employeeList.get(0).getName());
+    }
+
+    @Test
+    public void should_return_salary_and_age_stats_per_gender_when_get_stats_given_group_by_gender() {
+        //given
+        employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
+        employeeRepository.save(new Employee("Vic", 20, 3000, "male"));
+        employeeRepository.save(new Employee("Mary", 19, 2000, "female"));
+        //when
+        //then
+        webTestClient.get().uri("/employees/stats?groupBy=gender&buckets=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].group").isEqualTo("female")
+                .jsonPath("$[0].count").isEqualTo(1)
+                .jsonPath("$[1].group").isEqualTo("male")
+                .jsonPath("$[1].count").isEqualTo(2)
+                .jsonPath("$[1].salary.sum").isEqualTo(4000)
+                .jsonPath("$[1].salary.average").isEqualTo(2000.0)
+                .jsonPath("$[1].salary.min").isEqualTo(1000)
+                .jsonPath("$[1].salary.max").isEqualTo(3000)
+                .jsonPath("$[1].salary.buckets.length()").isEqualTo(2)
+                .jsonPath("$[1].salary.buckets[0].min").isEqualTo(1000)
+                .jsonPath("$[1].salary.buckets[0].count").isEqualTo(1)
+                .jsonPath("$[1].salary.buckets[1].max").isEqualTo(3000)
+                .jsonPath("$[1].age.min").isEqualTo(18)
+                .jsonPath("$[1].age.max").isEqualTo(20);
+    }
+
+    @Test
+    public void should_move_employee_between_gender_stats_when_update_employee_given_rebuilt_stats() {
+        //given
+        Employee employee = employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
+        employeeRepository.save(new Employee("Mary", 25, 2000, "female"));
+        webTestClient.post().uri("/stats/rebuild")
+                .exchange()
+                .expectStatus().isNoContent();
+        String employeeAsJson = "{\n" +
+                "    \"name\" : \"Victoria\",\n" +
+                "    \"age\"   : \"21\",\n" +
+                "    \"salary\" : \"3000\",\n" +
+                "    \"gender\" : \"female\"\n" +
+                "}";
+        //when
+        webTestClient.put().uri("/employees/" + employee.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employeeAsJson)
+                .exchange()
+                .expectStatus().isOk();
+        //then
+        webTestClient.get().uri("/stats/genders")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].group").isEqualTo("female")
+                .jsonPath("$[0].count").isEqualTo(2)
+                .jsonPath("$[0].salarySum").isEqualTo(5000)
+                .jsonPath("$[0].ageHistogram['20-29']").isEqualTo(2);
+    }
+
+    @Test
+    public void should_return_bad_request_when_get_stats_given_unknown_group_by() {
+        //given
+        //when
+        //then
+        webTestClient.get().uri("/employees/stats?groupBy=salary")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void should_set_and_increment_only_supplied_fields_when_patch_employee_given_employee() {
+        //given
+        Employee employee = employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
+        String patchAsJson = "{\n" +
+                "    \"name\" : \"Vic\",\n" +
+                "    \"increment\" : { \"salary\" : 250 }\n" +
+                "}";
+        //when
+        //then
+        webTestClient.patch().uri("/employees/" + employee.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(patchAsJson)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(employee.getId())
+                .jsonPath("$.name").isEqualTo("Vic")
+                .jsonPath("$.salary").isEqualTo(1250)
+                .jsonPath("$.age").isEqualTo(18)
+                .jsonPath("$.gender").isEqualTo("male");
+        Employee patchedEmployee = employeeRepository.findById(employee.getId()).get();
+        assertEquals("Vic", patchedEmployee.getName());
+        assertEquals(1250, patchedEmployee.getSalary());
+        assertEquals(18, patchedEmployee.getAge());
+    }
+
+    @Test
+    public void should_return_bad_request_when_patch_employee_given_field_both_set_and_incremented() {
+        //given
+        Employee employee = employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
+        String patchAsJson = "{ \"salary\" : 2000, \"increment\" : { \"salary\" : 250 } }";
+        //when
+        //then
+        webTestClient.patch().uri("/employees/" + employee.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(patchAsJson)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void should_return_not_found_when_patch_employee_given_invalid_employee_id() {
+        //given
+        //when
+        //then
+        webTestClient.patch().uri("/employees/" + "6fc9d0e060e64c0326fd2e92")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{ \"name\" : \"Vic\" }")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void should_return_not_modified_when_get_employee_given_current_etag() {
+        //given
+        Employee employee = employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
+        String etag = webTestClient.get().uri("/employees/" + employee.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"" + employee.getVersion() + "\"")
+                .returnResult(String.class)
+                .getResponseHeaders().getETag();
+        //when
+        //then
+        webTestClient.get().uri("/employees/" + employee.getId())
+                .header("If-None-Match", etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals("ETag", etag)
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    public void should_return_employee_with_new_etag_when_get_employee_given_etag_before_update() {
+        //given
+        Employee employee = employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
+        String etag = webTestClient.get().uri("/employees/" + employee.getId())
+                .exchange()
+                .returnResult(String.class)
+                .getResponseHeaders().getETag();
+        webTestClient.put().uri("/employees/" + employee.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{ \"name\" : \"Mary\", \"age\" : 19, \"salary\" : 10000, \"gender\" : \"female\" }")
+                .exchange()
+                .expectStatus().isOk();
+        //when
+        //then
+        webTestClient.get().uri("/employees/" + employee.getId())
+                .header("If-None-Match", etag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"" + (employee.getVersion() + 1) + "\"")
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Mary");
+    }
+
+    @Test
+    public void should_return_not_modified_until_employee_created_when_get_all_given_collection_etag() {
+        //given
+        employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
+        String etag = webTestClient.get().uri("/employees")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseHeaders().getETag();
+        //when
+        //then
+        webTestClient.get().uri("/employees")
+                .header("If-None-Match", etag)
+                .exchange()
+                .expectStatus().isNotModified();
+        webTestClient.post().uri("/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{ \"name\" : \"Mary\", \"age\" : 19, \"salary\" : 10000, \"gender\" : \"female\" }")
+                .exchange()
+                .expectStatus().isCreated();
+        webTestClient.get().uri("/employees")
+                .header("If-None-Match", etag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2);
+    }
+
+    @Test
+    public void should_increment_version_when_update_employee_given_matching_if_match() {
+        //given
+        Employee employee = employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
+        String employeeAsJson = "{ \"name\" : \"Mary\", \"age\" : 19, \"salary\" : 10000, \"gender\" : \"female\" }";
+        //when
+        //then
+        webTestClient.put().uri("/employees/" + employee.getId())
+                .header("If-Match", "\"" + employee.getVersion() + "\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employeeAsJson)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Mary")
+                .jsonPath("$.version").isEqualTo(employee.getVersion() + 1);
+    }
+
+    @Test
+    public void should_return_precondition_failed_and_keep_employee_when_update_employee_given_stale_if_match() {
+        //given
+        Employee employee = employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
+        long staleVersion = employee.getVersion();
+        employee.setSalary(2000);
+        employeeRepository.save(employee);
+        String employeeAsJson = "{ \"name\" : \"Mary\", \"age\" : 19, \"salary\" : 10000, \"gender\" : \"female\" }";
+        //when
+        //then
+        webTestClient.put().uri("/employees/" + employee.getId())
+                .header("If-Match", "\"" + staleVersion + "\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employeeAsJson)
+                .exchange()
+                .expectStatus().isEqualTo(412);
+        Employee storedEmployee = employeeRepository.findById(employee.getId()).get();
+        assertEquals("Victor", storedEmployee.getName());
+        assertEquals(2000, storedEmployee.getSalary());
+    }
+
+    @Test
+    public void should_update_employee_when_update_employee_given_weak_tag_in_if_match_list() {
+        //given
+        Employee employee = employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
+        String employeeAsJson = "{ \"name\" : \"Mary\", \"age\" : 19, \"salary\" : 10000, \"gender\" : \"female\" }";
+        //when
+        //then
+        webTestClient.put().uri("/employees/" + employee.getId())
+                .header("If-Match", "\"" + (employee.getVersion() + 1) + "\", W/\"" + employee.getVersion() + "\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employeeAsJson)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Mary");
+    }
+
+    @Test
+    public void should_return_precondition_failed_when_patch_employee_given_any_if_match_and_no_employee() {
+        //given
+        //when
+        //then
+        webTestClient.patch().uri("/employees/5f0c2b8a9d1e3a4b00000001")
+                .header("If-Match", "*")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{ \"increment\" : { \"salary\" : 100 } }")
+                .exchange()
+                .expectStatus().isEqualTo(412);
+    }
+
+    @Test
+    public void should_return_precondition_failed_when_patch_employee_given_stale_if_match() {
+        //given
+        Employee employee = employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
+        //when
+        //then
+        webTestClient.patch().uri("/employees/" + employee.getId())
+                .header("If-Match", "\"" + (employee.getVersion() + 1) + "\"")
                 .contentType(MediaType.APPLICATION_JSON)
-                .content(employeeAsJson))
-                .andExpect(status().isNotFound());
+                .bodyValue("{ \"increment\" : { \"salary\" : 100 } }")
+                .exchange()
+                .expectStatus().isEqualTo(412);
+        assertEquals(1000, employeeRepository.findById(employee.getId()).get().getSalary());
     }
 
     @Test
-    public void should_return_null_when_delete_employee_given_employees_new_employee() throws Exception {
+    public void should_return_null_when_delete_employee_given_employees_new_employee() {
         //given
         Employee employee = employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
 
         //when
         //then
-        mockMvc.perform(MockMvcRequestBuilders.delete("/employees/" + employee.getId()))
-                .andExpect(status().isNoContent());
+        webTestClient.delete().uri("/employees/" + employee.getId())
+                .exchange()
+                .expectStatus().isNoContent();
         List<Employee> employeeList = employeeRepository.findAll();
         assertEquals(0, employeeList.size());
     }
@@ -0,0 +1,60 @@
+package com.thoughtworks.springbootemployee.integration;
+
+import com.jayway.jsonpath.JsonPath;
+import com.thoughtworks.springbootemployee.model.Employee;
+import com.thoughtworks.springbootemployee.repository.EmployeeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.slow-query.threshold=0ms")
+@AutoConfigureMockMvc
+public class SlowQueryIntegrationTest {
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @AfterEach
+    void tearDown() {
+        employeeRepository.deleteAll();
+    }
+
+    @Test
+    public void should_log_query_with_explain_summary_when_get_slow_queries_given_query_above_threshold() throws Exception {
+        //given
+        employeeRepository.save(new Employee("Victor", 18, 1000, "male"));
+        employeeRepository.save(new Employee("Mary", 19, 2000, "female"));
+        mockMvc.perform(MockMvcRequestBuilders.delete("/slow-queries"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(MockMvcRequestBuilders.get("/employees").param("gender", "male"))
+                .andExpect(status().isOk());
+        //when
+        String body = null;
+        for (int attempt = 0; attempt < 50; attempt++) {
+            body = mockMvc.perform(MockMvcRequestBuilders.get("/slow-queries").param("collection", "employee"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].command").value("find"))
+                    .andReturn().getResponse().getContentAsString();
+            if (Boolean.TRUE.equals(JsonPath.read(body, "$[0].explained"))) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+        //then
+        assertTrue(JsonPath.<String>read(body, "$[0].filter").contains("\"gender\": \"male\""));
+        assertEquals(Boolean.TRUE, JsonPath.read(body, "$[0].explained"));
+        assertEquals(Integer.valueOf(1), JsonPath.read(body, "$[0].returned"));
+        assertEquals("IXSCAN", JsonPath.read(body, "$[0].winningStage"));
+    }
+}